@@ -1,8 +1,7 @@
 package org.unibl.etf.epj2.drivers;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a driver with personal identification details and license information.
@@ -26,15 +25,15 @@ public class Driver {
 	private String driverLicenseNumber;
 	
 	/**
-	 * A map that tracks the count of drivers with the same name.
-	 * <p>The key id the driver's name and the value is the number of drivers with that name.</p>
+	 * The number of rides of the driver.
+	 * <p>The counter is atomic, because rides are recorded from the simulation threads.</p>
 	 */
-	private static final Map<String, Integer> driverCountMap = new HashMap<>();
+	private final AtomicLong numberOfRides = new AtomicLong();
 	
 	/**
 	 * Creates a new driver with the specified name.
-	 * <p>This constructor initializes the driver's name, generates unique identification and license
-	 * numbers and updates the driver count map.</p>
+	 * <p>This constructor initializes the driver's name and generates unique identification and license
+	 * numbers.</p>
 	 * 
 	 * @param nameOfTheDriver  The name of the driver to set.
 	 */
@@ -42,7 +41,6 @@ public class Driver {
 		this.nameOfTheDriver = nameOfTheDriver;
 		this.driverIdentificationNumber = setDriverNumbers(8);
 		this.driverLicenseNumber = setDriverNumbers(10);
-		driverCountMap.put(nameOfTheDriver, driverCountMap.getOrDefault(nameOfTheDriver, 0) + 1);
 	}
 		
 	/**
@@ -139,12 +137,20 @@ public class Driver {
 	}
 	
 	/**
-	 * Retrieves the count of drivers with the specified name.
+	 * Records a new ride of the driver.
 	 * 
-	 * @param nameOfTheDriver  The name of the driver.
-	 * @return The count of drivers with the specified name.
+	 * @return The ordinal number of the recorded ride, starting from one.
 	 */
-	public static int getDriverCount(String nameOfTheDriver) {
-		return driverCountMap.getOrDefault(nameOfTheDriver, 0);
+	public long recordRide() {
+		return numberOfRides.incrementAndGet();
+	}
+	
+	/**
+	 * Returns the number of rides recorded for the driver.
+	 * 
+	 * @return The number of rides.
+	 */
+	public long getNumberOfRides() {
+		return numberOfRides.get();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package org.unibl.etf.epj2.drivers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds all drivers that appear in the rental data and indexes them by name.
+ * <p>Lookup and creation of a driver is a single hash operation. The registry is safe to use from multiple threads,
+ * and every {@link Driver} keeps its own atomic ride counter, so ride counts and discount eligibility stay correct when
+ * rentals are priced concurrently.</p>
+ * 
+ * @author Tamara Kosovac
+ */
+public class DriverRegistry {
+	/**
+	 * Map from the name of the driver to the driver.
+	 */
+	private final ConcurrentMap<String, Driver> driversByName = new ConcurrentHashMap<>();
+	
+	/**
+	 * Returns the driver with the specified name, creating it if it doesn't exist.
+	 * 
+	 * @param nameOfTheDriver  The name of the driver.
+	 * @return The existing or newly created driver.
+	 */
+	public Driver findOrCreateDriver(String nameOfTheDriver) {
+		return driversByName.computeIfAbsent(nameOfTheDriver, Driver::new);
+	}
+	
+	/**
+	 * Returns the driver with the specified name.
+	 * 
+	 * @param nameOfTheDriver  The name of the driver.
+	 * @return The driver, or {@code null} if it doesn't exist.
+	 */
+	public Driver findByName(String nameOfTheDriver) {
+		return driversByName.get(nameOfTheDriver);
+	}
+	
+	/**
+	 * Returns the number of rides recorded for the driver with the specified name.
+	 * 
+	 * @param nameOfTheDriver  The name of the driver.
+	 * @return The number of rides, or zero if the driver doesn't exist.
+	 */
+	public long getRideCount(String nameOfTheDriver) {
+		Driver driver = driversByName.get(nameOfTheDriver);
+		return driver == null ? 0 : driver.getNumberOfRides();
+	}
+	
+	/**
+	 * Returns the number of drivers in the registry.
+	 * 
+	 * @return The number of drivers.
+	 */
+	public int size() {
+		return driversByName.size();
+	}
+	
+	/**
+	 * Returns all drivers in the registry.
+	 * 
+	 * @return An unmodifiable snapshot of all drivers.
+	 */
+	public Collection<Driver> getDrivers() {
+		return Collections.unmodifiableCollection(new ArrayList<>(driversByName.values()));
+	}
+}
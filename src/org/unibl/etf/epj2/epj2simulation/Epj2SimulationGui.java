@@ -4,12 +4,15 @@ import java.awt.EventQueue;
 import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.swing.JButton;
@@ -17,18 +20,28 @@ import javax.swing.JFrame;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 
 import org.unibl.etf.epj2.gui.ShowDailyReportFrame;
 import org.unibl.etf.epj2.gui.ShowDeserializedVehiclesFrame;
+import org.unibl.etf.epj2.gui.ShowDuplicateRentalsFrame;
+import org.unibl.etf.epj2.gui.ShowInvoicesFrame;
 import org.unibl.etf.epj2.gui.ShowMalfunctionsFrame;
 import org.unibl.etf.epj2.gui.ShowSummaryReportFrame;
+import org.unibl.etf.epj2.gui.ShowUsageReportFrame;
 import org.unibl.etf.epj2.gui.ShowVehiclesFrame;
+import org.unibl.etf.epj2.invoices.InvoiceJournal;
+import org.unibl.etf.epj2.invoices.InvoiceStorage;
+import org.unibl.etf.epj2.invoices.InvoiceWriter;
 import org.unibl.etf.epj2.rentals.ReadRentals;
 import org.unibl.etf.epj2.rentals.Rental;
 import org.unibl.etf.epj2.rentals.RentalCalculator;
+import org.unibl.etf.epj2.rentals.RentalReadResult;
+import org.unibl.etf.epj2.rentals.TariffConfig;
+import org.unibl.etf.epj2.reports.ReportStore;
 import org.unibl.etf.epj2.serialization.VehicleSerialization;
 import org.unibl.etf.epj2.vehicles.ReadVehicles;
-import org.unibl.etf.epj2.vehicles.Vehicle;
+import org.unibl.etf.epj2.vehicles.VehicleRegistry;
 
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
@@ -36,7 +49,7 @@ import javax.swing.SwingUtilities;
 /**
  * The main GUI class for the EPJ2 simulation application.
  * This class creates and displays the main frame of the application with menu options for displaying vehicle data,
- * malfunction data, business reports and deserialized vehicles. It also includes a button to start the simulation.
+ * malfunction data, business reports, invoices and deserialized vehicles. It also includes a button to start the simulation.
  * 
  * @author Tamara Kosovac
  */
@@ -48,6 +61,12 @@ public class Epj2SimulationGui extends JFrame {
 	 */
 	private JFrame frame;
 
+	/**
+	 * Creates the executor that prices the finished rentals of a real-time simulation, by default with a virtual
+	 * thread per rental.
+	 */
+	private Supplier<ExecutorService> executorFactory = () -> SimulationExecutors.create(TariffConfig.getCurrent());
+
 	/**
 	 * Entry point of the application. It initializes and displays the main frame.
 	 *  
@@ -80,9 +99,10 @@ public class Epj2SimulationGui extends JFrame {
      * Reads vehicle and rental data, and sets up action listeners for menu items and buttons.
 	 */
 	private void initialize() {
-        Set<Vehicle> vehicles = ReadVehicles.readVehicles();
-        List<Rental> rentals = ReadRentals.readRentals(vehicles, null);
-   		RentalCalculator.writeInPropertieFile(rentals);
+        VehicleRegistry vehicles = ReadVehicles.readVehicles();
+        RentalReadResult readResult = ReadRentals.readRentals(vehicles);
+        List<Rental> rentals = readResult.getRentals();
+        RentalCalculator.writeInPropertieFile(rentals);
 		frame = new JFrame("ePJ2");
 		frame.setBounds(150, 20, 20, 150);
 		frame.setSize(1000, 800);
@@ -137,6 +157,18 @@ public class Epj2SimulationGui extends JFrame {
 		mntmNewMenuItem1.setFont(new Font("Serif", Font.BOLD, 14));
 		mnNewMenu1.add(mntmNewMenuItem1);
 		
+		JMenuItem mntmDuplicateRentals = new JMenuItem("Prikazi duplikate iznajmljivanja");
+		mntmDuplicateRentals.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				ShowDuplicateRentalsFrame showDuplicateRentalsFrame = new ShowDuplicateRentalsFrame(readResult.getDuplicateRentals());
+				showDuplicateRentalsFrame.setVisible(true);
+			}
+		});
+		mntmDuplicateRentals.setForeground(Color.WHITE);
+		mntmDuplicateRentals.setBackground(Color.DARK_GRAY);
+		mntmDuplicateRentals.setFont(new Font("Serif", Font.BOLD, 14));
+		mnNewMenu1.add(mntmDuplicateRentals);
+		
 		JMenu mnNewMenu2 = new JMenu("Rezultati poslovanja");
 		mnNewMenu2.setForeground(Color.WHITE);
 		mnNewMenu2.setOpaque(true);
@@ -168,6 +200,69 @@ public class Epj2SimulationGui extends JFrame {
 		mntmNewMenuItem3.setFont(new Font("Serif", Font.BOLD, 14));
 		mnNewMenu2.add(mntmNewMenuItem3);
 		
+		JMenuItem mntmVehicleUsageItem = new JMenuItem("Prikazi izvjestaj po vozilima");
+		mntmVehicleUsageItem.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				ShowUsageReportFrame showUsageReportFrame = ShowUsageReportFrame.perVehicle();
+				showUsageReportFrame.setVisible(true);
+			}
+		});
+		mntmVehicleUsageItem.setForeground(Color.WHITE);
+		mntmVehicleUsageItem.setBackground(Color.DARK_GRAY);
+		mntmVehicleUsageItem.setFont(new Font("Serif", Font.BOLD, 14));
+		mnNewMenu2.add(mntmVehicleUsageItem);
+		
+		JMenuItem mntmDriverUsageItem = new JMenuItem("Prikazi izvjestaj po korisnicima");
+		mntmDriverUsageItem.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				ShowUsageReportFrame showUsageReportFrame = ShowUsageReportFrame.perDriver();
+				showUsageReportFrame.setVisible(true);
+			}
+		});
+		mntmDriverUsageItem.setForeground(Color.WHITE);
+		mntmDriverUsageItem.setBackground(Color.DARK_GRAY);
+		mntmDriverUsageItem.setFont(new Font("Serif", Font.BOLD, 14));
+		mnNewMenu2.add(mntmDriverUsageItem);
+		
+		JMenuItem mntmInvoicesItem = new JMenuItem("Prikazi racune");
+		mntmInvoicesItem.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				Path directory = InvoiceStorage.journalDirectory(TariffConfig.getCurrent());
+				if(!InvoiceJournal.exists(directory)) {
+					JOptionPane.showMessageDialog(frame, "Racuni su sacuvani kao tekstualni fajlovi u folderu " + TariffConfig.getCurrent().getFolderName() + ".");
+					return;
+				}
+				try {
+					ShowInvoicesFrame showInvoicesFrame = new ShowInvoicesFrame(InvoiceJournal.openReadOnly(directory));
+					showInvoicesFrame.setVisible(true);
+				} catch(IOException exception) {
+					exception.printStackTrace();
+				}
+			}
+		});
+		mntmInvoicesItem.setForeground(Color.WHITE);
+		mntmInvoicesItem.setBackground(Color.DARK_GRAY);
+		mntmInvoicesItem.setFont(new Font("Serif", Font.BOLD, 14));
+		mnNewMenu2.add(mntmInvoicesItem);
+		
+		JMenuItem mntmRebuildReportsItem = new JMenuItem("Ponovo izracunaj izvjestaje");
+		mntmRebuildReportsItem.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				mntmRebuildReportsItem.setEnabled(false);
+				new Thread(() -> {
+					ReportStore.getCurrent().rebuild();
+					SwingUtilities.invokeLater(() -> {
+						mntmRebuildReportsItem.setEnabled(true);
+						JOptionPane.showMessageDialog(frame, "Izvjestaji su ponovo izracunati iz sacuvanih racuna.");
+					});
+				}).start();
+			}
+		});
+		mntmRebuildReportsItem.setForeground(Color.WHITE);
+		mntmRebuildReportsItem.setBackground(Color.DARK_GRAY);
+		mntmRebuildReportsItem.setFont(new Font("Serif", Font.BOLD, 14));
+		mnNewMenu2.add(mntmRebuildReportsItem);
+		
 		JMenu mnNewMenu3 = new JMenu("Deserijalizovana vozila");
 		mnNewMenu3.setForeground(Color.WHITE);
 		mnNewMenu3.setOpaque(true);
@@ -178,7 +273,7 @@ public class Epj2SimulationGui extends JFrame {
 		JMenuItem mntmNewMenuItem4 = new JMenuItem("Prikazi deserijalizovana vozila");
 		mntmNewMenuItem4.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				List<Vehicle> damagedVehicles = VehicleSerialization.deserializeVehicle();
+				VehicleRegistry damagedVehicles = VehicleSerialization.deserializeVehicle();
 				ShowDeserializedVehiclesFrame showDeserializedVehiclesFrame = new ShowDeserializedVehiclesFrame(damagedVehicles);
 				showDeserializedVehiclesFrame.setVisible(true);
 			}
@@ -203,57 +298,100 @@ public class Epj2SimulationGui extends JFrame {
 		frame.setVisible(true);
 	}
 	
+	/**
+	 * Sets the factory of the executor that prices the finished rentals of the next real-time simulation.
+	 * <p>The executor is shut down when the simulation ends.</p>
+	 *
+	 * @param executorFactory  Creates the executor.
+	 */
+	public void setExecutorFactory(Supplier<ExecutorService> executorFactory) {
+		this.executorFactory = executorFactory;
+	}
+	
 	/**
 	 * Starts the simulation of rentals based on the provided vehicles.
      * The simulation processes rentals and updates the main frame with the simulation status.
      * 
-	 * @param vehicles  A set of vehicles to be used in the simulation.
+	 * @param vehicles  A registry of vehicles to be used in the simulation.
 	 */
-	public void simulationOfRentals(Set<Vehicle> vehicles) {
+	public void simulationOfRentals(VehicleRegistry vehicles) {
 		SwingUtilities.invokeLater(() -> {
 	        MainFrame mainFrame = new MainFrame();
-	        List<Rental> rentals = ReadRentals.readRentals(vehicles, mainFrame);
-	   		RentalCalculator.writeInPropertieFile(rentals);
-	   		Map<String, List<Rental>> rentalsByDateTime = new LinkedHashMap<>();
-	        for (Rental rental : rentals) {
-	        String dateTime = rental.getRentalDateTime();
-	        rentalsByDateTime
-	           .computeIfAbsent(dateTime, k -> new ArrayList<>())
-	           .add(rental);   
-	        }
+	        List<Rental> rentals = ReadRentals.readRentals(vehicles).getRentals();
+	        RentalCalculator.writeInPropertieFile(rentals);
+	        ReportStore.getCurrent().clear();
+	        InvoiceWriter invoiceWriter = InvoiceWriter.create(TariffConfig.getCurrent());
 	        new Thread(() -> {
-	         for (Map.Entry<String, List<Rental>> entry : rentalsByDateTime.entrySet()) {
-	             List<Rental> rentalsWithSameDateAndTime = entry.getValue();
-	             CountDownLatch latch = new CountDownLatch(rentalsWithSameDateAndTime.size());
-	             for (Rental rental : rentalsWithSameDateAndTime) {
-	            	 rental.getVehicle().chargeBatteryLevel();
-	                 new Thread(() -> {
-	                     try {
-	                    	 if(ReadRentals.YES.equals(rental.getMalfunction().getHasMalfunction())) {
-	                    		 mainFrame.showContentAt(rental.getFirstStartCoordinate(), rental.getSecondStartCoordinate(), rental.getVehicle().getIdOfVehicle()+"-"+rental.getVehicle().getBatteryLevel());
-	                    	 } else {
-	                           rental.start();
-	                           rental.join();
-	                    	 }
-	                     } catch (InterruptedException e) {
-	                         e.printStackTrace();
-	                     } finally {
-	                    	 RentalCalculator.readAndCalculateFromPropertiesFile(rental);
-	                         latch.countDown();
-	                     }
-	                 }).start();
-	            	
-	             }
-	             try {
-	                 latch.await();
-	                 Thread.sleep(5000); 
-	                 mainFrame.clearMatrix();
-	             } catch (InterruptedException e) {
-	                 e.printStackTrace();
-	             }
+	         try {
+	        	 if(SimulationEngine.isEnabled(TariffConfig.getCurrent())) {
+	        		 new SimulationEngine(mainFrame, SimulationEngine.speedUpOf(TariffConfig.getCurrent(), 1),
+	        				 TickScheduler.tickMillisOf(TariffConfig.getCurrent())).run(rentals, invoiceWriter);
+	        	 } else {
+	        		 simulationOnTicks(rentals, mainFrame, invoiceWriter);
+	        	 }
+	         } catch (InterruptedException e) {
+	             e.printStackTrace();
+	         }
+	         try {
+	        	 invoiceWriter.close();
+	         } catch (InterruptedException e) {
+	             e.printStackTrace();
 	         }
 	     }).start();
 	         VehicleSerialization.serializeVehicle(rentals);
 	        });
 	}
+	
+	/**
+	 * Simulates the rentals in real time on a {@link TickScheduler}.
+	 * <p>Used when {@link SimulationEngine#isEnabled(TariffConfig)} is {@code false}. Rentals with the same date and
+	 * time move together, and the next ones start five seconds after they have all finished. The vehicles are moved
+	 * by the timer of the scheduler, and finished rentals are priced on the executor of
+	 * {@link #setExecutorFactory(Supplier)}, so the timer never waits for the writer's queue.</p>
+	 * 
+	 * @param rentals        The rentals.
+	 * @param mainFrame      The frame that shows the movement.
+	 * @param invoiceWriter  The writer of the invoices.
+	 */
+	private void simulationOnTicks(List<Rental> rentals, MainFrame mainFrame, InvoiceWriter invoiceWriter) {
+		Map<Long, List<Rental>> rentalsByDateTime = new LinkedHashMap<>();
+		for (Rental rental : rentals) {
+			rentalsByDateTime
+				.computeIfAbsent(rental.getRentalTimestamp(), k -> new ArrayList<>())
+				.add(rental);
+		}
+		ExecutorService executor = executorFactory.get();
+		try (TickScheduler scheduler = new TickScheduler(mainFrame, TickScheduler.tickMillisOf(TariffConfig.getCurrent()))) {
+			for (Map.Entry<Long, List<Rental>> entry : rentalsByDateTime.entrySet()) {
+				List<Rental> rentalsWithSameDateAndTime = entry.getValue();
+				CountDownLatch latch = new CountDownLatch(rentalsWithSameDateAndTime.size());
+				for (Rental rental : rentalsWithSameDateAndTime) {
+					rental.getVehicle().chargeBatteryLevel();
+					Runnable finished = () -> executor.execute(() -> {
+						try {
+							RentalCalculator.calculateAndWriteBill(rental, invoiceWriter);
+						} catch (InterruptedException e) {
+							e.printStackTrace();
+						} finally {
+							latch.countDown();
+						}
+					});
+					if(ReadRentals.YES.equals(rental.getMalfunction().getHasMalfunction())) {
+						mainFrame.showContentAt(rental.getFirstStartCoordinate(), rental.getSecondStartCoordinate(), rental.getVehicle().getIdOfVehicle()+"-"+rental.getVehicle().getBatteryLevel());
+						finished.run();
+					} else {
+						scheduler.add(new RentalMovement(rental), finished);
+					}
+				}
+				try {
+					latch.await();
+					Thread.sleep(SimulationEngine.PAUSE_BETWEEN_RENTALS);
+					mainFrame.clearMatrix();
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		executor.shutdown();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package org.unibl.etf.epj2.epj2simulation;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+import org.unibl.etf.epj2.invoices.InvoiceWriter;
+import org.unibl.etf.epj2.money.Money;
+import org.unibl.etf.epj2.rentals.DuplicateRental;
+import org.unibl.etf.epj2.rentals.ReadRentals;
+import org.unibl.etf.epj2.rentals.Rental;
+import org.unibl.etf.epj2.rentals.RentalCalculator;
+import org.unibl.etf.epj2.rentals.RentalDateTime;
+import org.unibl.etf.epj2.rentals.RentalReadResult;
+import org.unibl.etf.epj2.rentals.TariffConfig;
+import org.unibl.etf.epj2.reports.ReportAggregate;
+import org.unibl.etf.epj2.reports.ReportStore;
+import org.unibl.etf.epj2.serialization.VehicleSerialization;
+import org.unibl.etf.epj2.vehicles.ReadVehicles;
+import org.unibl.etf.epj2.vehicles.VehicleRegistry;
+
+/**
+ * Runs the simulation without a display, for example as a batch job on a server.
+ * <p>The simulation reads the vehicles and rentals, simulates the rentals on the {@link SimulationEngine}, writes
+ * their invoices, serializes the damaged vehicles and prints the summary and daily reports and the rentals rejected
+ * as duplicates as comma separated values. No Swing class is loaded; the moves of the vehicles go to a {@link SimulationListener}.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class HeadlessSimulation {
+	/**
+	 * The separator of the printed reports.
+	 */
+	public static final String SEPARATOR = ",";
+
+	/**
+	 * The option that prints the reports rebuilt from the stored invoices instead of running the simulation.
+	 */
+	public static final String REBUILD_REPORTS_OPTION = "--rebuild-reports";
+
+	/**
+	 * Receives the moves of the vehicles.
+	 */
+	private final SimulationListener listener;
+
+	/**
+	 * The speed-up of the virtual clock.
+	 */
+	private final double speedUp;
+
+	/**
+	 * Constructs a headless simulation.
+	 *
+	 * @param listener  Receives the moves of the vehicles.
+	 * @param speedUp   The speed-up of the virtual clock, see {@link SimulationEngine#SimulationEngine(SimulationListener, double)}.
+	 */
+	public HeadlessSimulation(SimulationListener listener, double speedUp) {
+		this.listener = listener;
+		this.speedUp = speedUp;
+	}
+
+	/**
+	 * Runs the simulation as fast as possible, unless the configuration sets a speed-up, and prints the reports and
+	 * the duplicate rentals.
+	 * <p>With {@value #REBUILD_REPORTS_OPTION}, the reports are rebuilt from the stored invoices of a previous
+	 * simulation and printed, without simulating.</p>
+	 *
+	 * @param args  Command line arguments.
+	 */
+	public static void main(String[] args) {
+		if(args.length > 0 && REBUILD_REPORTS_OPTION.equals(args[0])) {
+			ReportStore.getCurrent().rebuild();
+			printReports(System.out);
+			return;
+		}
+		double speedUp = SimulationEngine.speedUpOf(TariffConfig.getCurrent(), SimulationEngine.AS_FAST_AS_POSSIBLE);
+		try {
+			RentalReadResult result = new HeadlessSimulation(new SimulationListener() {}, speedUp).run();
+			printReports(System.out);
+			printDuplicateRentals(System.out, result.getDuplicateRentals());
+		} catch(InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Simulates the rentals of the current configuration.
+	 * <p>A paced simulation ticks as set by {@value TickScheduler#SIMULATION_TICK_MILLIS} in the configuration.
+	 * The invoices are written and the damaged vehicles serialized before the method returns.</p>
+	 *
+	 * @return The simulated rentals and the rentals rejected as duplicates.
+	 * @throws InterruptedException  If the thread is interrupted while waiting for an event or the writer's queue.
+	 */
+	public RentalReadResult run() throws InterruptedException {
+		TariffConfig config = TariffConfig.getCurrent();
+		VehicleRegistry vehicles = ReadVehicles.readVehicles();
+		RentalReadResult result = ReadRentals.readRentals(vehicles);
+		List<Rental> rentals = result.getRentals();
+		RentalCalculator.writeInPropertieFile(rentals);
+		ReportStore.getCurrent().clear();
+		InvoiceWriter invoiceWriter = InvoiceWriter.create(config);
+		try {
+			new SimulationEngine(listener, speedUp, TickScheduler.tickMillisOf(config)).run(rentals, invoiceWriter);
+		} finally {
+			invoiceWriter.close();
+		}
+		VehicleSerialization.serializeVehicle(rentals);
+		return result;
+	}
+
+	/**
+	 * Prints the summary and daily reports of the {@link ReportStore}.
+	 *
+	 * @param out  The stream to print to.
+	 */
+	public static void printReports(PrintStream out) {
+		ReportAggregate summary = ReportStore.getCurrent().getSummary();
+		out.println("Sumarni izvjestaj");
+		out.println(String.join(SEPARATOR, "Kategorija", "Iznos"));
+		printRow(out, "Ukupan prihod", summary.getTotalIncome());
+		printRow(out, "Ukupan popust", summary.getTotalDiscount());
+		printRow(out, "Ukupno promocije", summary.getTotalDiscountPromotion());
+		printRow(out, "Ukupan iznos svih voznji u uzem dijelu grada", summary.getTotalIncomeInNarrowCity());
+		printRow(out, "Ukupan iznos svih voznji u sirom dijelu grada", summary.getTotalIncomeInWideCity());
+		printRow(out, "Ukupan iznos za odrzavanje", summary.getTotalMaintenanceAmount());
+		printRow(out, "Ukupan iznos za popravke kvarova", summary.getTotalAmountOfMalfunctionRepairs());
+		printRow(out, "Ukupni troskovi kompanije", summary.getTotalCostsOfCompany());
+		printRow(out, "Ukupan porez", summary.getTotalTax());
+		out.println();
+		out.println("Dnevni izvjestaj");
+		out.println(String.join(SEPARATOR, "Datum", "Ukupan dnevni prihod", "Ukupan dnevni popust", "Ukupno dnevno promocije",
+				"Ukupan dnevni iznos voznji u uzem dijelu grada", "Ukupan dnevni iznos voznji u sirem dijelu grada",
+				"Ukupan dnevni iznos za odrzavanje", "Ukupan dnevni iznos za popravke kvarova"));
+		for(Map.Entry<Long, ReportAggregate> entry : ReportStore.getCurrent().getDailyAggregates().entrySet()) {
+			ReportAggregate daily = entry.getValue();
+			out.println(String.join(SEPARATOR, RentalDateTime.formatDate(entry.getKey()),
+					Money.format(daily.getTotalIncome()),
+					Money.format(daily.getTotalDiscount()),
+					Money.format(daily.getTotalDiscountPromotion()),
+					Money.format(daily.getTotalIncomeInNarrowCity()),
+					Money.format(daily.getTotalIncomeInWideCity()),
+					Money.format(daily.getTotalMaintenanceAmount()),
+					Money.format(daily.getTotalAmountOfMalfunctionRepairs())));
+		}
+	}
+
+	/**
+	 * Prints the rentals that were rejected as duplicates, with the line of the rental data file they were found on.
+	 *
+	 * @param out               The stream to print to.
+	 * @param duplicateRentals  The duplicate rentals.
+	 */
+	public static void printDuplicateRentals(PrintStream out, List<DuplicateRental> duplicateRentals) {
+		out.println();
+		out.println("Duplikati");
+		out.println(String.join(SEPARATOR, "Linija", "ID vozila", "Datum"));
+		for(DuplicateRental duplicate : duplicateRentals) {
+			out.println(String.join(SEPARATOR, String.valueOf(duplicate.getLineNumber()), duplicate.getIdOfVehicle(),
+					duplicate.getRentalDateTime()));
+		}
+	}
+
+	/**
+	 * Prints a row of the summary report.
+	 *
+	 * @param out     The stream to print to.
+	 * @param label   The category.
+	 * @param amount  The amount in cents.
+	 */
+	private static void printRow(PrintStream out, String label, long amount) {
+		out.println(label + SEPARATOR + Money.format(amount));
+	}
+}
@@ -6,19 +6,59 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import org.unibl.etf.epj2.rentals.TariffConfig;
+
 /**
  * Represents the main frame of the simulation application.
  * The frame displays a 20x20 grid where vehicles move and their positions are updated.
+ * It listens to the {@link SimulationEngine}, so every move of the simulation is shown on the grid.
+ * Moves are collected from the simulation threads and shown at a limited frame rate, with one repaint per frame.
+ * Only the latest move of each vehicle is kept between two frames, so a frame applies at most one move per vehicle.
  * 
  * @author Tamara Kosovac
  */
-public class MainFrame extends JFrame {
+public class MainFrame extends JFrame implements SimulationListener {
 	private static final long serialVersionUID = 1L;
 	
+	/**
+	 * A change of the grid collected from the simulation threads.
+	 */
+	private static final class PendingUpdate {
+		/**
+		 * The x-coordinate of the position.
+		 */
+		private final int x;
+		
+		/**
+		 * The y-coordinate of the position.
+		 */
+		private final int y;
+		
+		/**
+		 * Information about the vehicle, or the content to show.
+		 */
+		private final String info;
+		
+		/**
+		 * The number of clears of the grid requested before the change.
+		 */
+		private final long clears;
+		
+		private PendingUpdate(int x, int y, String info, long clears) {
+			this.x = x;
+			this.y = y;
+			this.info = info;
+			this.clears = clears;
+		}
+	}
+	
 	/**
 	 * The panel that renders the matrix/grid.
 	 */
@@ -32,20 +72,76 @@ public class MainFrame extends JFrame {
 	
 	/**
 	 * A map that keeps track of the previous positions of vehicles.
-     * The key is the vehicle information, and the value is the previous position.
+     * The key is the ID of the vehicle, and the value is the previous position.
+     * It is used only on the event dispatch thread.
 	 */
     private final Map<String, String> previousPosition = new HashMap<>();
     
+    /**
+     * The information shown on the grid for each vehicle, keyed by the ID of the vehicle.
+     * It is used only on the event dispatch thread.
+     */
+    private final Map<String, String> shownInfo = new HashMap<>();
+    
+    /**
+     * The latest move of each vehicle since the last frame, keyed by the ID of the vehicle.
+     * A newer move of a vehicle replaces the older one.
+     */
+    private final ConcurrentHashMap<String, PendingUpdate> latestMoves = new ConcurrentHashMap<>();
+    
+    /**
+     * Contents to show since the last frame, such as malfunctions.
+     */
+    private final Queue<PendingUpdate> pendingContents = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * The number of clears of the grid requested by the simulation threads.
+     */
+    private final AtomicLong requestedClears = new AtomicLong();
+    
+    /**
+     * The number of clears of the grid applied, used only on the event dispatch thread.
+     */
+    private long appliedClears;
+    
+    /**
+     * The timer that shows the pending updates.
+     */
+    private final Timer frameTimer;
+    
     /**
      * The dimension of the grid (20x20).
      */
     public static final int DIMENSION = 20;
     
+    /**
+     * The key of the setting with the maximum number of frames per second.
+     */
+    public static final String SIMULATION_FRAMES_PER_SECOND = "SIMULATION_FRAMES_PER_SECOND";
+    
+    /**
+     * The default maximum number of frames per second.
+     */
+    public static final int DEFAULT_FRAMES_PER_SECOND = 25;
+    
     /**
      * Constructs a new MainFrame instance.
      * Initializes the matrix panel, sets up the frame properties, and adds the panel to the frame.
+     * The grid is repainted at most as many times per second as the {@value #SIMULATION_FRAMES_PER_SECOND} setting
+     * allows, {@value #DEFAULT_FRAMES_PER_SECOND} by default.
      */
     public MainFrame() {
+        this(framesPerSecondOf(TariffConfig.getCurrent()));
+    }
+    
+    /**
+     * Constructs a new MainFrame instance that repaints the grid at most the given number of times per second.
+     * Moves of the vehicles are collected without locking and shown together with the next frame, so the
+     * simulation never waits for the event dispatch thread.
+     * 
+     * @param framesPerSecond  The maximum number of frames per second.
+     */
+    public MainFrame(int framesPerSecond) {
         city = new ConcurrentHashMap<>();
         matrixPanel = new MatrixPanel(city, DIMENSION, DIMENSION); 
         setTitle("Simulacija vozila");
@@ -56,6 +152,27 @@ public class MainFrame extends JFrame {
 
         pack();
         setVisible(true);
+        frameTimer = new Timer(Math.max(1, 1000 / Math.max(1, framesPerSecond)), e -> flushUpdates());
+        frameTimer.start();
+    }
+    
+    /**
+     * Returns the maximum number of frames per second of the configuration.
+     * 
+     * @param config  The configuration.
+     * @return The maximum number of frames per second, {@value #DEFAULT_FRAMES_PER_SECOND} if the setting is missing or invalid.
+     */
+    public static int framesPerSecondOf(TariffConfig config) {
+        String value = config.getValue(SIMULATION_FRAMES_PER_SECOND);
+        if (value == null) {
+            return DEFAULT_FRAMES_PER_SECOND;
+        }
+        try {
+            int framesPerSecond = Integer.parseInt(value.trim());
+            return framesPerSecond > 0 ? framesPerSecond : DEFAULT_FRAMES_PER_SECOND;
+        } catch (NumberFormatException exception) {
+            return DEFAULT_FRAMES_PER_SECOND;
+        }
     }
     
     /**
@@ -88,76 +205,141 @@ public class MainFrame extends JFrame {
     /**
      * Updates the grid with the new position and information of a vehicle.
      * If the vehicle was previously at a different position, it removes the old position's data.
+     * <p>The move replaces any move of the same vehicle that hasn't been shown yet and is shown with the next frame.</p>
      * 
      * @param x      The x-coordinate of the new position.
      * @param y      The y-coordinate of the new position.
      * @param info   Information about the vehicle, including its ID and battery level.
      */
     public void updateMatrix(int x, int y, String info) {
-        SwingUtilities.invokeLater(() -> {
-        String newPosition = x + "," + y;
-        try {
-        	String[] parts = info.split("-");
-        	String vehicleId = parts[0];
-        	int batteryLevel = Integer.parseInt(parts[1]) + 1;
-        	String oldInfo = vehicleId+"-"+batteryLevel;
-        if (previousPosition.containsKey(oldInfo)) {
-            String oldPosition = previousPosition.get(oldInfo);
-            city.get(oldPosition).remove(oldInfo);
-            if (city.get(oldPosition).isEmpty()) {
-                city.remove(oldPosition);
-            }
-        }
-        } catch(NullPointerException e) {
-        	
-        }
-         city.computeIfAbsent(newPosition, k -> new ArrayList<>()).add(info);
-         previousPosition.put(info, newPosition);
-         matrixPanel.repaint();
-       });
+        int separator = info.indexOf('-');
+        String vehicleId = separator < 0 ? info : info.substring(0, separator);
+        latestMoves.put(vehicleId, new PendingUpdate(x, y, info, requestedClears.get()));
     }
 
    /**
-    * 
+    * Removes all vehicles from the grid with the next frame.
+    * Moves and contents collected before the clear are not shown.
     */
    public void clearMatrix() {
-      SwingUtilities.invokeLater(() -> {
-        city.clear();
-        matrixPanel.repaint(); 
-      });
-  }
+       requestedClears.incrementAndGet();
+   }
    
    /**
+    * Shows the content at the position for two seconds, starting with the next frame.
     * 
-    * @param x
-    * @param y
-    * @param content
+    * @param x        The x-coordinate of the position.
+    * @param y        The y-coordinate of the position.
+    * @param content  The content to show.
     */
    public void showContentAt(int x, int y, String content) {
-       SwingUtilities.invokeLater(() -> {
-           String position = x + "," + y;
-           city.computeIfAbsent(position, k -> new ArrayList<>()).add(content);
-           matrixPanel.repaint();
-           Timer timer = new Timer(2000, new ActionListener() {
-               @Override
-               public void actionPerformed(ActionEvent e) {
-                   city.computeIfPresent(position, (k, v) -> {
-                       v.remove(content);
-                       if (v.isEmpty()) {
-                           return null;
-                       } else {
-                           return v;
-                       }
-                   });
-                   matrixPanel.repaint();
-               }
-           });
-           timer.setRepeats(false);
-           timer.start();
-       });
-       
+       pendingContents.add(new PendingUpdate(x, y, content, requestedClears.get()));
    }
 
+    /**
+     * Applies the pending clear, contents and moves to the grid and repaints it once, if anything changed.
+     * <p>Called on the event dispatch thread by the frame timer. Changes collected after a clear that is requested
+     * while the frame is applied wait for the next frame, so they aren't removed by that clear.</p>
+     */
+    private void flushUpdates() {
+        boolean changed = false;
+        long clears = requestedClears.get();
+        if (clears != appliedClears) {
+            city.clear();
+            previousPosition.clear();
+            shownInfo.clear();
+            appliedClears = clears;
+            changed = true;
+        }
+        for (PendingUpdate content = pendingContents.peek(); content != null && content.clears <= clears; content = pendingContents.peek()) {
+            pendingContents.poll();
+            if (content.clears == clears) {
+                showContent(content);
+                changed = true;
+            }
+        }
+        for (Map.Entry<String, PendingUpdate> entry : latestMoves.entrySet()) {
+            PendingUpdate move = entry.getValue();
+            if (move.clears > clears || !latestMoves.remove(entry.getKey(), move) || move.clears < clears) {
+                continue;
+            }
+            moveVehicle(entry.getKey(), move);
+            changed = true;
+        }
+        if (changed) {
+            matrixPanel.repaint();
+        }
+    }
+    
+    /**
+     * Moves a vehicle on the grid, removing it from its previous position.
+     * 
+     * @param vehicleId  The ID of the vehicle.
+     * @param move       The move of the vehicle.
+     */
+    private void moveVehicle(String vehicleId, PendingUpdate move) {
+        String newPosition = move.x + "," + move.y;
+        String oldPosition = previousPosition.put(vehicleId, newPosition);
+        String oldInfo = shownInfo.put(vehicleId, move.info);
+        if (oldPosition != null) {
+            city.computeIfPresent(oldPosition, (k, v) -> {
+                v.remove(oldInfo);
+                return v.isEmpty() ? null : v;
+            });
+        }
+        city.computeIfAbsent(newPosition, k -> new ArrayList<>()).add(move.info);
+    }
+    
+    /**
+     * Shows a content on the grid and removes it after two seconds.
+     * 
+     * @param content  The content and its position.
+     */
+    private void showContent(PendingUpdate content) {
+        String position = content.x + "," + content.y;
+        city.computeIfAbsent(position, k -> new ArrayList<>()).add(content.info);
+        Timer timer = new Timer(2000, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                city.computeIfPresent(position, (k, v) -> {
+                    v.remove(content.info);
+                    if (v.isEmpty()) {
+                        return null;
+                    } else {
+                        return v;
+                    }
+                });
+                matrixPanel.repaint();
+            }
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+
+    /**
+     * Stops the frame timer and releases the frame.
+     */
+    @Override
+    public void dispose() {
+        frameTimer.stop();
+        super.dispose();
+    }
+
+    @Override
+    public void vehicleMoved(int x, int y, String info) {
+        updateMatrix(x, y, info);
+    }
+
+    @Override
+    public void malfunctionShown(int x, int y, String info) {
+        showContentAt(x, y, info);
+    }
+
+    @Override
+    public void rentalsFinished() {
+        clearMatrix();
+    }
+
    /**
     * 
     * @param args
@@ -0,0 +1,92 @@
+package org.unibl.etf.epj2.epj2simulation;
+
+import org.unibl.etf.epj2.rentals.Rental;
+
+/**
+ * The movement of the vehicle of a rental from its start field to its finish field.
+ * <p>The vehicle moves field by field, first along the first coordinate and then along the second one, and spends
+ * the same part of the usage duration on every field.</p>
+ *
+ * @author Tamara Kosovac
+ */
+final class RentalMovement {
+	/**
+	 * The rental.
+	 */
+	private final Rental rental;
+
+	/**
+	 * The current first coordinate.
+	 */
+	private int x;
+
+	/**
+	 * The current second coordinate.
+	 */
+	private int y;
+
+	/**
+	 * Number of fields left to the finish field.
+	 */
+	private int remainingFields;
+
+	/**
+	 * The time spent on one field in milliseconds.
+	 */
+	private final long delay;
+
+	/**
+	 * Constructs the movement of the rental at its start field.
+	 *
+	 * @param rental  The rental.
+	 */
+	RentalMovement(Rental rental) {
+		this.rental = rental;
+		this.x = rental.getFirstStartCoordinate();
+		this.y = rental.getSecondStartCoordinate();
+		this.remainingFields = Math.abs(rental.getFirstFinishCoordinate() - x) + Math.abs(rental.getSecondFinishCoordinate() - y);
+		this.delay = remainingFields == 0 ? 0 : (rental.getUsageDurationInSeconds() * 1000L) / remainingFields;
+	}
+
+	/**
+	 * Moves the vehicle to the next field and decreases its battery level.
+	 *
+	 * @param listener  Receives the move.
+	 */
+	void step(SimulationListener listener) {
+		if(x != rental.getFirstFinishCoordinate()) {
+			x += x < rental.getFirstFinishCoordinate() ? 1 : -1;
+		} else {
+			y += y < rental.getSecondFinishCoordinate() ? 1 : -1;
+		}
+		remainingFields--;
+		listener.vehicleMoved(y, x, rental.getVehicle().getIdOfVehicle() + "-" + rental.getVehicle().decreaseBatteryLevel());
+	}
+
+	/**
+	 * Returns the rental.
+	 *
+	 * @return rental  The rental.
+	 */
+	Rental getRental() {
+		return rental;
+	}
+
+	/**
+	 * Checks whether the vehicle has reached its finish field.
+	 *
+	 * @return {@code true} if there are no fields left, {@code false} otherwise
+	 */
+	boolean isFinished() {
+		return remainingFields == 0;
+	}
+
+	/**
+	 * Returns the time spent on one field.
+	 *
+	 * @return delay  The time in milliseconds.
+	 */
+	long getDelay() {
+		return delay;
+	}
+}
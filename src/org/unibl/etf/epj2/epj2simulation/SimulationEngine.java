@@ -0,0 +1,317 @@
+package org.unibl.etf.epj2.epj2simulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.unibl.etf.epj2.invoices.InvoiceWriter;
+import org.unibl.etf.epj2.invoices.OverflowPolicy;
+import org.unibl.etf.epj2.rentals.ReadRentals;
+import org.unibl.etf.epj2.rentals.Rental;
+import org.unibl.etf.epj2.rentals.RentalCalculator;
+import org.unibl.etf.epj2.rentals.TariffConfig;
+
+/**
+ * Discrete-event simulation of rentals driven by a virtual clock.
+ * <p>Every move of a vehicle is an event in a priority queue ordered by its virtual time, and the clock jumps from
+ * one event to the next on a single thread. Rentals with the same date and time move together, as in the real-time
+ * simulation: every vehicle spends the same part of its usage duration on each field, and the next rentals start
+ * {@value #PAUSE_BETWEEN_RENTALS} virtual milliseconds after the previous ones have finished. Each rental is priced
+ * when its vehicle reaches the finish field or, for a vehicle with a malfunction, when it starts.</p>
+ * <p>A paced engine never waits for the invoice writer: bills that don't fit into its queue are spilled, so the
+ * disk can't stall the map. An engine running as fast as possible waits for free space instead, so the writer's
+ * queue bounds the memory of a batch run.</p>
+ * <p>With the speed-up {@link #AS_FAST_AS_POSSIBLE} events are processed without waiting, so a month of rentals is
+ * simulated in seconds. Any positive speed-up paces the events against the wall clock, {@code 1} being real time.
+ * Paced events are processed in ticks: the engine wakes up once per tick with a due event and processes all events
+ * due by the end of the tick together, so wakeups scale with the ticks and not with the moving vehicles.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class SimulationEngine {
+	/**
+	 * The key of the setting that turns the engine off in favor of the real-time {@link TickScheduler}.
+	 */
+	public static final String SIMULATION_ENGINE = "SIMULATION_ENGINE";
+
+	/**
+	 * The key of the setting with the speed-up of the virtual clock.
+	 */
+	public static final String SIMULATION_SPEED_UP = "SIMULATION_SPEED_UP";
+
+	/**
+	 * The speed-up for processing events without waiting.
+	 */
+	public static final double AS_FAST_AS_POSSIBLE = 0;
+
+	/**
+	 * The virtual time in milliseconds between the finish of rentals and the start of the next ones.
+	 */
+	public static final long PAUSE_BETWEEN_RENTALS = 5000;
+
+	/**
+	 * Receives the moves of the vehicles.
+	 */
+	private final SimulationListener listener;
+
+	/**
+	 * How many times faster than the wall clock the virtual clock runs, or {@link #AS_FAST_AS_POSSIBLE}.
+	 */
+	private final double speedUp;
+
+	/**
+	 * The wall clock time between two ticks in nanoseconds.
+	 */
+	private final long tickNanos;
+
+	/**
+	 * The scheduled events.
+	 */
+	private final PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+
+	/**
+	 * Rentals grouped by their date and time, in the order they start.
+	 */
+	private final List<List<Rental>> rentalsByDateTime = new ArrayList<>();
+
+	/**
+	 * The writer of the invoices of the current run.
+	 */
+	private InvoiceWriter invoiceWriter;
+
+	/**
+	 * The virtual time in milliseconds.
+	 */
+	private long now;
+
+	/**
+	 * The sequence of the next scheduled event.
+	 */
+	private long sequence;
+
+	/**
+	 * The index of the group of rentals that started last.
+	 */
+	private int group;
+
+	/**
+	 * Number of moving vehicles of the current group.
+	 */
+	private int moving;
+
+	/**
+	 * The wall clock in nanoseconds at virtual time zero.
+	 */
+	private long startNanos;
+
+	/**
+	 * Constructs an engine with ticks of {@link TickScheduler#DEFAULT_TICK_MILLIS}.
+	 *
+	 * @param listener  Receives the moves of the vehicles.
+	 * @param speedUp   How many times faster than the wall clock the virtual clock runs, or {@link #AS_FAST_AS_POSSIBLE}.
+	 * @throws IllegalArgumentException  If the speed-up is negative.
+	 */
+	public SimulationEngine(SimulationListener listener, double speedUp) {
+		this(listener, speedUp, TickScheduler.DEFAULT_TICK_MILLIS);
+	}
+
+	/**
+	 * Constructs an engine.
+	 *
+	 * @param listener    Receives the moves of the vehicles.
+	 * @param speedUp     How many times faster than the wall clock the virtual clock runs, or {@link #AS_FAST_AS_POSSIBLE}.
+	 * @param tickMillis  The wall clock time between two ticks of a paced engine in milliseconds.
+	 * @throws IllegalArgumentException  If the speed-up is negative or the time between two ticks isn't positive.
+	 */
+	public SimulationEngine(SimulationListener listener, double speedUp, long tickMillis) {
+		if(!(speedUp >= 0)) {
+			throw new IllegalArgumentException("Speed-up " + speedUp + " must not be negative.");
+		}
+		if(tickMillis <= 0) {
+			throw new IllegalArgumentException("Time between two ticks " + tickMillis + " must be positive.");
+		}
+		this.listener = listener;
+		this.speedUp = speedUp;
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+	}
+
+	/**
+	 * Checks whether the simulation runs on the engine for the configuration.
+	 *
+	 * @param config  The configuration.
+	 * @return {@code true} unless the setting is {@code false}
+	 */
+	public static boolean isEnabled(TariffConfig config) {
+		String value = config.getValue(SIMULATION_ENGINE);
+		return value == null || !"false".equalsIgnoreCase(value.trim());
+	}
+
+	/**
+	 * Returns the speed-up of the configuration.
+	 *
+	 * @param config          The configuration.
+	 * @param defaultSpeedUp  The speed-up used if the setting is missing or invalid.
+	 * @return The speed-up.
+	 */
+	public static double speedUpOf(TariffConfig config, double defaultSpeedUp) {
+		String value = config.getValue(SIMULATION_SPEED_UP);
+		if(value == null) {
+			return defaultSpeedUp;
+		}
+		try {
+			double speedUp = Double.parseDouble(value.trim());
+			return speedUp >= 0 ? speedUp : defaultSpeedUp;
+		} catch(NumberFormatException exception) {
+			return defaultSpeedUp;
+		}
+	}
+
+	/**
+	 * Simulates the rentals and prices each of them.
+	 * <p>Rentals with the same date and time start together, in the order of the list.</p>
+	 *
+	 * @param rentals        The rentals.
+	 * @param invoiceWriter  The writer of the invoices.
+	 * @throws InterruptedException  If the thread is interrupted while waiting for an event or, as fast as possible,
+	 *                               for the writer's queue.
+	 */
+	public void run(List<Rental> rentals, InvoiceWriter invoiceWriter) throws InterruptedException {
+		Map<Long, List<Rental>> groups = new LinkedHashMap<>();
+		for(Rental rental : rentals) {
+			groups.computeIfAbsent(rental.getRentalTimestamp(), k -> new ArrayList<>()).add(rental);
+		}
+		this.rentalsByDateTime.clear();
+		this.rentalsByDateTime.addAll(groups.values());
+		this.invoiceWriter = invoiceWriter;
+		this.events.clear();
+		this.now = 0;
+		this.sequence = 0;
+		this.group = -1;
+		this.moving = 0;
+		this.startNanos = System.nanoTime();
+		if(!rentalsByDateTime.isEmpty()) {
+			schedule(0, SimulationEvent.Kind.START_RENTALS, null);
+		}
+		while(!events.isEmpty()) {
+			SimulationEvent event = events.poll();
+			waitFor(event.time);
+			now = event.time;
+			process(event);
+		}
+	}
+
+	/**
+	 * Returns the virtual time.
+	 *
+	 * @return now  The virtual time in milliseconds since the start of the run.
+	 */
+	public long getNow() {
+		return now;
+	}
+
+	/**
+	 * Returns the speed-up of the virtual clock.
+	 *
+	 * @return speedUp  The speed-up, or {@link #AS_FAST_AS_POSSIBLE}.
+	 */
+	public double getSpeedUp() {
+		return speedUp;
+	}
+
+	/**
+	 * Processes the event.
+	 *
+	 * @param event  The event.
+	 * @throws InterruptedException  If the thread is interrupted while waiting for the writer's queue.
+	 */
+	private void process(SimulationEvent event) throws InterruptedException {
+		switch(event.kind) {
+			case START_RENTALS:
+				startRentals(rentalsByDateTime.get(++group));
+				break;
+			case MOVE:
+				event.movement.step(listener);
+				schedule(now + event.movement.getDelay(), event.movement.isFinished() ? SimulationEvent.Kind.FINISH : SimulationEvent.Kind.MOVE, event.movement);
+				break;
+			case FINISH:
+				finish(event.movement.getRental());
+				break;
+			case CLEAR:
+				listener.rentalsFinished();
+				if(group + 1 < rentalsByDateTime.size()) {
+					schedule(now, SimulationEvent.Kind.START_RENTALS, null);
+				}
+				break;
+		}
+	}
+
+	/**
+	 * Starts the rentals with the same date and time.
+	 *
+	 * @param rentals  The rentals.
+	 * @throws InterruptedException  If the thread is interrupted while waiting for the writer's queue.
+	 */
+	private void startRentals(List<Rental> rentals) throws InterruptedException {
+		moving = rentals.size();
+		for(Rental rental : rentals) {
+			rental.getVehicle().chargeBatteryLevel();
+			if(ReadRentals.YES.equals(rental.getMalfunction().getHasMalfunction())) {
+				listener.malfunctionShown(rental.getFirstStartCoordinate(), rental.getSecondStartCoordinate(), rental.getVehicle().getIdOfVehicle() + "-" + rental.getVehicle().getBatteryLevel());
+				finish(rental);
+				continue;
+			}
+			RentalMovement movement = new RentalMovement(rental);
+			if(movement.isFinished()) {
+				finish(rental);
+			} else {
+				schedule(now, SimulationEvent.Kind.MOVE, movement);
+			}
+		}
+	}
+
+	/**
+	 * Prices the finished rental and clears the map after the last rental of the group.
+	 *
+	 * @param rental  The rental.
+	 * @throws InterruptedException  If the thread is interrupted while waiting for the writer's queue.
+	 */
+	private void finish(Rental rental) throws InterruptedException {
+		RentalCalculator.calculateAndWriteBill(rental, invoiceWriter, speedUp == AS_FAST_AS_POSSIBLE ? OverflowPolicy.WAIT : OverflowPolicy.SPILL);
+		if(--moving == 0) {
+			schedule(now + PAUSE_BETWEEN_RENTALS, SimulationEvent.Kind.CLEAR, null);
+		}
+	}
+
+	/**
+	 * Schedules an event.
+	 *
+	 * @param time      The virtual time in milliseconds.
+	 * @param kind      The kind of the event.
+	 * @param movement  The moving vehicle, or {@code null}.
+	 */
+	private void schedule(long time, SimulationEvent.Kind kind, RentalMovement movement) {
+		events.add(new SimulationEvent(time, sequence++, kind, movement));
+	}
+
+	/**
+	 * Waits until the tick in which the wall clock reaches the virtual time, unless the engine runs as fast as
+	 * possible.
+	 *
+	 * @param time  The virtual time in milliseconds.
+	 * @throws InterruptedException  If the thread is interrupted while waiting.
+	 */
+	private void waitFor(long time) throws InterruptedException {
+		if(speedUp == AS_FAST_AS_POSSIBLE || time <= now) {
+			return;
+		}
+		long due = (long) (TimeUnit.MILLISECONDS.toNanos(time) / speedUp);
+		long tick = (due + tickNanos - 1) / tickNanos * tickNanos;
+		long wait = startNanos + tick - System.nanoTime();
+		if(wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+}
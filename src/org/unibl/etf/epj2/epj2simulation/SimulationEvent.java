@@ -0,0 +1,75 @@
+package org.unibl.etf.epj2.epj2simulation;
+
+/**
+ * An event of the {@link SimulationEngine}, ordered by its virtual time.
+ * <p>Events with the same time are ordered by the sequence in which they were scheduled.</p>
+ *
+ * @author Tamara Kosovac
+ */
+final class SimulationEvent implements Comparable<SimulationEvent> {
+	/**
+	 * The kind of the event.
+	 */
+	enum Kind {
+		/**
+		 * The rentals with the next date and time start.
+		 */
+		START_RENTALS,
+
+		/**
+		 * A vehicle moves to its next field.
+		 */
+		MOVE,
+
+		/**
+		 * A vehicle has reached its finish field and the rental is priced.
+		 */
+		FINISH,
+
+		/**
+		 * The map is cleared after the pause between rentals.
+		 */
+		CLEAR
+	}
+
+	/**
+	 * The virtual time of the event in milliseconds.
+	 */
+	final long time;
+
+	/**
+	 * The sequence in which the event was scheduled.
+	 */
+	final long sequence;
+
+	/**
+	 * The kind of the event.
+	 */
+	final Kind kind;
+
+	/**
+	 * The moving vehicle, or {@code null} for events of all rentals.
+	 */
+	final RentalMovement movement;
+
+	/**
+	 * Constructs an event.
+	 *
+	 * @param time      The virtual time in milliseconds.
+	 * @param sequence  The sequence in which the event was scheduled.
+	 * @param kind      The kind of the event.
+	 * @param movement  The moving vehicle, or {@code null}.
+	 */
+	SimulationEvent(long time, long sequence, Kind kind, RentalMovement movement) {
+		this.time = time;
+		this.sequence = sequence;
+		this.kind = kind;
+		this.movement = movement;
+	}
+
+	@Override
+	public int compareTo(SimulationEvent other) {
+		int compared = Long.compare(time, other.time);
+		return compared != 0 ? compared : Long.compare(sequence, other.sequence);
+	}
+}
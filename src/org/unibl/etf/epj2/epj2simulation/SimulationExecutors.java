@@ -0,0 +1,100 @@
+package org.unibl.etf.epj2.epj2simulation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.unibl.etf.epj2.rentals.TariffConfig;
+
+/**
+ * Creates the executors that price the finished rentals of the real-time simulation.
+ * <p>Pricing waits when the queue of the invoice writer is full, so it runs on the executor and not on the timer
+ * that moves the vehicles. By default every finished rental gets its own virtual thread, so any number of rentals
+ * can wait at the same time. Virtual threads are looked up at run time, so the simulation also runs on a Java
+ * version without them. There, and when the {@value #SIMULATION_THREADS} setting is a number, rentals are priced on
+ * a fixed pool of platform threads and the remaining rentals wait for a free thread.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public final class SimulationExecutors {
+	/**
+	 * The key of the setting with the threads of the simulation, {@value #VIRTUAL} or a number of platform threads.
+	 */
+	public static final String SIMULATION_THREADS = "SIMULATION_THREADS";
+
+	/**
+	 * The value of the setting for a virtual thread per rental.
+	 */
+	public static final String VIRTUAL = "virtual";
+
+	/**
+	 * Number of platform threads when virtual threads aren't available.
+	 */
+	public static final int DEFAULT_PLATFORM_THREADS = 256;
+
+	private SimulationExecutors() {
+	}
+
+	/**
+	 * Creates the executor for the configuration.
+	 *
+	 * @param config  The configuration.
+	 * @return The executor, which must be shut down after the simulation.
+	 */
+	public static ExecutorService create(TariffConfig config) {
+		String value = config.getValue(SIMULATION_THREADS);
+		if(value == null || value.trim().isEmpty() || VIRTUAL.equalsIgnoreCase(value.trim())) {
+			return newDefault();
+		}
+		try {
+			return newPlatformThreadPool(Integer.parseInt(value.trim()));
+		} catch(IllegalArgumentException e) {
+			e.printStackTrace();
+			return newDefault();
+		}
+	}
+
+	/**
+	 * Creates an executor that starts a virtual thread per task, or a pool of
+	 * {@value #DEFAULT_PLATFORM_THREADS} platform threads if virtual threads aren't available.
+	 *
+	 * @return The executor.
+	 */
+	public static ExecutorService newDefault() {
+		ExecutorService executor = newVirtualThreadPerTaskExecutor();
+		return executor != null ? executor : newPlatformThreadPool(DEFAULT_PLATFORM_THREADS);
+	}
+
+	/**
+	 * Creates an executor that starts a virtual thread per task.
+	 *
+	 * @return The executor, or {@code null} if virtual threads aren't available.
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch(ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a fixed pool of daemon platform threads.
+	 *
+	 * @param threads  The number of threads.
+	 * @return The executor.
+	 * @throws IllegalArgumentException  If the number of threads isn't positive.
+	 */
+	public static ExecutorService newPlatformThreadPool(int threads) {
+		AtomicInteger number = new AtomicInteger();
+		ThreadFactory factory = task -> {
+			Thread thread = new Thread(task, "rental-" + number.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		return Executors.newFixedThreadPool(threads, factory);
+	}
+}
@@ -0,0 +1,37 @@
+package org.unibl.etf.epj2.epj2simulation;
+
+/**
+ * Receives what happens on the city map during a simulation.
+ * <p>Vehicles are described by their id and battery level, for example {@code A1-97}. The methods do nothing by
+ * default, so a listener only overrides what it shows and a simulation without a display can use
+ * {@code new SimulationListener() {}}.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public interface SimulationListener {
+	/**
+	 * Called when a vehicle moves to a field.
+	 *
+	 * @param x     The row of the field.
+	 * @param y     The column of the field.
+	 * @param info  The id and battery level of the vehicle.
+	 */
+	default void vehicleMoved(int x, int y, String info) {
+	}
+
+	/**
+	 * Called when a vehicle has a malfunction at its start field and doesn't move.
+	 *
+	 * @param x     The row of the field.
+	 * @param y     The column of the field.
+	 * @param info  The id and battery level of the vehicle.
+	 */
+	default void malfunctionShown(int x, int y, String info) {
+	}
+
+	/**
+	 * Called when all rentals with the same date and time have finished, before the next ones start.
+	 */
+	default void rentalsFinished() {
+	}
+}
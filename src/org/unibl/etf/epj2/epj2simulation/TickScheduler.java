@@ -0,0 +1,164 @@
+package org.unibl.etf.epj2.epj2simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.unibl.etf.epj2.rentals.TariffConfig;
+
+/**
+ * Moves the vehicles of all active rentals in real time from one timer thread.
+ * <p>Instead of a sleeping thread per rental, the timer ticks at a fixed rate and on every tick moves each vehicle
+ * over the fields it should have reached by then, so wakeups scale with the ticks and not with the rentals. A vehicle
+ * spends the same part of its usage duration on each field. When it has spent its time on the finish field, the
+ * rental's finish action runs on the timer thread, so the action should hand longer work to another thread.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class TickScheduler implements AutoCloseable {
+	/**
+	 * The key of the setting with the time between two ticks in milliseconds.
+	 */
+	public static final String SIMULATION_TICK_MILLIS = "SIMULATION_TICK_MILLIS";
+
+	/**
+	 * The default time between two ticks in milliseconds, which is 25 ticks per second.
+	 */
+	public static final long DEFAULT_TICK_MILLIS = 40;
+
+	/**
+	 * A rental that is moving.
+	 */
+	private static final class ActiveRental {
+		/**
+		 * The movement of the vehicle.
+		 */
+		private final RentalMovement movement;
+
+		/**
+		 * Runs when the vehicle has finished.
+		 */
+		private final Runnable finished;
+
+		/**
+		 * The time of the next move, in milliseconds since the start of the scheduler.
+		 */
+		private long due = -1;
+
+		private ActiveRental(RentalMovement movement, Runnable finished) {
+			this.movement = movement;
+			this.finished = finished;
+		}
+	}
+
+	/**
+	 * Receives the moves of the vehicles.
+	 */
+	private final SimulationListener listener;
+
+	/**
+	 * The timer.
+	 */
+	private final ScheduledExecutorService timer;
+
+	/**
+	 * Rentals added since the last tick.
+	 */
+	private final Queue<ActiveRental> added = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Rentals that are moving, used only by the timer thread.
+	 */
+	private final List<ActiveRental> active = new ArrayList<>();
+
+	/**
+	 * The wall clock in nanoseconds when the scheduler started.
+	 */
+	private final long startNanos = System.nanoTime();
+
+	/**
+	 * Starts a scheduler.
+	 *
+	 * @param listener    Receives the moves of the vehicles.
+	 * @param tickMillis  The time between two ticks in milliseconds.
+	 * @throws IllegalArgumentException  If the time between two ticks isn't positive.
+	 */
+	public TickScheduler(SimulationListener listener, long tickMillis) {
+		this.listener = listener;
+		this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "simulation-tick");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.timer.scheduleAtFixedRate(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the time between two ticks of the configuration.
+	 *
+	 * @param config  The configuration.
+	 * @return The time between two ticks in milliseconds, {@link #DEFAULT_TICK_MILLIS} if the setting is missing or invalid.
+	 */
+	public static long tickMillisOf(TariffConfig config) {
+		String value = config.getValue(SIMULATION_TICK_MILLIS);
+		if(value == null) {
+			return DEFAULT_TICK_MILLIS;
+		}
+		try {
+			long tickMillis = Long.parseLong(value.trim());
+			return tickMillis > 0 ? tickMillis : DEFAULT_TICK_MILLIS;
+		} catch(NumberFormatException exception) {
+			return DEFAULT_TICK_MILLIS;
+		}
+	}
+
+	/**
+	 * Adds a rental, whose vehicle starts moving on the next tick.
+	 *
+	 * @param movement  The movement of the vehicle.
+	 * @param finished  Runs on the timer thread when the vehicle has finished.
+	 */
+	void add(RentalMovement movement, Runnable finished) {
+		added.add(new ActiveRental(movement, finished));
+	}
+
+	/**
+	 * Stops the timer. Rentals that haven't finished don't move any more.
+	 */
+	@Override
+	public void close() {
+		timer.shutdownNow();
+	}
+
+	/**
+	 * Moves all active vehicles that are due.
+	 */
+	private void tick() {
+		try {
+			long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			for(ActiveRental rental = added.poll(); rental != null; rental = added.poll()) {
+				rental.due = now;
+				active.add(rental);
+			}
+			for(int i = active.size() - 1; i >= 0; i--) {
+				ActiveRental rental = active.get(i);
+				while(rental.due <= now) {
+					if(rental.movement.isFinished()) {
+						active.set(i, active.get(active.size() - 1));
+						active.remove(active.size() - 1);
+						rental.finished.run();
+						break;
+					}
+					rental.movement.step(listener);
+					rental.due += rental.movement.getDelay();
+				}
+			}
+		} catch(RuntimeException e) {
+			e.printStackTrace();
+		}
+	}
+}
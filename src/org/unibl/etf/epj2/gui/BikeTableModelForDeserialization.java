@@ -4,6 +4,7 @@ import java.util.List;
 
 import javax.swing.table.AbstractTableModel;
 
+import org.unibl.etf.epj2.money.Money;
 import org.unibl.etf.epj2.reports.Report;
 import org.unibl.etf.epj2.vehicles.ElectricBike;
 
@@ -114,7 +115,7 @@ public class BikeTableModelForDeserialization extends AbstractTableModel{
 		case 5: 
 			return bike.getRangePerCharge();
 		case 6:
-			return String.format("%.1f", bike.getPurchasePrice() * Report.BIKE_COEFFICIENT);
+			return Money.format(Money.percentOf(Money.ofUnits(bike.getPurchasePrice()), Report.BIKE_COEFFICIENT));
 		default:
 			return null;
 		}
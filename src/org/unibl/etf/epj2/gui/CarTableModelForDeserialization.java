@@ -4,6 +4,7 @@ import java.util.List;
 
 import javax.swing.table.AbstractTableModel;
 
+import org.unibl.etf.epj2.money.Money;
 import org.unibl.etf.epj2.reports.Report;
 import org.unibl.etf.epj2.vehicles.ElectricCar;
 
@@ -116,7 +117,7 @@ public class CarTableModelForDeserialization extends AbstractTableModel {
 		case 6:
 			return car.getDescription();
 		case 7:
-			return String.format("%.1f", car.getPurchasePrice() * Report.CAR_COEFFICIENT);
+			return Money.format(Money.percentOf(Money.ofUnits(car.getPurchasePrice()), Report.CAR_COEFFICIENT));
 		default:
 			return null;
 		}
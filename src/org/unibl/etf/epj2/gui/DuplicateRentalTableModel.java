@@ -0,0 +1,116 @@
+package org.unibl.etf.epj2.gui;
+
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import org.unibl.etf.epj2.rentals.DuplicateRental;
+
+/**
+ * Represents a table model for displaying rentals rejected as duplicates in a JTable.
+ * 
+ * @author Tamara Kosovac
+ */
+public class DuplicateRentalTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * List of duplicate rentals to be displayed in the table.
+	 */
+	private List<DuplicateRental> duplicateRentals;
+	
+	/**
+	 * Array of column names for the table.
+	 */
+	private String[] columnNames = {"Linija", "ID", "Vrijeme"};
+	
+	/**
+	 * Constructs a DuplicateRentalTableModel with the specified list of duplicate rentals.
+	 * 
+	 * @param duplicateRentals  List of DuplicateRental objects.
+	 */
+	public DuplicateRentalTableModel(List<DuplicateRental> duplicateRentals) {
+		this.duplicateRentals = duplicateRentals;
+	}
+	
+	/**
+	 * Returns the list of duplicate rentals.
+	 * 
+	 * @return duplicateRentals  The list of duplicate rentals.
+	 */
+	public List<DuplicateRental> getDuplicateRentals() {
+		return duplicateRentals;
+	}
+
+	/**
+	 * Sets the list of duplicate rentals.
+	 * 
+	 * @param duplicateRentals  The duplicate rentals to set.
+	 */
+	public void setDuplicateRentals(List<DuplicateRental> duplicateRentals) {
+		this.duplicateRentals = duplicateRentals;
+	}
+	
+	/**
+	 * Returns the number of rows in the table model.
+	 * 
+	 * @return The number of rows in the table model.
+	 */
+	@Override
+	public int getRowCount() {
+		return duplicateRentals.size();
+	}
+	
+	/**
+	 * Returns the number of columns in the table model.
+	 * 
+	 * @return The number of columns in the table model.
+	 */
+	@Override
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+	
+	/**
+	 *  Returns the value at the specified row and column in the table model.
+	 *  @param rowIndex     The row index of the value to be retrieved.
+	 *  @param columnIndex  The column index of the value to be retrieved.
+	 *  @return The value at the specified row and column.
+	 */
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		DuplicateRental duplicate = duplicateRentals.get(rowIndex);
+		switch(columnIndex) {
+		case 0:
+			return duplicate.getLineNumber();
+		case 1:
+			return duplicate.getIdOfVehicle();
+		case 2:
+			return duplicate.getRentalDateTime();
+		default:
+			return null;
+		}
+	}
+	
+	/**
+	 * Returns the class of the values in the column, so line numbers are sorted as numbers.
+	 *
+	 * @param columnIndex  The column index.
+	 * @return The class of the values in the column.
+	 */
+	@Override
+	public Class<?> getColumnClass(int columnIndex) {
+		return columnIndex == 0 ? Long.class : String.class;
+	}
+	
+	/**
+	 * Returns the name of the column at the specified index.
+	 * 
+	 * @param column  The column index of the name to be retrieved.
+	 * @return The name of the column at the specified index.
+	 */
+	@Override
+	public String getColumnName(int column) {
+		return columnNames[column];
+	}
+}
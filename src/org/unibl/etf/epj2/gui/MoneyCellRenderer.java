@@ -0,0 +1,32 @@
+package org.unibl.etf.epj2.gui;
+
+import javax.swing.JLabel;
+import javax.swing.table.DefaultTableCellRenderer;
+
+import org.unibl.etf.epj2.money.Money;
+
+/**
+ * Renders amounts in cents, stored as {@link Long} values, as formatted money in the center of a table cell.
+ *
+ * @author Tamara Kosovac
+ */
+public class MoneyCellRenderer extends DefaultTableCellRenderer {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a renderer that centers the amounts.
+	 */
+	public MoneyCellRenderer() {
+		setHorizontalAlignment(JLabel.CENTER);
+	}
+
+	/**
+	 * Sets the text of the cell to the formatted amount.
+	 *
+	 * @param value  The amount in cents, or {@code null}.
+	 */
+	@Override
+	protected void setValue(Object value) {
+		setText(value instanceof Long ? Money.format((Long) value) : "");
+	}
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import javax.swing.table.AbstractTableModel;
 
+import org.unibl.etf.epj2.money.Money;
 import org.unibl.etf.epj2.reports.Report;
 import org.unibl.etf.epj2.vehicles.ElectricScooter;
 
@@ -114,7 +115,7 @@ public class ScooterTableModelForDeserialization extends AbstractTableModel {
 		case 5: 
 			return scooter.getMaxSpeed();
 		case 6:
-			return String.format("%.1f", scooter.getPurchasePrice() * Report.SCOOTER_COEFFICIENT);
+			return Money.format(Money.percentOf(Money.ofUnits(scooter.getPurchasePrice()), Report.SCOOTER_COEFFICIENT));
 		default:
 			return null;
 		}
@@ -17,8 +17,10 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
 
-import org.unibl.etf.epj2.reports.Bill;
-import org.unibl.etf.epj2.reports.Report;
+import org.unibl.etf.epj2.money.Money;
+import org.unibl.etf.epj2.rentals.RentalDateTime;
+import org.unibl.etf.epj2.reports.ReportAggregate;
+import org.unibl.etf.epj2.reports.ReportStore;
 
 /**
  * A JFrame that displays a daily report of various financial metrics.
@@ -40,7 +42,7 @@ public class ShowDailyReportFrame extends JFrame {
 
 	/**
 	 * Constructs a new ShowDailyReportFrame that calculates and displays the daily report.
-     * The report data is fetched using methods from the Report class, grouped by date, and displayed in a JTable.
+     * The report data is taken from the daily aggregates of the ReportStore and displayed in a JTable.
 	 */
 	public ShowDailyReportFrame() {
 		setTitle("Prikaz dnevnog izvještaja");
@@ -50,8 +52,7 @@ public class ShowDailyReportFrame extends JFrame {
 	    contentPane = new JPanel(new BorderLayout());
 	    contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
 	    setContentPane(contentPane);
-	    Report report = new Report();
-	    Map<String, List<Bill>> billsGroupedByDate = report.getBillsGroupedByDate();
+	    Map<Long, ReportAggregate> dailyAggregates = ReportStore.getCurrent().getDailyAggregates();
 	    String[] columnNames = {
 	        "Datum", 
 	        "Ukupan dnevni prihod", 
@@ -63,18 +64,18 @@ public class ShowDailyReportFrame extends JFrame {
 	        "Ukupan dnevni iznos za popravke kvarova"
 	    };
 	    List<Object[]> dataList = new ArrayList<>();
-	    for (Map.Entry<String, List<Bill>> entry : billsGroupedByDate.entrySet()) {
-	        String rentalDateTime = entry.getKey();
-	        List<Bill> dailyBills = entry.getValue();
+	    for (Map.Entry<Long, ReportAggregate> entry : dailyAggregates.entrySet()) {
+	        String rentalDateTime = RentalDateTime.formatDate(entry.getKey());
+	        ReportAggregate daily = entry.getValue();
 	        dataList.add(new Object[] {
 	            rentalDateTime, 
-	            report.totalIncome(dailyBills), 
-	            report.totalDiscount(dailyBills), 
-	            report.totalDiscountPromotion(dailyBills), 
-	            report.totalIncomeInNarrowCity(dailyBills), 
-	            report.totalIncomeInWideCity(dailyBills), 
-	            report.totalMaintenanceAmount(dailyBills), 
-	            String.format("%.1f", report.totalAmountOfMalfunctionRepairs(dailyBills))
+	            Money.format(daily.getTotalIncome()), 
+	            Money.format(daily.getTotalDiscount()), 
+	            Money.format(daily.getTotalDiscountPromotion()), 
+	            Money.format(daily.getTotalIncomeInNarrowCity()), 
+	            Money.format(daily.getTotalIncomeInWideCity()), 
+	            Money.format(daily.getTotalMaintenanceAmount()), 
+	            Money.format(daily.getTotalAmountOfMalfunctionRepairs())
 	        });
 	    }
 	    Object[][] data = dataList.toArray(new Object[0][]);
@@ -4,7 +4,6 @@ import java.awt.BorderLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -16,7 +15,8 @@ import javax.swing.border.EmptyBorder;
 import org.unibl.etf.epj2.vehicles.ElectricBike;
 import org.unibl.etf.epj2.vehicles.ElectricCar;
 import org.unibl.etf.epj2.vehicles.ElectricScooter;
-import org.unibl.etf.epj2.vehicles.Vehicle;
+import org.unibl.etf.epj2.vehicles.ReadVehicles;
+import org.unibl.etf.epj2.vehicles.VehicleRegistry;
 
 /**
  * A JFrame that displays deserialized damaged vehicles, electric cars, bikes, and scooters.
@@ -38,9 +38,9 @@ public class ShowDeserializedVehiclesFrame extends JFrame {
 	 * Constructs a new ShowDeserializedVehiclesFrame that displays damaged electric vehicles in a tabular format.
      * The vehicles are grouped by type (ElectricCar, ElectricBike, ElectricScooter) and shown in separate tables.
      * 
-     * @param damagedVehicles  A list of deserialized vehicles that are damaged.
+     * @param damagedVehicles  A registry of deserialized vehicles that are damaged.
 	 */
-	public ShowDeserializedVehiclesFrame(List<Vehicle> damagedVehicles) {
+	public ShowDeserializedVehiclesFrame(VehicleRegistry damagedVehicles) {
 		setTitle("Prikaz deserijalizovanih vozila");
 		setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 		setBounds(140, 10, 10, 140);
@@ -49,20 +49,9 @@ public class ShowDeserializedVehiclesFrame extends JFrame {
 		contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
 		setContentPane(contentPane);
 		
-		List<ElectricCar> cars = damagedVehicles.stream()
-		            .filter(obj -> obj instanceof ElectricCar)
-		            .map(obj -> (ElectricCar) obj)
-		            .collect(Collectors.toList());
-
-		List<ElectricBike> bikes = damagedVehicles.stream()
-		            .filter(obj -> obj instanceof ElectricBike)
-		            .map(obj -> (ElectricBike) obj)
-		            .collect(Collectors.toList());
-
-		 List<ElectricScooter> scooters = damagedVehicles.stream()
-		            .filter(obj -> obj instanceof ElectricScooter)
-		            .map(obj -> (ElectricScooter) obj)
-		            .collect(Collectors.toList());
+		List<ElectricCar> cars = damagedVehicles.getVehiclesOfType(ReadVehicles.CAR, ElectricCar.class);
+		List<ElectricBike> bikes = damagedVehicles.getVehiclesOfType(ReadVehicles.BIKE, ElectricBike.class);
+		List<ElectricScooter> scooters = damagedVehicles.getVehiclesOfType(ReadVehicles.SCOOTER, ElectricScooter.class);
 		    JTable carTable = ShowVehiclesFrame.createStyledTable(new CarTableModelForDeserialization(cars));
 		    JTable bikeTable = ShowVehiclesFrame.createStyledTable(new BikeTableModelForDeserialization(bikes));
 		    JTable scooterTable = ShowVehiclesFrame.createStyledTable(new ScooterTableModelForDeserialization(scooters));
@@ -0,0 +1,51 @@
+package org.unibl.etf.epj2.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.util.List;
+
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.border.EmptyBorder;
+
+import org.unibl.etf.epj2.rentals.DuplicateRental;
+
+/**
+ * A JFrame that displays a table of rentals rejected as duplicates while reading the rental data file.
+ * The frame uses a BorderLayout to arrange the content, with the table displayed in the center.
+ * 
+ * @author Tamara Kosovac
+ */
+public class ShowDuplicateRentalsFrame extends JFrame {
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * The main content pane for the frame.
+	 */
+	private JPanel contentPane;
+
+	/**
+	 * Constructs a new ShowDuplicateRentalsFrame that displays the duplicate rentals in a tabular format.
+	 * 
+	 * @param duplicateRentals  A list of rentals rejected as duplicates.
+	 */
+	public ShowDuplicateRentalsFrame(List<DuplicateRental> duplicateRentals) {
+		setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+		setTitle("Prikaz duplikata iznajmljivanja");
+		setBounds(140, 10, 10, 140);
+		setSize(900, 700);
+		contentPane = new JPanel(new BorderLayout());
+		contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
+		JTable duplicateTable = ShowVehiclesFrame.createStyledTable(new DuplicateRentalTableModel(duplicateRentals));
+		JPanel duplicatePanel = new JPanel(new BorderLayout());
+		JLabel duplicateLabel = new JLabel("Duplikati iznajmljivanja", JLabel.CENTER);
+		duplicateLabel.setFont(new Font("Serif", Font.BOLD, 16));
+		duplicatePanel.add(duplicateLabel, BorderLayout.NORTH);
+		duplicatePanel.add(new JScrollPane(duplicateTable), BorderLayout.CENTER);
+		contentPane.add(duplicatePanel, BorderLayout.CENTER);
+		setContentPane(contentPane);
+	}
+}
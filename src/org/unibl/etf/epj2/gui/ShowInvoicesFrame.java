@@ -0,0 +1,90 @@
+package org.unibl.etf.epj2.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.io.IOException;
+
+import javax.swing.BorderFactory;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTextArea;
+import javax.swing.ListSelectionModel;
+
+import org.unibl.etf.epj2.invoices.InvoiceJournal;
+
+/**
+ * A JFrame that displays the invoices stored in the {@link InvoiceJournal}.
+ * The invoices are listed by their file names, and the selected invoice is rendered as text on demand.
+ *
+ * @author Tamara Kosovac
+ */
+public class ShowInvoicesFrame extends JFrame {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The journal the invoices are read from.
+	 */
+	private final transient InvoiceJournal journal;
+
+	/**
+	 * The text of the selected invoice.
+	 */
+	private final JTextArea invoiceText = new JTextArea();
+
+	/**
+	 * Constructs a new ShowInvoicesFrame that lists the invoices of the journal.
+	 *
+	 * @param journal  The journal opened for reading.
+	 */
+	public ShowInvoicesFrame(InvoiceJournal journal) {
+		this.journal = journal;
+		setTitle("Prikaz racuna");
+		setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+		setBounds(140, 10, 10, 140);
+		setSize(900, 700);
+		JList<String> invoiceList = new JList<>(journal.getFileNames().toArray(new String[0]));
+		invoiceList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		invoiceList.setFont(new Font("Serif", Font.PLAIN, 14));
+		invoiceList.setBackground(Color.LIGHT_GRAY);
+		invoiceList.setSelectionBackground(Color.DARK_GRAY);
+		invoiceList.setSelectionForeground(Color.WHITE);
+		invoiceList.addListSelectionListener(e -> {
+			if(!e.getValueIsAdjusting()) {
+				showInvoice(invoiceList.getSelectedValue());
+			}
+		});
+		invoiceText.setEditable(false);
+		invoiceText.setFont(new Font("Monospaced", Font.PLAIN, 14));
+		JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, new JScrollPane(invoiceList), new JScrollPane(invoiceText));
+		splitPane.setDividerLocation(300);
+		JLabel titleLabel = new JLabel("Racuni", JLabel.CENTER);
+		titleLabel.setFont(new Font("Serif", Font.BOLD, 16));
+		titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+		add(titleLabel, BorderLayout.NORTH);
+		add(splitPane, BorderLayout.CENTER);
+	}
+
+	/**
+	 * Renders the invoice from the journal and shows its text.
+	 *
+	 * @param fileName  The invoice file name, or {@code null} if nothing is selected.
+	 */
+	private void showInvoice(String fileName) {
+		if(fileName == null) {
+			invoiceText.setText("");
+			return;
+		}
+		try {
+			String text = journal.render(fileName);
+			invoiceText.setText(text == null ? "" : text);
+			invoiceText.setCaretPosition(0);
+		} catch(IOException e) {
+			e.printStackTrace();
+			invoiceText.setText(e.getMessage());
+		}
+	}
+}
@@ -3,7 +3,6 @@ package org.unibl.etf.epj2.gui;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Font;
-import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.JFrame;
@@ -13,8 +12,9 @@ import javax.swing.JTable;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
 
-import org.unibl.etf.epj2.reports.Bill;
-import org.unibl.etf.epj2.reports.Report;
+import org.unibl.etf.epj2.money.Money;
+import org.unibl.etf.epj2.reports.ReportAggregate;
+import org.unibl.etf.epj2.reports.ReportStore;
 
 /**
  * A JFrame that displays a summary report of various financial metrics.
@@ -28,25 +28,24 @@ public class ShowSummaryReportFrame extends JFrame {
 
 	/**
 	 * Constructs a new ShowSummaryReportFrame that calculates and displays the summary report.
-     * The report data is fetched using methods from the Report class and displayed in a JTable.
+     * The report data is taken from the summary aggregate of the ReportStore and displayed in a JTable.
 	 */
 	public ShowSummaryReportFrame() {
 		setTitle("Prikaz sumarnog izvjestaja");
 		setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 		setBounds(140, 10, 10, 140);
 		setSize(900, 700);
-		Report report = new Report();
-	    List<Bill> bills = report.getBills();
+	    ReportAggregate summary = ReportStore.getCurrent().getSummary();
 	    Object[][] data = {
-	            {"Ukupan prihod", report.totalIncome(bills)},
-	            {"Ukupan popust", report.totalDiscount(bills)},
-	            {"Ukupno promocije", report.totalDiscountPromotion(bills)},
-	            {"Ukupan iznos svih voznji u uzem dijelu grada", report.totalIncomeInNarrowCity(bills)},
-	            {"Ukupan iznos svih voznji u sirom dijelu grada", report.totalIncomeInWideCity(bills)},
-	            {"Ukupan iznos za odrzavanje", report.totalMaintenanceAmount(bills)},
-	            {"Ukupan iznos za popravke kvarova", String.format("%.1f", report.totalAmountOfMalfunctionRepairs(bills))},
-	            {"Ukupni troskovi kompanije", report.totalCostsOfCompany(bills)},
-	            {"Ukupan porez", String.format("%.1f", report.totalTax(bills))}
+	            {"Ukupan prihod", Money.format(summary.getTotalIncome())},
+	            {"Ukupan popust", Money.format(summary.getTotalDiscount())},
+	            {"Ukupno promocije", Money.format(summary.getTotalDiscountPromotion())},
+	            {"Ukupan iznos svih voznji u uzem dijelu grada", Money.format(summary.getTotalIncomeInNarrowCity())},
+	            {"Ukupan iznos svih voznji u sirom dijelu grada", Money.format(summary.getTotalIncomeInWideCity())},
+	            {"Ukupan iznos za odrzavanje", Money.format(summary.getTotalMaintenanceAmount())},
+	            {"Ukupan iznos za popravke kvarova", Money.format(summary.getTotalAmountOfMalfunctionRepairs())},
+	            {"Ukupni troskovi kompanije", Money.format(summary.getTotalCostsOfCompany())},
+	            {"Ukupan porez", Money.format(summary.getTotalTax())}
 	        };
 	    String[] columnNames = {"Kategorija", "Iznos"};
 	    JTable reportTable = new JTable(data, columnNames);
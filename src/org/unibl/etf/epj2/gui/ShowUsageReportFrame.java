@@ -0,0 +1,90 @@
+package org.unibl.etf.epj2.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+
+import javax.swing.BorderFactory;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.JTableHeader;
+
+import org.unibl.etf.epj2.reports.ReportCache;
+import org.unibl.etf.epj2.reports.UsageReport;
+
+/**
+ * A JFrame that displays revenue and utilization per vehicle or per driver.
+ * The report includes revenue, number of rides, total ride duration, number of malfunctions and repair costs.
+ * Amounts are sorted as numbers and formatted by a {@link MoneyCellRenderer}.
+ *
+ * @author Tamara Kosovac
+ */
+public class ShowUsageReportFrame extends JFrame {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates a frame that displays the report per vehicle of the stored invoices.
+	 *
+	 * @return The frame.
+	 */
+	public static ShowUsageReportFrame perVehicle() {
+		return new ShowUsageReportFrame("Prikaz izvjestaja po vozilima", "Izvjestaj po vozilima", "ID vozila",
+				ReportCache.getCurrent().getReport().getVehicleUsage());
+	}
+
+	/**
+	 * Creates a frame that displays the report per driver of the stored invoices.
+	 *
+	 * @return The frame.
+	 */
+	public static ShowUsageReportFrame perDriver() {
+		return new ShowUsageReportFrame("Prikaz izvjestaja po korisnicima", "Izvjestaj po korisnicima", "Korisnik",
+				ReportCache.getCurrent().getReport().getDriverUsage());
+	}
+
+	/**
+	 * Constructs a new ShowUsageReportFrame that displays the usage report in a JTable.
+	 *
+	 * @param frameTitle  The title of the frame.
+	 * @param title       The title above the table.
+	 * @param keyColumn   The name of the column with vehicle ids or driver names.
+	 * @param usage       The usage report.
+	 */
+	public ShowUsageReportFrame(String frameTitle, String title, String keyColumn, UsageReport usage) {
+		setTitle(frameTitle);
+		setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+		setBounds(140, 10, 10, 140);
+		setSize(900, 700);
+		JTable reportTable = new JTable(new UsageReportTableModel(usage, keyColumn));
+		reportTable.setAutoCreateRowSorter(true);
+		reportTable.setFont(new Font("Serif", Font.PLAIN, 14));
+		reportTable.setRowHeight(20);
+		reportTable.setForeground(Color.BLACK);
+		reportTable.setBackground(Color.LIGHT_GRAY);
+		reportTable.setGridColor(Color.GRAY);
+		reportTable.setSelectionBackground(Color.DARK_GRAY);
+		reportTable.setSelectionForeground(Color.WHITE);
+		JTableHeader header = reportTable.getTableHeader();
+		header.setFont(new Font("Serif", Font.BOLD, 16));
+		header.setBackground(Color.DARK_GRAY);
+		header.setForeground(Color.WHITE);
+		DefaultTableCellRenderer renderer = new DefaultTableCellRenderer();
+		renderer.setHorizontalAlignment(JLabel.CENTER);
+		reportTable.setDefaultRenderer(Object.class, renderer);
+		reportTable.setDefaultRenderer(Long.class, renderer);
+		MoneyCellRenderer moneyRenderer = new MoneyCellRenderer();
+		reportTable.getColumnModel().getColumn(UsageReportTableModel.REVENUE_COLUMN).setCellRenderer(moneyRenderer);
+		reportTable.getColumnModel().getColumn(UsageReportTableModel.REPAIR_COSTS_COLUMN).setCellRenderer(moneyRenderer);
+		JScrollPane scrollPane = new JScrollPane(reportTable);
+		scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+		scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
+		JLabel titleLabel = new JLabel(title, JLabel.CENTER);
+		titleLabel.setFont(new Font("Serif", Font.BOLD, 16));
+		titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
+		add(titleLabel, BorderLayout.NORTH);
+		add(scrollPane, BorderLayout.CENTER);
+	}
+}
@@ -5,8 +5,6 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -20,10 +18,11 @@ import javax.swing.table.TableModel;
 import org.unibl.etf.epj2.vehicles.ElectricBike;
 import org.unibl.etf.epj2.vehicles.ElectricCar;
 import org.unibl.etf.epj2.vehicles.ElectricScooter;
-import org.unibl.etf.epj2.vehicles.Vehicle;
+import org.unibl.etf.epj2.vehicles.ReadVehicles;
+import org.unibl.etf.epj2.vehicles.VehicleRegistry;
 
 /**
- * A JFrame that displays a set of vehicles categorized into electric cars, bikes, and scooters.
+ * A JFrame that displays a registry of vehicles categorized into electric cars, bikes, and scooters.
  * It organizes the vehicles into separate tables within the frame.
  * 
  * @author Tamara Kosovac
@@ -37,12 +36,12 @@ public class ShowVehiclesFrame extends JFrame {
 	private JPanel contentPane;
 
 	/**
-	 * Constructs a new ShowVehiclesFrame that displays the given set of vehicles.
+	 * Constructs a new ShowVehiclesFrame that displays the given registry of vehicles.
 	 * The vehicles are categorized into electric cars, bikes, and scooters, each displayed in its own table.
 	 * 
-	 * @param vehicles  The set of Vehicle objects to be displayed in the frame.
+	 * @param vehicles  The registry of Vehicle objects to be displayed in the frame.
 	 */
-	public ShowVehiclesFrame(Set<Vehicle> vehicles) {
+	public ShowVehiclesFrame(VehicleRegistry vehicles) {
 		setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 		setTitle("Prikaz vozila");
 		setBounds(140, 10, 10, 140);
@@ -50,20 +49,9 @@ public class ShowVehiclesFrame extends JFrame {
 		contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
         setSize(900, 700);
 		setContentPane(contentPane);
-	    List<ElectricCar> cars = vehicles.stream()
-		            .filter(obj -> obj instanceof ElectricCar)
-		            .map(obj -> (ElectricCar) obj)
-		            .collect(Collectors.toList());
-
-		List<ElectricBike> bikes = vehicles.stream()
-		            .filter(obj -> obj instanceof ElectricBike)
-		            .map(obj -> (ElectricBike) obj)
-		            .collect(Collectors.toList());
-
-		List<ElectricScooter> scooters = vehicles.stream()
-		            .filter(obj -> obj instanceof ElectricScooter)
-		            .map(obj -> (ElectricScooter) obj)
-		            .collect(Collectors.toList());
+	    List<ElectricCar> cars = vehicles.getVehiclesOfType(ReadVehicles.CAR, ElectricCar.class);
+		List<ElectricBike> bikes = vehicles.getVehiclesOfType(ReadVehicles.BIKE, ElectricBike.class);
+		List<ElectricScooter> scooters = vehicles.getVehiclesOfType(ReadVehicles.SCOOTER, ElectricScooter.class);
 
 		JTable carTable = createStyledTable(new CarTableModel(cars));
 		JTable bikeTable = createStyledTable(new BikeTableModel(bikes));
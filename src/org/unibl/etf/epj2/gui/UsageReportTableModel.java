@@ -0,0 +1,115 @@
+package org.unibl.etf.epj2.gui;
+
+import javax.swing.table.AbstractTableModel;
+
+import org.unibl.etf.epj2.reports.UsageReport;
+
+/**
+ * Represents a table model for displaying a {@link UsageReport} in a JTable.
+ * <p>Amounts are returned as {@link Long} values in cents, so the table sorts them as numbers, and are formatted by
+ * a {@link MoneyCellRenderer}.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class UsageReportTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The index of the column with the revenue.
+	 */
+	public static final int REVENUE_COLUMN = 1;
+
+	/**
+	 * The index of the column with the repair costs.
+	 */
+	public static final int REPAIR_COSTS_COLUMN = 5;
+
+	/**
+	 * The usage report to be displayed in the table.
+	 */
+	private final UsageReport usage;
+
+	/**
+	 * Array of column names for the table.
+	 */
+	private final String[] columnNames;
+
+	/**
+	 * Constructs a UsageReportTableModel with the specified usage report.
+	 *
+	 * @param usage      The usage report to be displayed in the table.
+	 * @param keyColumn  The name of the column with vehicle ids or driver names.
+	 */
+	public UsageReportTableModel(UsageReport usage, String keyColumn) {
+		this.usage = usage;
+		this.columnNames = new String[] {keyColumn, "Prihod", "Broj voznji", "Ukupno trajanje", "Broj kvarova", "Iznos za popravke kvarova"};
+	}
+
+	/**
+	 * Returns the number of rows in the table model.
+	 *
+	 * @return The number of rows in the table model.
+	 */
+	@Override
+	public int getRowCount() {
+		return usage.size();
+	}
+
+	/**
+	 * Returns the number of columns in the table model.
+	 *
+	 * @return The number of columns in the table model.
+	 */
+	@Override
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	/**
+	 *  Returns the value at the specified row and column in the table model.
+	 *  @param rowIndex     The row index of the value to be retrieved.
+	 *  @param columnIndex  The column index of the value to be retrieved.
+	 *  @return The value at the specified row and column.
+	 */
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		switch(columnIndex) {
+		case 0:
+			return usage.getName(rowIndex);
+		case REVENUE_COLUMN:
+			return usage.getRevenue(rowIndex);
+		case 2:
+			return usage.getRideCount(rowIndex);
+		case 3:
+			return usage.getRideSeconds(rowIndex);
+		case 4:
+			return usage.getMalfunctionCount(rowIndex);
+		case REPAIR_COSTS_COLUMN:
+			return usage.getRepairCosts(rowIndex);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the class of the values in the column, so numbers are sorted as numbers.
+	 *
+	 * @param columnIndex  The column index.
+	 * @return The class of the values in the column.
+	 */
+	@Override
+	public Class<?> getColumnClass(int columnIndex) {
+		return columnIndex == 0 ? String.class : Long.class;
+	}
+
+	/**
+	 * Returns the name of the column at the specified index.
+	 *
+	 * @param column  The column index of the name to be retrieved.
+	 * @return The name of the column at the specified index.
+	 */
+	@Override
+	public String getColumnName(int column) {
+		return columnNames[column];
+	}
+}
@@ -0,0 +1,246 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.unibl.etf.epj2.reports.BillColumns;
+import org.unibl.etf.epj2.reports.KeyDictionary;
+
+/**
+ * Reads a bill records file in the {@link BillRecords} format through memory mapping.
+ * <p>The file is mapped in regions of whole records, so each column value is read straight from the mapped pages
+ * at a fixed offset and no object is created per bill. Files larger than one mapping can hold are split into
+ * several regions. A torn record at the end of the file is ignored. The ids of vehicles and names of drivers are
+ * read once from the keys file.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class BillRecordReader implements BillColumns {
+	/**
+	 * Log2 of the number of records in one mapped region.
+	 */
+	private static final int REGION_SHIFT = 24;
+
+	/**
+	 * Mask of the index of a record within its region.
+	 */
+	private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+	/**
+	 * The mapped regions.
+	 */
+	private final MappedByteBuffer[] regions;
+
+	/**
+	 * Number of records.
+	 */
+	private final int size;
+
+	/**
+	 * Keys of the vehicles.
+	 */
+	private final KeyDictionary vehicles;
+
+	/**
+	 * Keys of the drivers.
+	 */
+	private final KeyDictionary drivers;
+
+	/**
+	 * Constructs a reader of the mapped regions.
+	 *
+	 * @param regions   The mapped regions.
+	 * @param size      The number of records.
+	 * @param vehicles  Keys of the vehicles.
+	 * @param drivers   Keys of the drivers.
+	 */
+	private BillRecordReader(MappedByteBuffer[] regions, int size, KeyDictionary vehicles, KeyDictionary drivers) {
+		this.regions = regions;
+		this.size = size;
+		this.vehicles = vehicles;
+		this.drivers = drivers;
+	}
+
+	/**
+	 * Maps the committed records of the bill records file and reads its keys file.
+	 *
+	 * @param file  The bill records file.
+	 * @return The reader, or {@code null} if the records of the file aren't committed.
+	 * @throws IOException  If the file can't be read or isn't a bill records file.
+	 */
+	public static BillRecordReader open(Path file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long length = channel.size();
+			if(length < BillRecords.HEADER_SIZE) {
+				throw new IOException("Bill records file " + file + " has no header.");
+			}
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BillRecords.HEADER_SIZE);
+			if(header.getInt(0) != BillRecords.MAGIC || header.getInt(4) != BillRecords.VERSION
+					|| header.getInt(8) != BillRecords.RECORD_SIZE) {
+				throw new IOException("File " + file + " isn't a bill records file of version " + BillRecords.VERSION + ".");
+			}
+			int committed = header.getInt(BillRecords.COMMITTED_RECORDS);
+			if(committed == BillRecords.UNCOMMITTED) {
+				return null;
+			}
+			long records = Math.min(committed, (length - BillRecords.HEADER_SIZE) / BillRecords.RECORD_SIZE);
+			if(records > Integer.MAX_VALUE) {
+				throw new IOException("Bill records file " + file + " has too many records.");
+			}
+			int size = (int) records;
+			MappedByteBuffer[] regions = new MappedByteBuffer[(size + REGION_MASK) >>> REGION_SHIFT];
+			for(int i = 0; i < regions.length; i++) {
+				long first = (long) i << REGION_SHIFT;
+				long count = Math.min(size - first, 1L << REGION_SHIFT);
+				regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, BillRecords.HEADER_SIZE + first * BillRecords.RECORD_SIZE,
+						count * BillRecords.RECORD_SIZE);
+			}
+			KeyDictionary vehicles = new KeyDictionary();
+			KeyDictionary drivers = new KeyDictionary();
+			readKeys(BillRecords.keysFile(file), vehicles, drivers);
+			return new BillRecordReader(regions, size, vehicles, drivers);
+		}
+	}
+
+	/**
+	 * Reads the keys file into the dictionaries.
+	 * <p>A torn entry at the end of the file is ignored.</p>
+	 *
+	 * @param keysFile  The keys file.
+	 * @param vehicles  Keys of the vehicles.
+	 * @param drivers   Keys of the drivers.
+	 * @throws IOException  If the keys file can't be read.
+	 */
+	private static void readKeys(Path keysFile, KeyDictionary vehicles, KeyDictionary drivers) throws IOException {
+		try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(keysFile)))) {
+			while(true) {
+				int kind = input.read();
+				if(kind == -1) {
+					return;
+				}
+				String value = input.readUTF();
+				if(kind == BillRecords.VEHICLE_KEY_KIND) {
+					vehicles.keyOf(value);
+				} else if(kind == BillRecords.DRIVER_KEY_KIND) {
+					drivers.keyOf(value);
+				} else {
+					throw new IOException("Unknown kind of key " + kind + " in " + keysFile + ".");
+				}
+			}
+		} catch(EOFException exception) {
+			return;
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public long getRentalTimestamp(int index) {
+		return region(index).getLong(offset(index) + BillRecords.RENTAL_TIMESTAMP);
+	}
+
+	@Override
+	public long getTotalPrice(int index) {
+		return region(index).getLong(offset(index) + BillRecords.TOTAL_PRICE);
+	}
+
+	@Override
+	public long getDiscount(int index) {
+		return region(index).getLong(offset(index) + BillRecords.DISCOUNT);
+	}
+
+	@Override
+	public long getDiscountProm(int index) {
+		return region(index).getLong(offset(index) + BillRecords.DISCOUNT_PROM);
+	}
+
+	@Override
+	public int getUsageDurationInSeconds(int index) {
+		return region(index).getInt(offset(index) + BillRecords.USAGE_DURATION);
+	}
+
+	@Override
+	public int getVehicleKey(int index) {
+		return region(index).getInt(offset(index) + BillRecords.VEHICLE_KEY);
+	}
+
+	@Override
+	public int getVehicleKeyCount() {
+		return vehicles.size();
+	}
+
+	@Override
+	public String getIdOfVehicle(int key) {
+		return vehicles.valueOf(key);
+	}
+
+	@Override
+	public int getDriverKey(int index) {
+		return region(index).getInt(offset(index) + BillRecords.DRIVER_KEY);
+	}
+
+	@Override
+	public int getDriverKeyCount() {
+		return drivers.size();
+	}
+
+	@Override
+	public String getNameOfTheDriver(int key) {
+		return drivers.valueOf(key);
+	}
+
+	@Override
+	public int getUnitPrice(int index) {
+		return region(index).getInt(offset(index) + BillRecords.UNIT_PRICE);
+	}
+
+	@Override
+	public boolean isInNarrowCity(int index) {
+		return (flags(index) & BillRecords.NARROW_CITY_FLAG) != 0;
+	}
+
+	@Override
+	public boolean hasMalfunction(int index) {
+		return (flags(index) & BillRecords.MALFUNCTION_FLAG) != 0;
+	}
+
+	/**
+	 * Returns whether the rental of the bill had a promotion.
+	 *
+	 * @param index  The index of the bill.
+	 * @return {@code true} if there was a promotion, {@code false} otherwise
+	 */
+	public boolean hasPromotion(int index) {
+		return (flags(index) & BillRecords.PROMOTION_FLAG) != 0;
+	}
+
+	@Override
+	public int getVehicleType(int index) {
+		return region(index).get(offset(index) + BillRecords.VEHICLE_TYPE);
+	}
+
+	private int flags(int index) {
+		return region(index).get(offset(index) + BillRecords.FLAGS);
+	}
+
+	private MappedByteBuffer region(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " bill records.");
+		}
+		return regions[index >>> REGION_SHIFT];
+	}
+
+	private static int offset(int index) {
+		return (index & REGION_MASK) * BillRecords.RECORD_SIZE;
+	}
+}
@@ -0,0 +1,192 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.unibl.etf.epj2.reports.Bill;
+import org.unibl.etf.epj2.reports.KeyDictionary;
+
+/**
+ * Writes bills to a bill records file in the {@link BillRecords} format.
+ * <p>Records are collected in a buffer and written when it is full, when the writer is forced and when it is
+ * closed. New vehicle and driver keys are written to the keys file first. Every simulation prices all rentals
+ * again, so it writes a new generation of the file instead of appending to the previous one. The records are committed in the header when the
+ * writer is forced or closed; until then readers ignore the file.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class BillRecordWriter implements AutoCloseable {
+	/**
+	 * Number of records collected before they are written.
+	 */
+	private static final int BUFFERED_RECORDS = 1024;
+
+	/**
+	 * The channel of the file.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The buffer of records not written yet.
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFERED_RECORDS * BillRecords.RECORD_SIZE);
+
+	/**
+	 * The channel of the keys file.
+	 */
+	private final FileChannel keysChannel;
+
+	/**
+	 * Buffered output to the keys file.
+	 */
+	private final DataOutputStream keysOutput;
+
+	/**
+	 * Keys of the vehicles.
+	 */
+	private final KeyDictionary vehicles = new KeyDictionary();
+
+	/**
+	 * Keys of the drivers.
+	 */
+	private final KeyDictionary drivers = new KeyDictionary();
+
+	/**
+	 * Number of records written or buffered.
+	 */
+	private long size;
+
+	/**
+	 * Creates the file and its keys file and writes the header.
+	 * <p>The file must not exist yet, so a writer never truncates a file that a report may still map. A leftover
+	 * keys file without its records file is replaced.</p>
+	 *
+	 * @param file  The bill records file.
+	 * @throws IOException  If the files can't be created or the file already exists.
+	 */
+	public BillRecordWriter(Path file) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if(parent != null) {
+			Files.createDirectories(parent);
+		}
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		try {
+			this.keysChannel = FileChannel.open(BillRecords.keysFile(file), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		} catch(IOException exception) {
+			channel.close();
+			throw exception;
+		}
+		this.keysOutput = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(keysChannel)));
+		BillRecords.putHeader(buffer);
+		writeBuffer();
+	}
+
+	/**
+	 * Appends the record of the bill.
+	 *
+	 * @param bill  The bill.
+	 * @throws IOException  If the records can't be written.
+	 */
+	public void append(Bill bill) throws IOException {
+		if(buffer.remaining() < BillRecords.RECORD_SIZE) {
+			writeBuffer();
+		}
+		int vehicleKey = key(vehicles, BillRecords.VEHICLE_KEY_KIND, bill.getIdOfVehicle());
+		int driverKey = key(drivers, BillRecords.DRIVER_KEY_KIND, bill.getNameOfTheDriver());
+		BillRecords.put(bill, vehicleKey, driverKey, buffer);
+		size++;
+	}
+
+	/**
+	 * Writes the buffered records, forces both files to the storage device and commits the records.
+	 *
+	 * @throws IOException  If the records can't be written.
+	 */
+	public void force() throws IOException {
+		writeBuffer();
+		keysChannel.force(false);
+		channel.force(false);
+		commit();
+		channel.force(false);
+	}
+
+	/**
+	 * Returns the number of records appended by this writer.
+	 *
+	 * @return size  The number of records.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Writes the buffered records, commits them and closes the file.
+	 *
+	 * @throws IOException  If the records can't be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			writeBuffer();
+			commit();
+		} finally {
+			try {
+				keysOutput.close();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Returns the key of a string, writing it to the keys file if it is new.
+	 *
+	 * @param dictionary  The keys of the kind.
+	 * @param kind        The kind of the key.
+	 * @param value       The string.
+	 * @return The key.
+	 * @throws IOException  If the key can't be written.
+	 */
+	private int key(KeyDictionary dictionary, int kind, String value) throws IOException {
+		int key = dictionary.find(value);
+		if(key == KeyDictionary.NOT_FOUND) {
+			key = dictionary.keyOf(value);
+			keysOutput.writeByte(kind);
+			keysOutput.writeUTF(dictionary.valueOf(key));
+		}
+		return key;
+	}
+
+	/**
+	 * Writes the number of records to the header, so readers read all records written so far.
+	 *
+	 * @throws IOException  If the header can't be written.
+	 */
+	private void commit() throws IOException {
+		ByteBuffer committed = ByteBuffer.allocate(Integer.BYTES).putInt(0, (int) Math.min(size, Integer.MAX_VALUE));
+		while(committed.hasRemaining()) {
+			channel.write(committed, BillRecords.COMMITTED_RECORDS + committed.position());
+		}
+	}
+
+	/**
+	 * Writes the buffered records to the file, after the keys they use.
+	 *
+	 * @throws IOException  If the records can't be written.
+	 */
+	private void writeBuffer() throws IOException {
+		keysOutput.flush();
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
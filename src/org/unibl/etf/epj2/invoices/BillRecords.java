@@ -0,0 +1,362 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.unibl.etf.epj2.rentals.ReadRentals;
+import org.unibl.etf.epj2.rentals.TariffConfig;
+import org.unibl.etf.epj2.reports.Bill;
+import org.unibl.etf.epj2.reports.BillColumns;
+import org.unibl.etf.epj2.reports.Report;
+
+/**
+ * Fixed-width binary format of the bill records file.
+ * <p>The file starts with a header of {@link #HEADER_SIZE} bytes: the magic number, the version, the record
+ * size and the number of committed records as ints. It is followed by one record of {@link #RECORD_SIZE} bytes per
+ * bill, with only the values that reports need:</p>
+ * <pre>
+ * offset  0  long  rental date and time, in minutes since the epoch
+ * offset  8  long  total price, in cents
+ * offset 16  long  discount, in percent scaled by Money.SCALE
+ * offset 24  long  promotional discount, in percent scaled by Money.SCALE
+ * offset 32  int   unit price
+ * offset 36  int   usage duration in seconds
+ * offset 40  byte  flags: narrow city, malfunction, promotion
+ * offset 41  byte  vehicle type, see BillColumns
+ * offset 42        padding
+ * offset 44  int   vehicle key
+ * offset 48  int   driver key
+ * offset 52        padding
+ * </pre>
+ * <p>Vehicle and driver keys are dense ints assigned in the order vehicles and drivers first appear. The ids of
+ * vehicles and names of drivers are written once per key to the keys file next to the records file, as a kind
+ * byte ({@link #VEHICLE_KEY_KIND} or {@link #DRIVER_KEY_KIND}) followed by the string in modified UTF-8, so keys
+ * are always written before the records that use them.</p>
+ * <p>Because every record has the same size, the record of a bill is found by its index without reading the
+ * records before it, and a torn record at the end of the file is simply ignored.</p>
+ * <p>While a run is writing the file, the number of committed records is {@link #UNCOMMITTED}. The writer sets it
+ * when it is forced or closed, and readers only read that many records. A file that was never committed, because
+ * the run is still buffering records or crashed, isn't read at all, so reports fall back to the invoices.</p>
+ * <p>Every run writes a new generation of the file, named {@code bills-<generation>.dat}, instead of truncating the
+ * previous one, because reports may still map it. Readers use the newest committed generation, and only if it
+ * isn't older than the invoices, so the records of a run that failed are never read as current ones. Older
+ * generations are deleted when a new one is created, unless a report still maps them, in which case a later run
+ * deletes them.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public final class BillRecords {
+	/**
+	 * The start of the name of a bill records file in the folder with bills, followed by the generation.
+	 */
+	public static final String FILE_PREFIX = "bills-";
+
+	/**
+	 * The extension of a bill records file.
+	 */
+	public static final String FILE_EXTENSION = ".dat";
+
+	/**
+	 * The generation of a file that isn't a bill records file.
+	 */
+	public static final long NO_GENERATION = -1;
+
+	/**
+	 * The key of the setting in the properties file that turns the bill records file on or off.
+	 */
+	public static final String BILL_RECORDS = "BILL_RECORDS";
+
+	/**
+	 * The magic number at the start of the file.
+	 */
+	public static final int MAGIC = 0x42494C4C;
+
+	/**
+	 * The version of the format.
+	 */
+	public static final int VERSION = 3;
+
+	/**
+	 * The size of the header in bytes.
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * The number of committed records of a file whose writer hasn't been forced or closed yet.
+	 */
+	public static final int UNCOMMITTED = -1;
+
+	/**
+	 * The offset of the number of committed records in the header.
+	 */
+	static final int COMMITTED_RECORDS = 12;
+
+	/**
+	 * The size of one record in bytes.
+	 */
+	public static final int RECORD_SIZE = 56;
+
+	/**
+	 * The extension of the keys file, which replaces the extension of the records file.
+	 */
+	public static final String KEYS_EXTENSION = ".keys";
+
+	/**
+	 * Kind of an entry of the keys file with the id of a vehicle.
+	 */
+	public static final int VEHICLE_KEY_KIND = 'V';
+
+	/**
+	 * Kind of an entry of the keys file with the name of a driver.
+	 */
+	public static final int DRIVER_KEY_KIND = 'D';
+
+	static final int RENTAL_TIMESTAMP = 0;
+	static final int TOTAL_PRICE = 8;
+	static final int DISCOUNT = 16;
+	static final int DISCOUNT_PROM = 24;
+	static final int UNIT_PRICE = 32;
+	static final int USAGE_DURATION = 36;
+	static final int FLAGS = 40;
+	static final int VEHICLE_TYPE = 41;
+	static final int VEHICLE_KEY = 44;
+	static final int DRIVER_KEY = 48;
+
+	static final int NARROW_CITY_FLAG = 1;
+	static final int MALFUNCTION_FLAG = 2;
+	static final int PROMOTION_FLAG = 4;
+
+	private BillRecords() {
+	}
+
+	/**
+	 * Checks whether bill records are written and read for the configuration.
+	 *
+	 * @param config  The configuration.
+	 * @return {@code true} unless the setting is {@code false}
+	 */
+	public static boolean isEnabled(TariffConfig config) {
+		String value = config.getValue(BILL_RECORDS);
+		return value == null || !"false".equalsIgnoreCase(value.trim());
+	}
+
+	/**
+	 * Returns the bill records file of a generation for the configuration.
+	 *
+	 * @param config      The configuration.
+	 * @param generation  The generation.
+	 * @return The file in the folder with bills.
+	 */
+	public static Path file(TariffConfig config, long generation) {
+		return Paths.get(config.getFolderName(), FILE_PREFIX + generation + FILE_EXTENSION);
+	}
+
+	/**
+	 * Returns the bill records file for the next run, a generation newer than all files in the folder with bills.
+	 *
+	 * @param config  The configuration.
+	 * @return The file, which doesn't exist yet.
+	 */
+	public static Path nextFile(TariffConfig config) {
+		long newest = NO_GENERATION;
+		for(Path file : list(Paths.get(config.getFolderName()))) {
+			newest = Math.max(newest, generationOf(file));
+		}
+		return file(config, newest + 1);
+	}
+
+	/**
+	 * Returns the bill records file that reports read for the configuration.
+	 *
+	 * @param config  The configuration.
+	 * @return The newest committed generation, or {@code null} if bill records are disabled, no generation is
+	 *         committed or the newest one is older than the invoices.
+	 */
+	public static Path currentFile(TariffConfig config) {
+		return currentFile(config, InvoiceStoreVersion.ofInvoices(config).getLastModified());
+	}
+
+	/**
+	 * Returns the bill records file that reports read for the configuration.
+	 *
+	 * @param config            The configuration.
+	 * @param invoicesModified  The latest modification time of the stored invoices.
+	 * @return The newest committed generation, or {@code null} if bill records are disabled, no generation is
+	 *         committed or the newest one is older than the invoices.
+	 */
+	static Path currentFile(TariffConfig config, long invoicesModified) {
+		if(!isEnabled(config)) {
+			return null;
+		}
+		Path newest = null;
+		for(Path file : list(Paths.get(config.getFolderName()))) {
+			if(isCommitted(file) && (newest == null || generationOf(file) > generationOf(newest))) {
+				newest = file;
+			}
+		}
+		if(newest == null || newest.toFile().lastModified() < invoicesModified) {
+			return null;
+		}
+		return newest;
+	}
+
+	/**
+	 * Returns the generation of a bill records file.
+	 *
+	 * @param file  The file.
+	 * @return The generation, or {@link #NO_GENERATION} if the name isn't the name of a bill records file.
+	 */
+	public static long generationOf(Path file) {
+		String name = file.getFileName().toString();
+		if(!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_EXTENSION)) {
+			return NO_GENERATION;
+		}
+		try {
+			long generation = Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_EXTENSION.length()));
+			return generation >= 0 ? generation : NO_GENERATION;
+		} catch(NumberFormatException exception) {
+			return NO_GENERATION;
+		}
+	}
+
+	/**
+	 * Lists the bill records files of all generations in a folder.
+	 *
+	 * @param folder  The folder.
+	 * @return The files, empty if the folder doesn't exist.
+	 */
+	private static List<Path> list(Path folder) {
+		List<Path> files = new ArrayList<>();
+		if(!Files.isDirectory(folder)) {
+			return files;
+		}
+		try(DirectoryStream<Path> stream = Files.newDirectoryStream(folder, FILE_PREFIX + "*" + FILE_EXTENSION)) {
+			for(Path file : stream) {
+				if(generationOf(file) != NO_GENERATION) {
+					files.add(file);
+				}
+			}
+		} catch(IOException exception) {
+			exception.printStackTrace();
+		}
+		return files;
+	}
+
+	/**
+	 * Checks whether the header of a file commits its records.
+	 * <p>The header is read without mapping the file, so checking doesn't keep the file from being deleted.</p>
+	 *
+	 * @param file  The file.
+	 * @return {@code true} if the file is a bill records file with committed records, {@code false} otherwise
+	 */
+	private static boolean isCommitted(Path file) {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while(header.hasRemaining()) {
+				if(channel.read(header) == -1) {
+					return false;
+				}
+			}
+		} catch(IOException exception) {
+			return false;
+		}
+		return header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+				&& header.getInt(8) == RECORD_SIZE && header.getInt(COMMITTED_RECORDS) != UNCOMMITTED;
+	}
+
+	/**
+	 * Deletes the generations older than a records file, with their keys files.
+	 * <p>A generation that can't be deleted, because a report still maps it, is kept and deleted by a later run.
+	 * It is never read again, because it is older than the new generation.</p>
+	 *
+	 * @param recordsFile  The records file of the newest generation.
+	 */
+	static void deleteOlder(Path recordsFile) {
+		long generation = generationOf(recordsFile);
+		for(Path file : list(recordsFile.toAbsolutePath().getParent())) {
+			if(generationOf(file) < generation) {
+				try {
+					delete(file);
+				} catch(IOException exception) {
+					// Still mapped by a report, deleted by a later run.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the keys file of a records file.
+	 *
+	 * @param recordsFile  The records file.
+	 * @return The keys file next to it.
+	 */
+	public static Path keysFile(Path recordsFile) {
+		String name = recordsFile.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		return recordsFile.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + KEYS_EXTENSION);
+	}
+
+	/**
+	 * Writes the header of an uncommitted file.
+	 *
+	 * @param buffer  The buffer the header is put into.
+	 */
+	static void putHeader(ByteBuffer buffer) {
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(UNCOMMITTED);
+	}
+
+	/**
+	 * Deletes the records file and its keys file.
+	 *
+	 * @param recordsFile  The records file.
+	 * @throws IOException  If a file exists and can't be deleted.
+	 */
+	static void delete(Path recordsFile) throws IOException {
+		Files.deleteIfExists(recordsFile);
+		Files.deleteIfExists(keysFile(recordsFile));
+	}
+
+	/**
+	 * Writes the record of the bill at the position of the buffer.
+	 *
+	 * @param bill        The bill.
+	 * @param vehicleKey  The key of the vehicle of the bill.
+	 * @param driverKey   The key of the driver of the bill.
+	 * @param buffer      The buffer with at least {@link #RECORD_SIZE} bytes remaining.
+	 */
+	static void put(Bill bill, int vehicleKey, int driverKey, ByteBuffer buffer) {
+		int flags = 0;
+		if(Report.TRUE.equals(bill.getInNarrowCity())) {
+			flags |= NARROW_CITY_FLAG;
+		}
+		if(bill.getIdOfVehicle() != null && ReadRentals.YES.equals(bill.getHasMalfunction())) {
+			flags |= MALFUNCTION_FLAG;
+		}
+		if(ReadRentals.YES.equals(bill.getHasPromotion())) {
+			flags |= PROMOTION_FLAG;
+		}
+		int start = buffer.position();
+		buffer.putLong(bill.getRentalTimestamp());
+		buffer.putLong(bill.getTotalPrice());
+		buffer.putLong(bill.getDiscount());
+		buffer.putLong(bill.getDiscountProm());
+		buffer.putInt(bill.getUnitPrice());
+		buffer.putInt(bill.getUsageDurationInSeconds());
+		buffer.put((byte) flags);
+		buffer.put((byte) BillColumns.vehicleTypeOf(bill.getIdOfVehicle()));
+		buffer.putShort((short) 0);
+		buffer.putInt(vehicleKey);
+		buffer.putInt(driverKey);
+		while(buffer.position() < start + RECORD_SIZE) {
+			buffer.put((byte) 0);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses settings whose value is the name of an enum constant.
+ * <p>Names are matched regardless of case, like the other flags of the properties file. An unknown value falls
+ * back to a default and is reported only the first time it is read, because settings are read on every run.</p>
+ *
+ * @author Tamara Kosovac
+ */
+final class EnumSetting {
+	/**
+	 * The settings and values already reported as unknown.
+	 */
+	private static final Set<String> REPORTED = ConcurrentHashMap.newKeySet();
+
+	private EnumSetting() {
+	}
+
+	/**
+	 * Parses the value of a setting.
+	 *
+	 * @param <E>           The type of the enum.
+	 * @param key           The key of the setting.
+	 * @param value         The value of the setting, or {@code null} if it isn't set.
+	 * @param type          The class of the enum.
+	 * @param defaultValue  The constant used if the setting isn't set or is unknown.
+	 * @return The constant with the name of the value.
+	 */
+	static <E extends Enum<E>> E parse(String key, String value, Class<E> type, E defaultValue) {
+		if(value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		try {
+			return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+		} catch(IllegalArgumentException exception) {
+			if(REPORTED.add(key + "=" + value)) {
+				System.out.println("Unknown value " + value + " of " + key + ", using " + defaultValue + ".");
+			}
+			return defaultValue;
+		}
+	}
+}
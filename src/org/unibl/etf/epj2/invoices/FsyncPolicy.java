@@ -0,0 +1,23 @@
+package org.unibl.etf.epj2.invoices;
+
+/**
+ * Decides when written invoices are forced to the storage device.
+ *
+ * @author Tamara Kosovac
+ */
+public enum FsyncPolicy {
+	/**
+	 * Invoices are never forced, the operating system writes them when it decides to.
+	 */
+	NEVER,
+
+	/**
+	 * All invoices of a batch are forced together, after the whole batch is written.
+	 */
+	BATCH,
+
+	/**
+	 * Every invoice is forced as soon as it is written.
+	 */
+	EVERY_INVOICE
+}
@@ -0,0 +1,83 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.unibl.etf.epj2.rentals.TariffConfig;
+
+/**
+ * Command line entry point that renders invoices stored in the {@link InvoiceJournal} as text.
+ * <p>Usage: {@code InvoiceExport [--folder <folder>] [<invoice> ...]}, where an invoice is given by its file name
+ * without the extension. Without invoices, the names of all invoices in the journal are printed. The invoices are
+ * printed to the standard output, or written as text files to the folder given with {@value #FOLDER_OPTION}.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public final class InvoiceExport {
+	/**
+	 * The option followed by the folder the invoices are written to.
+	 */
+	public static final String FOLDER_OPTION = "--folder";
+
+	private InvoiceExport() {
+	}
+
+	/**
+	 * Renders the invoices of the journal of the current configuration.
+	 *
+	 * @param args  Command line arguments.
+	 */
+	public static void main(String[] args) {
+		Path folder = null;
+		List<String> fileNames = new ArrayList<>();
+		for(int i = 0; i < args.length; i++) {
+			if(FOLDER_OPTION.equals(args[i]) && i + 1 < args.length) {
+				folder = Paths.get(args[++i]);
+			} else {
+				fileNames.add(args[i]);
+			}
+		}
+		try {
+			export(InvoiceStorage.journalDirectory(TariffConfig.getCurrent()), fileNames, folder, System.out);
+		} catch(IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Renders invoices of a journal.
+	 *
+	 * @param directory  The directory of the journal.
+	 * @param fileNames  The invoice file names, or an empty list to print the names of all invoices.
+	 * @param folder     The folder the invoices are written to, or {@code null} to print them.
+	 * @param out        The stream the invoices, paths of written files and names are printed to.
+	 * @throws IOException  If the journal can't be read or a file can't be written.
+	 */
+	public static void export(Path directory, List<String> fileNames, Path folder, PrintStream out) throws IOException {
+		if(!InvoiceJournal.exists(directory)) {
+			out.println("There is no invoice journal in " + directory + ".");
+			return;
+		}
+		try(InvoiceJournal journal = InvoiceJournal.openReadOnly(directory)) {
+			if(fileNames.isEmpty()) {
+				for(String fileName : journal.getFileNames()) {
+					out.println(fileName);
+				}
+				return;
+			}
+			for(String fileName : fileNames) {
+				if(folder != null) {
+					Path file = journal.renderToFile(fileName, folder);
+					out.println(file == null ? "Invoice " + fileName + " isn't in the journal." : file.toString());
+				} else {
+					String text = journal.render(fileName);
+					out.println(text == null ? "Invoice " + fileName + " isn't in the journal." : text);
+				}
+			}
+		}
+	}
+}
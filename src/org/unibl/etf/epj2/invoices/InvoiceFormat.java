@@ -0,0 +1,63 @@
+package org.unibl.etf.epj2.invoices;
+
+import org.unibl.etf.epj2.money.Money;
+import org.unibl.etf.epj2.rentals.RentalCalculator;
+import org.unibl.etf.epj2.reports.Bill;
+
+/**
+ * Renders bills as invoice text files.
+ * <p>The text has one labelled value per line, in the order that {@link org.unibl.etf.epj2.reports.Report} reads
+ * it back.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public final class InvoiceFormat {
+	/**
+	 * The extension of invoice text files.
+	 */
+	public static final String TXT = RentalCalculator.TXT;
+
+	/**
+	 * The line separator of invoice text files.
+	 */
+	private static final String NEW_LINE = System.lineSeparator();
+
+	private InvoiceFormat() {
+	}
+
+	/**
+	 * Returns the name of the invoice file of the bill, without the extension.
+	 * <p>The name is the rental date and time followed by the vehicle id, with colons replaced because they are
+	 * not allowed in file names on every system.</p>
+	 *
+	 * @param bill  The bill.
+	 * @return The name of the file.
+	 */
+	public static String fileName(Bill bill) {
+		return (bill.getRentalDateTime() + " " + bill.getIdOfVehicle()).replace(":", "_");
+	}
+
+	/**
+	 * Renders the bill as invoice text.
+	 *
+	 * @param bill     The bill.
+	 * @param builder  The builder the text is appended to.
+	 * @return The builder.
+	 */
+	public static StringBuilder render(Bill bill, StringBuilder builder) {
+		builder.append("Datum iznajmljivanja: ").append(bill.getRentalDateTime()).append(NEW_LINE);
+		builder.append("Korisnik koji iznajmljuje: ").append(bill.getNameOfTheDriver()).append(NEW_LINE);
+		builder.append("ID vozila je: ").append(bill.getIdOfVehicle()).append(NEW_LINE);
+		builder.append("Cijena nabavke vozila je: ").append(bill.getUnitPrice()).append(NEW_LINE);
+		builder.append("Pocetna lokacija je: ").append(bill.getStartLocation()).append(NEW_LINE);
+		builder.append("Odredisna lokacija je: ").append(bill.getFinishLocation()).append(NEW_LINE);
+		builder.append("Trajanje je: ").append(bill.getUsageDurationInSeconds()).append(NEW_LINE);
+		builder.append("Da li ima kvar? ").append(bill.getHasMalfunction()).append(NEW_LINE);
+		builder.append("Da li ima promociju? ").append(bill.getHasPromotion()).append(NEW_LINE);
+		builder.append("Popust iznosi: ").append(Money.format(bill.getDiscount())).append(NEW_LINE);
+		builder.append("Promocija iznosi: ").append(Money.format(bill.getDiscountProm())).append(NEW_LINE);
+		builder.append("Ukupna cijena za placanje je: ").append(Money.format(bill.getTotalPrice())).append(NEW_LINE);
+		builder.append("Da li je voznja u uzem dijelu grada: ").append(bill.getInNarrowCity()).append(NEW_LINE);
+		return builder;
+	}
+}
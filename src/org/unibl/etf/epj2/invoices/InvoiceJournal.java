@@ -0,0 +1,766 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.unibl.etf.epj2.reports.Bill;
+
+/**
+ * Append-only journal of invoices.
+ * <p>Instead of one text file per rental, bills are appended as length-prefixed records to segment files of at
+ * most {@link #getMaxSegmentSize()} bytes. Every record is framed as {@code [length][CRC32][payload]}, so a record
+ * torn by a crash is recognized and cut off when the journal is opened again. An index file maps the invoice file
+ * name, see {@link InvoiceFormat#fileName(Bill)}, to the position of its latest record, so a single invoice can be
+ * found and rendered as text on demand, while reports read the segments sequentially with
+ * {@link #forEach(Consumer)}.</p>
+ * <p>A journal opened with {@link #open(Path)} is written by one thread; any number of readers can open the same
+ * directory with {@link #openReadOnly(Path)} and see all records that were completely written.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class InvoiceJournal implements AutoCloseable {
+	/**
+	 * The name of the journal folder inside the folder with bills.
+	 */
+	public static final String FOLDER_NAME = "journal";
+
+	/**
+	 * The default maximum size of one segment in bytes.
+	 */
+	public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * The largest maximum size of one segment in bytes, because a segment is read through a single mapping.
+	 */
+	public static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+	/**
+	 * The extension of segment files.
+	 */
+	public static final String SEGMENT_EXTENSION = ".seg";
+
+	/**
+	 * The name of the index file.
+	 */
+	public static final String INDEX_FILE = "invoices.idx";
+
+	/**
+	 * The size of the record header: the length and the checksum of the payload.
+	 */
+	private static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+
+	/**
+	 * The size of the fixed part of an index entry: the segment, the offset and the length of the name.
+	 */
+	private static final int INDEX_HEADER_SIZE = Integer.BYTES + Long.BYTES + Short.BYTES;
+
+	/**
+	 * The number of bits of a location used for the offset inside the segment.
+	 */
+	private static final int OFFSET_BITS = 40;
+
+	/**
+	 * The size of the index write buffer.
+	 */
+	private static final int INDEX_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The directory of the journal.
+	 */
+	private final Path directory;
+
+	/**
+	 * The maximum size of one segment in bytes.
+	 */
+	private final long maxSegmentSize;
+
+	/**
+	 * Whether the journal was opened only for reading.
+	 */
+	private final boolean readOnly;
+
+	/**
+	 * Locations of the latest record of every invoice, by invoice file name.
+	 */
+	private final Map<String, Long> index = new HashMap<>();
+
+	/**
+	 * Numbers of the segments in ascending order.
+	 */
+	private final List<Integer> segments = new ArrayList<>();
+
+	/**
+	 * The channel of the segment being appended to, or {@code null} for a read-only journal.
+	 */
+	private FileChannel segmentChannel;
+
+	/**
+	 * The channel of the index file, or {@code null} for a read-only journal.
+	 */
+	private FileChannel indexChannel;
+
+	/**
+	 * Index entries waiting to be written.
+	 */
+	private ByteBuffer indexBuffer;
+
+	/**
+	 * The number of the segment being appended to.
+	 */
+	private int currentSegment;
+
+	/**
+	 * The size of the segment being appended to.
+	 */
+	private long currentSize;
+
+	/**
+	 * Reusable buffer for encoding records.
+	 */
+	private ByteBuffer recordBuffer = ByteBuffer.allocate(1024);
+
+	/**
+	 * Reusable checksum.
+	 */
+	private final CRC32 crc = new CRC32();
+
+	/**
+	 * Constructs a journal; use the static {@code open} methods.
+	 *
+	 * @param directory       The directory of the journal.
+	 * @param maxSegmentSize  The maximum size of one segment in bytes.
+	 * @param readOnly        Whether the journal is opened only for reading.
+	 */
+	private InvoiceJournal(Path directory, long maxSegmentSize, boolean readOnly) {
+		this.directory = directory;
+		this.maxSegmentSize = maxSegmentSize;
+		this.readOnly = readOnly;
+	}
+
+	/**
+	 * Opens the journal in the directory for appending, with segments of {@link #DEFAULT_SEGMENT_SIZE} bytes.
+	 *
+	 * @param directory  The directory of the journal; it is created if it doesn't exist.
+	 * @return The opened journal.
+	 * @throws IOException  If the journal can't be opened.
+	 */
+	public static InvoiceJournal open(Path directory) throws IOException {
+		return open(directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Opens the journal in the directory for appending.
+	 * <p>Records that are in the segments but missing from the index are added to it, and an incomplete record at
+	 * the end of the last segment is cut off. A torn or invalid entry of the index is cut off together with all
+	 * entries after it, so new entries are appended after the last complete one.</p>
+	 *
+	 * @param directory       The directory of the journal; it is created if it doesn't exist.
+	 * @param maxSegmentSize  The maximum size of one segment in bytes, at most {@link #MAX_SEGMENT_SIZE}.
+	 * @return The opened journal.
+	 * @throws IOException  If the journal can't be opened.
+	 * @throws IllegalArgumentException  If the segment size is too small for a record or larger than {@link #MAX_SEGMENT_SIZE}.
+	 */
+	public static InvoiceJournal open(Path directory, long maxSegmentSize) throws IOException {
+		if(maxSegmentSize <= RECORD_HEADER_SIZE || maxSegmentSize > MAX_SEGMENT_SIZE) {
+			throw new IllegalArgumentException("Invalid segment size " + maxSegmentSize + ".");
+		}
+		Files.createDirectories(directory);
+		InvoiceJournal journal = new InvoiceJournal(directory, maxSegmentSize, false);
+		journal.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		journal.indexBuffer = ByteBuffer.allocate(INDEX_BUFFER_SIZE);
+		try {
+			journal.load();
+			journal.startSegment(journal.segments.isEmpty() ? 1 : journal.segments.get(journal.segments.size() - 1));
+		} catch(IOException exception) {
+			journal.indexChannel.close();
+			throw exception;
+		}
+		return journal;
+	}
+
+	/**
+	 * Opens the journal in the directory only for reading.
+	 * <p>If the directory doesn't exist, the journal is empty.</p>
+	 *
+	 * @param directory  The directory of the journal.
+	 * @return The opened journal.
+	 * @throws IOException  If the journal can't be read.
+	 */
+	public static InvoiceJournal openReadOnly(Path directory) throws IOException {
+		InvoiceJournal journal = new InvoiceJournal(directory, DEFAULT_SEGMENT_SIZE, true);
+		if(Files.isDirectory(directory)) {
+			journal.load();
+		}
+		return journal;
+	}
+
+	/**
+	 * Checks whether the directory contains a journal.
+	 *
+	 * @param directory  The directory of the journal.
+	 * @return {@code true} if the directory contains at least one segment, {@code false} otherwise
+	 */
+	public static boolean exists(Path directory) {
+		if(!Files.isDirectory(directory)) {
+			return false;
+		}
+		try(Stream<Path> files = Files.list(directory)) {
+			return files.anyMatch(file -> file.getFileName().toString().endsWith(SEGMENT_EXTENSION));
+		} catch(IOException exception) {
+			return false;
+		}
+	}
+
+	/**
+	 * Appends the bill to the journal.
+	 * <p>The record isn't forced to the storage device; call {@link #force()} for that.</p>
+	 *
+	 * @param bill  The bill.
+	 * @throws IOException  If the record can't be written.
+	 */
+	public void append(Bill bill) throws IOException {
+		if(readOnly) {
+			throw new IllegalStateException("Invoice journal is opened only for reading.");
+		}
+		ByteBuffer record = encode(bill);
+		if(currentSize > 0 && currentSize + record.remaining() > maxSegmentSize) {
+			startSegment(currentSegment + 1);
+		}
+		long offset = currentSize;
+		while(record.hasRemaining()) {
+			currentSize += segmentChannel.write(record, currentSize);
+		}
+		String name = InvoiceFormat.fileName(bill);
+		index.put(name, location(currentSegment, offset));
+		writeIndexEntry(name, currentSegment, offset);
+	}
+
+	/**
+	 * Forces all appended records and the index to the storage device.
+	 *
+	 * @throws IOException  If the journal can't be forced.
+	 */
+	public void force() throws IOException {
+		if(readOnly) {
+			return;
+		}
+		segmentChannel.force(false);
+		flushIndex();
+		indexChannel.force(false);
+	}
+
+	/**
+	 * Returns the number of invoices in the journal; an invoice written several times is counted once.
+	 *
+	 * @return The number of invoices.
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * Checks whether the journal contains the invoice.
+	 *
+	 * @param fileName  The invoice file name, without the extension.
+	 * @return {@code true} if the journal contains the invoice, {@code false} otherwise
+	 */
+	public boolean contains(String fileName) {
+		return index.containsKey(fileName);
+	}
+
+	/**
+	 * Returns the file names of all invoices in the journal.
+	 *
+	 * @return The invoice file names, without the extension, in ascending order.
+	 */
+	public List<String> getFileNames() {
+		List<String> fileNames = new ArrayList<>(index.keySet());
+		Collections.sort(fileNames);
+		return fileNames;
+	}
+
+	/**
+	 * Returns the maximum size of one segment in bytes.
+	 *
+	 * @return maxSegmentSize  The maximum segment size.
+	 */
+	public long getMaxSegmentSize() {
+		return maxSegmentSize;
+	}
+
+	/**
+	 * Finds the latest bill with the invoice file name.
+	 *
+	 * @param fileName  The invoice file name, without the extension.
+	 * @return The bill, or {@code null} if the journal doesn't contain it.
+	 * @throws IOException  If the record can't be read.
+	 */
+	public Bill find(String fileName) throws IOException {
+		Long location = index.get(fileName);
+		if(location == null) {
+			return null;
+		}
+		try(FileChannel channel = FileChannel.open(segmentPath(segmentOf(location)), StandardOpenOption.READ)) {
+			long offset = offsetOf(location);
+			ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+			readFully(channel, header, offset);
+			header.flip();
+			int length = header.getInt();
+			int checksum = header.getInt();
+			ByteBuffer payload = ByteBuffer.allocate(length);
+			readFully(channel, payload, offset + RECORD_HEADER_SIZE);
+			payload.flip();
+			if(checksum(payload) != checksum) {
+				throw new IOException("Corrupted invoice record " + fileName + ".");
+			}
+			return decode(payload);
+		}
+	}
+
+	/**
+	 * Renders the invoice with the file name as text.
+	 *
+	 * @param fileName  The invoice file name, without the extension.
+	 * @return The invoice text, or {@code null} if the journal doesn't contain it.
+	 * @throws IOException  If the record can't be read.
+	 */
+	public String render(String fileName) throws IOException {
+		Bill bill = find(fileName);
+		return bill == null ? null : InvoiceFormat.render(bill, new StringBuilder(512)).toString();
+	}
+
+	/**
+	 * Renders the invoice with the file name into a text file in the folder, as if it was written directly.
+	 *
+	 * @param fileName  The invoice file name, without the extension.
+	 * @param folder    The folder of the text file.
+	 * @return The path of the text file, or {@code null} if the journal doesn't contain the invoice.
+	 * @throws IOException  If the record can't be read or the file can't be written.
+	 */
+	public Path renderToFile(String fileName, Path folder) throws IOException {
+		String text = render(fileName);
+		if(text == null) {
+			return null;
+		}
+		Files.createDirectories(folder);
+		Path file = folder.resolve(fileName + InvoiceFormat.TXT);
+		Files.write(file, text.getBytes(Charset.defaultCharset()));
+		return file;
+	}
+
+	/**
+	 * Reads all segments sequentially and passes the latest bill of every invoice to the consumer, in the order in
+	 * which they were appended.
+	 *
+	 * @param consumer  The consumer of the bills.
+	 * @throws IOException  If a segment can't be read.
+	 */
+	public void forEach(Consumer<Bill> consumer) throws IOException {
+		for(int segment : segments) {
+			try(FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+				long size = segment == currentSegment && !readOnly ? currentSize : channel.size();
+				ByteBuffer buffer = map(channel, segment, size);
+				while(buffer.remaining() >= RECORD_HEADER_SIZE) {
+					long offset = buffer.position();
+					ByteBuffer payload = nextRecord(buffer);
+					if(payload == null) {
+						break;
+					}
+					Bill bill = decode(payload);
+					Long latest = index.get(InvoiceFormat.fileName(bill));
+					if(latest == null || latest == location(segment, offset)) {
+						consumer.accept(bill);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the remaining index entries and closes the journal.
+	 *
+	 * @throws IOException  If the journal can't be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if(readOnly) {
+			return;
+		}
+		try {
+			flushIndex();
+		} finally {
+			indexChannel.close();
+			segmentChannel.close();
+		}
+	}
+
+	/**
+	 * Loads the index and the list of segments, and adds records missing from the index.
+	 * <p>Index entries are read up to the first one that is torn or points past the end of its segment; the records
+	 * after the last trusted entry are found again by scanning the segments. In append mode the index file is cut
+	 * to the trusted entries first.</p>
+	 *
+	 * @throws IOException  If the journal can't be read.
+	 */
+	private void load() throws IOException {
+		try(Stream<Path> files = Files.list(directory)) {
+			files.map(file -> file.getFileName().toString())
+			     .filter(name -> name.endsWith(SEGMENT_EXTENSION))
+			     .map(name -> name.substring(0, name.length() - SEGMENT_EXTENSION.length()))
+			     .filter(name -> !name.isEmpty() && name.chars().allMatch(Character::isDigit))
+			     .map(Integer::valueOf)
+			     .sorted()
+			     .forEach(segments::add);
+		}
+		Map<Integer, Long> segmentSizes = new HashMap<>();
+		for(int segment : segments) {
+			segmentSizes.put(segment, Files.size(segmentPath(segment)));
+		}
+		long lastLocation = -1;
+		int validLength = 0;
+		Path indexPath = directory.resolve(INDEX_FILE);
+		if(Files.exists(indexPath)) {
+			ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+			try {
+				while(entries.remaining() >= INDEX_HEADER_SIZE) {
+					int segment = entries.getInt();
+					long offset = entries.getLong();
+					byte[] name = new byte[entries.getShort() & 0xFFFF];
+					entries.get(name);
+					Long segmentSize = segmentSizes.get(segment);
+					if(segmentSize == null || offset < 0 || offset + RECORD_HEADER_SIZE > segmentSize) {
+						// The entry doesn't point to a record, so neither it nor the entries after it are trusted.
+						break;
+					}
+					long location = location(segment, offset);
+					index.put(new String(name, StandardCharsets.UTF_8), location);
+					lastLocation = Math.max(lastLocation, location);
+					validLength = entries.position();
+				}
+			} catch(BufferUnderflowException exception) {
+				// The last entry was torn, the record is found again by the scan below.
+			}
+		}
+		if(!readOnly) {
+			indexChannel.truncate(validLength);
+			indexChannel.position(validLength);
+		}
+		recover(lastLocation);
+	}
+
+	/**
+	 * Scans the records after the last indexed one and adds them to the index.
+	 * <p>In append mode the entries are also written to the index file and an incomplete record at the end of the
+	 * last segment is cut off.</p>
+	 *
+	 * @param lastLocation  The location of the last indexed record, or {@code -1} if the index is empty.
+	 * @throws IOException  If a segment can't be read.
+	 */
+	private void recover(long lastLocation) throws IOException {
+		for(int segment : segments) {
+			if(lastLocation >= 0 && segment < segmentOf(lastLocation)) {
+				continue;
+			}
+			try(FileChannel channel = FileChannel.open(segmentPath(segment), readOnly ? new StandardOpenOption[] {StandardOpenOption.READ}
+					: new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE})) {
+				ByteBuffer buffer = map(channel, segment, channel.size());
+				if(lastLocation >= 0 && segment == segmentOf(lastLocation)) {
+					buffer.position((int) offsetOf(lastLocation));
+					nextRecord(buffer);
+				}
+				while(buffer.remaining() >= RECORD_HEADER_SIZE) {
+					long offset = buffer.position();
+					ByteBuffer payload = nextRecord(buffer);
+					if(payload == null) {
+						buffer.position((int) offset);
+						break;
+					}
+					String name = InvoiceFormat.fileName(decode(payload));
+					index.put(name, location(segment, offset));
+					if(!readOnly) {
+						writeIndexEntry(name, segment, offset);
+					}
+				}
+				if(!readOnly && buffer.position() < channel.size() && segment == segments.get(segments.size() - 1)) {
+					channel.truncate(buffer.position());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maps the start of a segment for reading.
+	 *
+	 * @param channel  The channel of the segment.
+	 * @param segment  The number of the segment.
+	 * @param size     The number of bytes to map.
+	 * @return The mapped bytes.
+	 * @throws IOException  If the segment can't be mapped or is larger than {@link #MAX_SEGMENT_SIZE}.
+	 */
+	private MappedByteBuffer map(FileChannel channel, int segment, long size) throws IOException {
+		if(size > MAX_SEGMENT_SIZE) {
+			throw new IOException("Segment " + segmentPath(segment) + " is larger than " + MAX_SEGMENT_SIZE + " bytes.");
+		}
+		return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+	}
+
+	/**
+	 * Makes the segment with the number the one being appended to.
+	 *
+	 * @param segment  The number of the segment.
+	 * @throws IOException  If the segment can't be opened.
+	 */
+	private void startSegment(int segment) throws IOException {
+		if(segmentChannel != null) {
+			segmentChannel.force(false);
+			segmentChannel.close();
+		}
+		segmentChannel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		currentSegment = segment;
+		currentSize = segmentChannel.size();
+		if(segments.isEmpty() || segments.get(segments.size() - 1) != segment) {
+			segments.add(segment);
+		}
+	}
+
+	/**
+	 * Reads the next record of the segment and checks its checksum.
+	 *
+	 * @param buffer  The segment, positioned at the beginning of a record.
+	 * @return The payload of the record, or {@code null} if the record is incomplete or corrupted.
+	 */
+	private ByteBuffer nextRecord(ByteBuffer buffer) {
+		if(buffer.remaining() < RECORD_HEADER_SIZE) {
+			return null;
+		}
+		int start = buffer.position();
+		int length = buffer.getInt();
+		int checksum = buffer.getInt();
+		if(length < 0 || length > buffer.remaining()) {
+			buffer.position(start);
+			return null;
+		}
+		ByteBuffer payload = buffer.slice();
+		payload.limit(length);
+		if(checksum(payload) != checksum) {
+			buffer.position(start);
+			return null;
+		}
+		buffer.position(buffer.position() + length);
+		return payload;
+	}
+
+	/**
+	 * Calculates the checksum of the payload without moving its position.
+	 *
+	 * @param payload  The payload.
+	 * @return The checksum.
+	 */
+	private int checksum(ByteBuffer payload) {
+		crc.reset();
+		crc.update(payload.duplicate());
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Encodes the bill into a framed record.
+	 *
+	 * @param bill  The bill.
+	 * @return The record, ready to be written.
+	 */
+	private ByteBuffer encode(Bill bill) {
+		while(true) {
+			ByteBuffer buffer = recordBuffer;
+			buffer.clear();
+			try {
+				buffer.position(RECORD_HEADER_SIZE);
+				putString(buffer, bill.getRentalDateTime());
+				putString(buffer, bill.getNameOfTheDriver());
+				putString(buffer, bill.getIdOfVehicle());
+				buffer.putInt(bill.getUnitPrice());
+				putString(buffer, bill.getStartLocation());
+				putString(buffer, bill.getFinishLocation());
+				buffer.putInt(bill.getUsageDurationInSeconds());
+				putString(buffer, bill.getHasMalfunction());
+				putString(buffer, bill.getHasPromotion());
+				buffer.putLong(bill.getDiscount());
+				buffer.putLong(bill.getDiscountProm());
+				buffer.putLong(bill.getTotalPrice());
+				putString(buffer, bill.getInNarrowCity());
+			} catch(BufferOverflowException exception) {
+				recordBuffer = ByteBuffer.allocate(recordBuffer.capacity() * 2);
+				continue;
+			}
+			buffer.flip();
+			ByteBuffer payload = buffer.duplicate();
+			payload.position(RECORD_HEADER_SIZE);
+			buffer.putInt(0, payload.remaining());
+			buffer.putInt(Integer.BYTES, checksum(payload));
+			return buffer;
+		}
+	}
+
+	/**
+	 * Decodes a bill from the payload of a record.
+	 *
+	 * @param payload  The payload.
+	 * @return The bill.
+	 */
+	private static Bill decode(ByteBuffer payload) {
+		String rentalDateTime = getString(payload);
+		String nameOfTheDriver = getString(payload);
+		String idOfVehicle = getString(payload);
+		int unitPrice = payload.getInt();
+		String startLocation = getString(payload);
+		String finishLocation = getString(payload);
+		int usageDurationInSeconds = payload.getInt();
+		String hasMalfunction = getString(payload);
+		String hasPromotion = getString(payload);
+		long discount = payload.getLong();
+		long discountProm = payload.getLong();
+		long totalPrice = payload.getLong();
+		String inNarrowCity = getString(payload);
+		return new Bill(rentalDateTime, nameOfTheDriver, idOfVehicle, unitPrice, startLocation, finishLocation,
+				usageDurationInSeconds, hasMalfunction, hasPromotion, discount, discountProm, totalPrice, inNarrowCity);
+	}
+
+	/**
+	 * Writes a string as its UTF-8 length and bytes; {@code null} is written as length {@code -1}.
+	 *
+	 * @param buffer  The buffer.
+	 * @param value   The string.
+	 */
+	private static void putString(ByteBuffer buffer, String value) {
+		if(value == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Reads a string written by {@link #putString(ByteBuffer, String)}.
+	 *
+	 * @param buffer  The buffer.
+	 * @return The string.
+	 */
+	private static String getString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if(length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Buffers an index entry, writing the buffer when it is full.
+	 *
+	 * @param name     The invoice file name.
+	 * @param segment  The number of the segment.
+	 * @param offset   The offset of the record in the segment.
+	 * @throws IOException  If the index can't be written.
+	 */
+	private void writeIndexEntry(String name, int segment, long offset) throws IOException {
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		if(indexBuffer.remaining() < INDEX_HEADER_SIZE + bytes.length) {
+			flushIndex();
+		}
+		indexBuffer.putInt(segment);
+		indexBuffer.putLong(offset);
+		indexBuffer.putShort((short) bytes.length);
+		indexBuffer.put(bytes);
+	}
+
+	/**
+	 * Writes the buffered index entries.
+	 *
+	 * @throws IOException  If the index can't be written.
+	 */
+	private void flushIndex() throws IOException {
+		indexBuffer.flip();
+		while(indexBuffer.hasRemaining()) {
+			indexChannel.write(indexBuffer);
+		}
+		indexBuffer.clear();
+	}
+
+	/**
+	 * Reads bytes from the channel until the buffer is full.
+	 *
+	 * @param channel   The channel.
+	 * @param buffer    The buffer.
+	 * @param position  The position in the file.
+	 * @throws IOException  If the end of the file is reached first.
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while(buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if(read < 0) {
+				throw new IOException("Unexpected end of the invoice journal.");
+			}
+			position += read;
+		}
+	}
+
+	/**
+	 * Returns the path of the segment.
+	 *
+	 * @param segment  The number of the segment.
+	 * @return The path of the segment file.
+	 */
+	private Path segmentPath(int segment) {
+		return directory.resolve(String.format("%08d", segment) + SEGMENT_EXTENSION);
+	}
+
+	/**
+	 * Packs the segment and the offset into a location.
+	 *
+	 * @param segment  The number of the segment.
+	 * @param offset   The offset in the segment.
+	 * @return The location.
+	 */
+	private static long location(int segment, long offset) {
+		return ((long) segment << OFFSET_BITS) | offset;
+	}
+
+	/**
+	 * Returns the segment of the location.
+	 *
+	 * @param location  The location.
+	 * @return The number of the segment.
+	 */
+	private static int segmentOf(long location) {
+		return (int) (location >>> OFFSET_BITS);
+	}
+
+	/**
+	 * Returns the offset of the location.
+	 *
+	 * @param location  The location.
+	 * @return The offset in the segment.
+	 */
+	private static long offsetOf(long location) {
+		return location & ((1L << OFFSET_BITS) - 1);
+	}
+}
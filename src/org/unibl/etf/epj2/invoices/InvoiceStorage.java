@@ -0,0 +1,49 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.unibl.etf.epj2.rentals.TariffConfig;
+
+/**
+ * Decides how invoices are stored.
+ *
+ * @author Tamara Kosovac
+ */
+public enum InvoiceStorage {
+	/**
+	 * Every invoice is written to its own text file in the folder with bills.
+	 */
+	FILES,
+
+	/**
+	 * Invoices are appended to the {@link InvoiceJournal} in the folder with bills, and text files are rendered only
+	 * on demand.
+	 */
+	JOURNAL;
+
+	/**
+	 * The key of the storage mode in the properties file.
+	 */
+	public static final String INVOICE_STORAGE = "INVOICE_STORAGE";
+
+	/**
+	 * Returns the storage mode of the configuration.
+	 *
+	 * @param config  The configuration.
+	 * @return The storage mode, regardless of case, or {@link #FILES} if it isn't set or is unknown.
+	 */
+	public static InvoiceStorage of(TariffConfig config) {
+		return EnumSetting.parse(INVOICE_STORAGE, config.getValue(INVOICE_STORAGE), InvoiceStorage.class, FILES);
+	}
+
+	/**
+	 * Returns the journal directory for the configuration.
+	 *
+	 * @param config  The configuration.
+	 * @return The directory of the journal in the folder with bills.
+	 */
+	public static Path journalDirectory(TariffConfig config) {
+		return Paths.get(config.getFolderName(), InvoiceJournal.FOLDER_NAME);
+	}
+}
@@ -0,0 +1,193 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.unibl.etf.epj2.rentals.RentalCalculator;
+import org.unibl.etf.epj2.rentals.TariffConfig;
+
+/**
+ * Watermark of the stored invoices that reports are read from.
+ * <p>The version is the number of files, their total size and the latest modification time of the source that
+ * {@link org.unibl.etf.epj2.reports.Report} reads: the current {@link BillRecords} file, the segments of the
+ * {@link InvoiceJournal} or the invoice text files, together with the number of batches written by the
+ * {@link InvoiceWriter}s of this application. It is calculated from file metadata only, so it is cheap compared to
+ * reading the invoices. It changes whenever invoices are written, even when the modification time of the files
+ * doesn't.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public final class InvoiceStoreVersion {
+	/**
+	 * Number of batches written by the invoice writers of the application.
+	 */
+	private static final AtomicLong WRITE_COUNT = new AtomicLong();
+
+	/**
+	 * Number of files.
+	 */
+	private final long fileCount;
+
+	/**
+	 * Total size of the files in bytes.
+	 */
+	private final long totalSize;
+
+	/**
+	 * The latest modification time of the files, in milliseconds since the epoch.
+	 */
+	private final long lastModified;
+
+	/**
+	 * Number of batches written by the invoice writers of the application.
+	 */
+	private final long writeCount;
+
+	/**
+	 * Constructs a version.
+	 *
+	 * @param fileCount     Number of files.
+	 * @param totalSize     Total size of the files in bytes.
+	 * @param lastModified  The latest modification time of the files.
+	 * @param writeCount    Number of batches written by the invoice writers.
+	 */
+	private InvoiceStoreVersion(long fileCount, long totalSize, long lastModified, long writeCount) {
+		this.fileCount = fileCount;
+		this.totalSize = totalSize;
+		this.lastModified = lastModified;
+		this.writeCount = writeCount;
+	}
+
+	/**
+	 * Counts a batch of invoices written by an {@link InvoiceWriter}.
+	 */
+	static void recordWrite() {
+		WRITE_COUNT.incrementAndGet();
+	}
+
+	/**
+	 * Returns the current version of the invoices stored for the configuration.
+	 *
+	 * @param config  The configuration.
+	 * @return The version.
+	 */
+	public static InvoiceStoreVersion of(TariffConfig config) {
+		long writeCount = WRITE_COUNT.get();
+		InvoiceStoreVersion invoices = ofInvoices(config, writeCount);
+		Path recordsFile = BillRecords.currentFile(config, invoices.lastModified);
+		if(recordsFile == null) {
+			return invoices;
+		}
+		File records = recordsFile.toFile();
+		return new InvoiceStoreVersion(1, records.length(), records.lastModified(), writeCount);
+	}
+
+	/**
+	 * Returns the current version of the journal segments or the invoice text files stored for the configuration,
+	 * ignoring the bill records.
+	 *
+	 * @param config  The configuration.
+	 * @return The version.
+	 */
+	static InvoiceStoreVersion ofInvoices(TariffConfig config) {
+		return ofInvoices(config, WRITE_COUNT.get());
+	}
+
+	/**
+	 * Returns the current version of the journal segments or the invoice text files stored for the configuration.
+	 *
+	 * @param config      The configuration.
+	 * @param writeCount  Number of batches written by the invoice writers.
+	 * @return The version.
+	 */
+	private static InvoiceStoreVersion ofInvoices(TariffConfig config, long writeCount) {
+		if(InvoiceStorage.of(config) == InvoiceStorage.JOURNAL) {
+			return of(InvoiceStorage.journalDirectory(config), file -> file.getName().endsWith(InvoiceJournal.SEGMENT_EXTENSION), writeCount);
+		}
+		return of(Paths.get(config.getFolderName()), file -> file.getName().endsWith(RentalCalculator.TXT), writeCount);
+	}
+
+	/**
+	 * Calculates the version of the matching files in a directory.
+	 *
+	 * @param directory   The directory.
+	 * @param filter      The filter of the files.
+	 * @param writeCount  Number of batches written by the invoice writers.
+	 * @return The version, with no files if the directory doesn't exist.
+	 */
+	private static InvoiceStoreVersion of(Path directory, FileFilter filter, long writeCount) {
+		File[] files = directory.toFile().listFiles(filter);
+		long totalSize = 0L;
+		long lastModified = 0L;
+		if(files == null) {
+			return new InvoiceStoreVersion(0, totalSize, lastModified, writeCount);
+		}
+		for(File file : files) {
+			totalSize += file.length();
+			lastModified = Math.max(lastModified, file.lastModified());
+		}
+		return new InvoiceStoreVersion(files.length, totalSize, lastModified, writeCount);
+	}
+
+	/**
+	 * Returns the number of files.
+	 *
+	 * @return fileCount  The number of files.
+	 */
+	public long getFileCount() {
+		return fileCount;
+	}
+
+	/**
+	 * Returns the total size of the files.
+	 *
+	 * @return totalSize  The total size in bytes.
+	 */
+	public long getTotalSize() {
+		return totalSize;
+	}
+
+	/**
+	 * Returns the latest modification time of the files.
+	 *
+	 * @return lastModified  The latest modification time in milliseconds since the epoch.
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Returns the number of batches written by the invoice writers of the application.
+	 *
+	 * @return writeCount  The number of batches.
+	 */
+	public long getWriteCount() {
+		return writeCount;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if(this == object) {
+			return true;
+		}
+		if(!(object instanceof InvoiceStoreVersion)) {
+			return false;
+		}
+		InvoiceStoreVersion other = (InvoiceStoreVersion) object;
+		return fileCount == other.fileCount && totalSize == other.totalSize && lastModified == other.lastModified
+				&& writeCount == other.writeCount;
+	}
+
+	@Override
+	public int hashCode() {
+		return ((Long.hashCode(fileCount) * 31 + Long.hashCode(totalSize)) * 31 + Long.hashCode(lastModified)) * 31 + Long.hashCode(writeCount);
+	}
+
+	@Override
+	public String toString() {
+		return "InvoiceStoreVersion [fileCount=" + fileCount + ", totalSize=" + totalSize + ", lastModified=" + lastModified + ", writeCount=" + writeCount + "]";
+	}
+}
@@ -0,0 +1,624 @@
+package org.unibl.etf.epj2.invoices;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.unibl.etf.epj2.rentals.TariffConfig;
+import org.unibl.etf.epj2.reports.Bill;
+
+/**
+ * Writes invoices of bills on a background thread.
+ * <p>Bills are put into a bounded queue and returned from immediately; the writer thread takes them in batches of
+ * up to {@link #getBatchSize()} bills. Depending on the {@link InvoiceStorage}, it renders them with
+ * {@link InvoiceFormat} into one text file per bill, or appends them to an {@link InvoiceJournal}. When the
+ * invoices are forced to the storage device is decided by the {@link FsyncPolicy}. Next to the invoices, each bill
+ * can also be appended to a {@link BillRecords} file that reports read without parsing text.</p>
+ * <p>The queue gives back-pressure: {@link #offer(Bill)} never waits and returns {@code false} when the queue is
+ * full, so threads that must not be slowed down by the disk can decide what to do, while {@link #submit(Bill)}
+ * waits for free space. {@link #write(Bill, OverflowPolicy)} makes the choice explicit: with
+ * {@link OverflowPolicy#SPILL} a bill that doesn't fit into the queue is kept in an unbounded overflow list instead,
+ * so the caller never waits. {@link #getPendingCount()}, {@link #getRemainingCapacity()} and
+ * {@link #getSpilledCount()} show how far behind the writer is.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class InvoiceWriter {
+	/**
+	 * The key of the queue capacity in the properties file.
+	 */
+	public static final String INVOICE_QUEUE_CAPACITY = "INVOICE_QUEUE_CAPACITY";
+
+	/**
+	 * The key of the batch size in the properties file.
+	 */
+	public static final String INVOICE_BATCH_SIZE = "INVOICE_BATCH_SIZE";
+
+	/**
+	 * The key of the fsync policy in the properties file.
+	 */
+	public static final String INVOICE_FSYNC = "INVOICE_FSYNC";
+
+	/**
+	 * The default capacity of the queue.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	/**
+	 * The default number of bills written in one batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	/**
+	 * How long the writer thread waits for a bill before it checks whether the writer was closed, in milliseconds.
+	 */
+	private static final long POLL_TIMEOUT = 100;
+
+	/**
+	 * The folder where invoices are written.
+	 */
+	private final Path folder;
+
+	/**
+	 * The queue of bills waiting to be written.
+	 */
+	private final BlockingQueue<Bill> queue;
+
+	/**
+	 * Bills that didn't fit into the queue, written after the bills of the queue.
+	 */
+	private final Queue<Bill> overflow = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The maximum number of bills written in one batch.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The fsync policy.
+	 */
+	private final FsyncPolicy fsyncPolicy;
+
+	/**
+	 * The storage mode.
+	 */
+	private final InvoiceStorage storage;
+
+	/**
+	 * The journal, used only by the writer thread, or {@code null} if invoices are written as text files.
+	 */
+	private InvoiceJournal journal;
+
+	/**
+	 * The bill records file, or {@code null} if bill records aren't written.
+	 */
+	private final Path recordsFile;
+
+	/**
+	 * The writer of bill records, used only by the writer thread, or {@code null} if bill records aren't written.
+	 */
+	private BillRecordWriter records;
+
+	/**
+	 * The thread that writes the invoices.
+	 */
+	private final Thread writerThread;
+
+	/**
+	 * Lock guarding {@link #pending}, used to wait until all invoices are written.
+	 */
+	private final Object pendingLock = new Object();
+
+	/**
+	 * Number of accepted bills whose invoices aren't written yet.
+	 */
+	private long pending;
+
+	/**
+	 * Number of bills that were refused by {@link #offer(Bill)} because the queue was full.
+	 */
+	private long rejected;
+
+	/**
+	 * Number of bills that were put into the overflow list because the queue was full.
+	 */
+	private long spilled;
+
+	/**
+	 * Whether the writer was closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Constructs a writer of text files and starts its thread.
+	 *
+	 * @param folder         The folder where invoices are written.
+	 * @param queueCapacity  The capacity of the queue.
+	 * @param batchSize      The maximum number of bills written in one batch.
+	 * @param fsyncPolicy    The fsync policy.
+	 */
+	public InvoiceWriter(Path folder, int queueCapacity, int batchSize, FsyncPolicy fsyncPolicy) {
+		this(folder, queueCapacity, batchSize, fsyncPolicy, InvoiceStorage.FILES);
+	}
+
+	/**
+	 * Constructs a writer and starts its thread.
+	 *
+	 * @param folder         The folder where invoices are written.
+	 * @param queueCapacity  The capacity of the queue.
+	 * @param batchSize      The maximum number of bills written in one batch.
+	 * @param fsyncPolicy    The fsync policy.
+	 * @param storage        The storage mode.
+	 */
+	public InvoiceWriter(Path folder, int queueCapacity, int batchSize, FsyncPolicy fsyncPolicy, InvoiceStorage storage) {
+		this(folder, queueCapacity, batchSize, fsyncPolicy, storage, null);
+	}
+
+	/**
+	 * Constructs a writer that also writes bill records and starts its thread.
+	 *
+	 * @param folder         The folder where invoices are written.
+	 * @param queueCapacity  The capacity of the queue.
+	 * @param batchSize      The maximum number of bills written in one batch.
+	 * @param fsyncPolicy    The fsync policy.
+	 * @param storage        The storage mode.
+	 * @param recordsFile    The bill records file of a new generation, or {@code null} to write no records.
+	 */
+	public InvoiceWriter(Path folder, int queueCapacity, int batchSize, FsyncPolicy fsyncPolicy, InvoiceStorage storage, Path recordsFile) {
+		if(queueCapacity < 1 || batchSize < 1) {
+			throw new IllegalArgumentException("Queue capacity and batch size must be positive.");
+		}
+		this.folder = folder;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.fsyncPolicy = fsyncPolicy;
+		this.storage = storage;
+		this.recordsFile = recordsFile;
+		this.writerThread = new Thread(this::writeLoop, "invoice-writer");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	/**
+	 * Creates a writer for the folder and the settings of the configuration.
+	 * <p>Missing or invalid settings fall back to {@link #DEFAULT_QUEUE_CAPACITY}, {@link #DEFAULT_BATCH_SIZE},
+	 * {@link FsyncPolicy#NEVER} and {@link InvoiceStorage#FILES}. Bill records are written unless
+	 * {@link BillRecords#isEnabled(TariffConfig)} is {@code false}.</p>
+	 *
+	 * @param config  The configuration.
+	 * @return The started writer.
+	 */
+	public static InvoiceWriter create(TariffConfig config) {
+		int queueCapacity = parsePositiveInt(config.getValue(INVOICE_QUEUE_CAPACITY), DEFAULT_QUEUE_CAPACITY);
+		int batchSize = parsePositiveInt(config.getValue(INVOICE_BATCH_SIZE), DEFAULT_BATCH_SIZE);
+		FsyncPolicy fsyncPolicy = EnumSetting.parse(INVOICE_FSYNC, config.getValue(INVOICE_FSYNC), FsyncPolicy.class, FsyncPolicy.NEVER);
+		Path recordsFile = BillRecords.isEnabled(config) ? BillRecords.nextFile(config) : null;
+		return new InvoiceWriter(Paths.get(config.getFolderName()), queueCapacity, batchSize, fsyncPolicy, InvoiceStorage.of(config), recordsFile);
+	}
+
+	/**
+	 * Parses a positive integer setting.
+	 *
+	 * @param value         The value of the setting, or {@code null}.
+	 * @param defaultValue  The value used if the setting is missing or invalid.
+	 * @return The parsed value.
+	 */
+	private static int parsePositiveInt(String value, int defaultValue) {
+		if(value == null) {
+			return defaultValue;
+		}
+		try {
+			int parsed = Integer.parseInt(value.trim());
+			return parsed > 0 ? parsed : defaultValue;
+		} catch(NumberFormatException exception) {
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Queues the bill if there is free space, without waiting.
+	 *
+	 * @param bill  The bill to write.
+	 * @return {@code true} if the bill was queued, {@code false} if the queue is full
+	 * @throws IllegalStateException  If the writer is closed.
+	 */
+	public boolean offer(Bill bill) {
+		acquire();
+		if(queue.offer(bill)) {
+			return true;
+		}
+		synchronized(pendingLock) {
+			pending--;
+			rejected++;
+			pendingLock.notifyAll();
+		}
+		return false;
+	}
+
+	/**
+	 * Queues the bill, waiting for free space if the queue is full.
+	 *
+	 * @param bill  The bill to write.
+	 * @throws InterruptedException  If the thread is interrupted while waiting.
+	 * @throws IllegalStateException  If the writer is closed.
+	 */
+	public void submit(Bill bill) throws InterruptedException {
+		acquire();
+		try {
+			queue.put(bill);
+		} catch(InterruptedException exception) {
+			synchronized(pendingLock) {
+				pending--;
+				pendingLock.notifyAll();
+			}
+			throw exception;
+		}
+	}
+
+	/**
+	 * Queues the bill, deciding with the policy what happens if the queue is full.
+	 *
+	 * @param bill    The bill to write.
+	 * @param policy  What to do if the queue is full.
+	 * @throws InterruptedException  If the thread is interrupted while waiting with {@link OverflowPolicy#WAIT}.
+	 * @throws IllegalStateException  If the writer is closed.
+	 */
+	public void write(Bill bill, OverflowPolicy policy) throws InterruptedException {
+		if(policy == OverflowPolicy.WAIT) {
+			submit(bill);
+			return;
+		}
+		acquire();
+		if(!queue.offer(bill)) {
+			overflow.add(bill);
+			synchronized(pendingLock) {
+				spilled++;
+			}
+		}
+	}
+
+	/**
+	 * Waits until all queued invoices are written.
+	 *
+	 * @throws InterruptedException  If the thread is interrupted while waiting.
+	 */
+	public void flush() throws InterruptedException {
+		synchronized(pendingLock) {
+			while(pending > 0) {
+				pendingLock.wait();
+			}
+		}
+	}
+
+	/**
+	 * Writes all queued invoices and stops the writer thread.
+	 * <p>Bills can't be queued after the writer is closed.</p>
+	 *
+	 * @throws InterruptedException  If the thread is interrupted while waiting for the writer thread.
+	 */
+	public void close() throws InterruptedException {
+		closed = true;
+		writerThread.join();
+	}
+
+	/**
+	 * Returns the number of accepted bills whose invoices aren't written yet.
+	 *
+	 * @return The number of pending bills.
+	 */
+	public long getPendingCount() {
+		synchronized(pendingLock) {
+			return pending;
+		}
+	}
+
+	/**
+	 * Returns the number of bills refused by {@link #offer(Bill)} because the queue was full.
+	 *
+	 * @return The number of rejected bills.
+	 */
+	public long getRejectedCount() {
+		synchronized(pendingLock) {
+			return rejected;
+		}
+	}
+
+	/**
+	 * Returns the number of bills put into the overflow list by {@link #write(Bill, OverflowPolicy)} because the
+	 * queue was full.
+	 *
+	 * @return The number of spilled bills.
+	 */
+	public long getSpilledCount() {
+		synchronized(pendingLock) {
+			return spilled;
+		}
+	}
+
+	/**
+	 * Returns the number of bills that can be queued without waiting.
+	 *
+	 * @return The remaining capacity of the queue.
+	 */
+	public int getRemainingCapacity() {
+		return queue.remainingCapacity();
+	}
+
+	/**
+	 * Returns the maximum number of bills written in one batch.
+	 *
+	 * @return batchSize  The batch size.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Returns the storage mode.
+	 *
+	 * @return storage  The storage mode.
+	 */
+	public InvoiceStorage getStorage() {
+		return storage;
+	}
+
+	/**
+	 * Returns the fsync policy.
+	 *
+	 * @return fsyncPolicy  The fsync policy.
+	 */
+	public FsyncPolicy getFsyncPolicy() {
+		return fsyncPolicy;
+	}
+
+	/**
+	 * Counts a new pending bill, or throws an exception if the writer is closed.
+	 * <p>The bill is counted before the check, so the writer thread never stops while a bill is being queued.</p>
+	 */
+	private void acquire() {
+		synchronized(pendingLock) {
+			pending++;
+		}
+		if(closed) {
+			synchronized(pendingLock) {
+				pending--;
+				pendingLock.notifyAll();
+			}
+			throw new IllegalStateException("Invoice writer is closed.");
+		}
+	}
+
+	/**
+	 * Checks whether the writer thread can stop.
+	 *
+	 * @return {@code true} if the writer is closed and no bill is pending, {@code false} otherwise
+	 */
+	private boolean isFinished() {
+		if(!closed) {
+			return false;
+		}
+		synchronized(pendingLock) {
+			return pending == 0;
+		}
+	}
+
+	/**
+	 * Takes bills from the queue in batches and writes them until the writer is closed and the queue is empty.
+	 * <p>If the journal can't be opened, invoices are written as text files. Once the bill records file of the new
+	 * generation is created, older generations are deleted. If it can't be created, no records are written and
+	 * reports read the invoices, since the records of a previous run are older than them.</p>
+	 */
+	private void writeLoop() {
+		List<Bill> batch = new ArrayList<>(batchSize);
+		StringBuilder builder = new StringBuilder(512);
+		try {
+			Files.createDirectories(folder);
+			if(storage == InvoiceStorage.JOURNAL) {
+				journal = InvoiceJournal.open(folder.resolve(InvoiceJournal.FOLDER_NAME));
+			}
+		} catch(IOException exception) {
+			exception.printStackTrace();
+		}
+		if(recordsFile != null) {
+			try {
+				records = new BillRecordWriter(recordsFile);
+				BillRecords.deleteOlder(recordsFile);
+			} catch(IOException exception) {
+				exception.printStackTrace();
+				try {
+					BillRecords.delete(recordsFile);
+				} catch(IOException deleteException) {
+					deleteException.printStackTrace();
+				}
+			}
+		}
+		try {
+			writeBatches(batch, builder);
+		} finally {
+			if(records != null) {
+				try {
+					records.close();
+				} catch(IOException exception) {
+					exception.printStackTrace();
+				}
+			}
+			if(journal != null) {
+				try {
+					journal.close();
+				} catch(IOException exception) {
+					exception.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes batches of bills until the writer is closed and the queue and the overflow list are empty.
+	 * <p>A batch takes the bills of the queue first and fills up with the bills of the overflow list.</p>
+	 * <p>Every batch is counted in the {@link InvoiceStoreVersion}, because the stored invoices changed.</p>
+	 *
+	 * @param batch    Reusable list for the batch.
+	 * @param builder  Reusable builder for the invoice text.
+	 */
+	private void writeBatches(List<Bill> batch, StringBuilder builder) {
+		while(true) {
+			queue.drainTo(batch, batchSize);
+			while(batch.size() < batchSize) {
+				Bill bill = overflow.poll();
+				if(bill == null) {
+					break;
+				}
+				batch.add(bill);
+			}
+			if(batch.isEmpty()) {
+				Bill first;
+				try {
+					first = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+				} catch(InterruptedException exception) {
+					first = queue.poll();
+				}
+				if(first == null) {
+					if(isFinished()) {
+						return;
+					}
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+			}
+			if(journal != null) {
+				appendBatch(batch);
+			} else {
+				writeBatch(batch, builder);
+			}
+			if(records != null) {
+				appendRecords(batch);
+			}
+			InvoiceStoreVersion.recordWrite();
+			synchronized(pendingLock) {
+				pending -= batch.size();
+				pendingLock.notifyAll();
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Appends a batch of bills to the journal.
+	 * <p>With {@link FsyncPolicy#BATCH} the journal is forced once after the whole batch.</p>
+	 *
+	 * @param batch  The bills to append.
+	 */
+	private void appendBatch(List<Bill> batch) {
+		try {
+			for(Bill bill : batch) {
+				journal.append(bill);
+				if(fsyncPolicy == FsyncPolicy.EVERY_INVOICE) {
+					journal.force();
+				}
+			}
+			if(fsyncPolicy == FsyncPolicy.BATCH) {
+				journal.force();
+			}
+		} catch(IOException exception) {
+			exception.printStackTrace();
+		}
+	}
+
+	/**
+	 * Appends the records of a batch of bills to the bill records file.
+	 * <p>Records are forced once per batch with {@link FsyncPolicy#BATCH} and {@link FsyncPolicy#EVERY_INVOICE},
+	 * since they can always be rebuilt from the invoices.</p>
+	 *
+	 * @param batch  The bills to append.
+	 */
+	private void appendRecords(List<Bill> batch) {
+		try {
+			for(Bill bill : batch) {
+				records.append(bill);
+			}
+			if(fsyncPolicy != FsyncPolicy.NEVER) {
+				records.force();
+			}
+		} catch(IOException exception) {
+			exception.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes the invoices of a batch of bills as text files.
+	 * <p>With {@link FsyncPolicy#BATCH} the files are kept open until the whole batch is written and then forced
+	 * together.</p>
+	 *
+	 * @param batch    The bills to write.
+	 * @param builder  Reusable builder for the invoice text.
+	 */
+	private void writeBatch(List<Bill> batch, StringBuilder builder) {
+		List<FileChannel> unforced = fsyncPolicy == FsyncPolicy.BATCH ? new ArrayList<>(batch.size()) : null;
+		for(Bill bill : batch) {
+			builder.setLength(0);
+			InvoiceFormat.render(bill, builder);
+			Path file = folder.resolve(InvoiceFormat.fileName(bill) + InvoiceFormat.TXT);
+			FileChannel channel = null;
+			try {
+				channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+				ByteBuffer buffer = Charset.defaultCharset().encode(builder.toString());
+				while(buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				if(fsyncPolicy == FsyncPolicy.EVERY_INVOICE) {
+					channel.force(false);
+				}
+				if(unforced != null) {
+					unforced.add(channel);
+					channel = null;
+				}
+			} catch(IOException exception) {
+				exception.printStackTrace();
+			} finally {
+				closeQuietly(channel, false);
+			}
+		}
+		if(unforced != null) {
+			for(FileChannel channel : unforced) {
+				closeQuietly(channel, true);
+			}
+		}
+	}
+
+	/**
+	 * Closes the channel, forcing it first if requested.
+	 *
+	 * @param channel  The channel, or {@code null}.
+	 * @param force    Whether the channel is forced before it is closed.
+	 */
+	private static void closeQuietly(FileChannel channel, boolean force) {
+		if(channel == null) {
+			return;
+		}
+		try {
+			if(force) {
+				channel.force(false);
+			}
+		} catch(IOException exception) {
+			exception.printStackTrace();
+		}
+		try {
+			channel.close();
+		} catch(IOException exception) {
+			exception.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package org.unibl.etf.epj2.invoices;
+
+/**
+ * Decides what {@link InvoiceWriter#write(org.unibl.etf.epj2.reports.Bill, OverflowPolicy)} does when the queue of
+ * the writer is full.
+ *
+ * @author Tamara Kosovac
+ */
+public enum OverflowPolicy {
+	/**
+	 * The caller waits for free space in the queue, so a writer that falls behind slows the caller down. Meant for
+	 * batch and headless runs that accept back-pressure.
+	 */
+	WAIT,
+
+	/**
+	 * The bill is kept in an unbounded overflow list that the writer thread drains after the queue, so the caller
+	 * never waits for the disk. Meant for threads that pace a simulation.
+	 */
+	SPILL
+}
@@ -0,0 +1,122 @@
+package org.unibl.etf.epj2.io;
+
+/**
+ * A part of a CSV file, aligned to line boundaries, together with the handler that parsed it.
+ * <p>Chunks are created by {@link ParallelCsvReader}. Line numbers seen by the handler are relative to the chunk,
+ * and {@link #toFileLineNumber(long)} converts them to line numbers in the whole file.</p>
+ *
+ * @param <H>  The type of the row handler.
+ * @author Tamara Kosovac
+ */
+public class CsvChunk<H extends CsvRowHandler> {
+	/**
+	 * Offset of the first byte of the chunk in the file.
+	 */
+	private final long start;
+
+	/**
+	 * Offset of the first byte after the chunk.
+	 */
+	private final long end;
+
+	/**
+	 * The handler that received the rows of the chunk.
+	 */
+	private final H handler;
+
+	/**
+	 * Number of lines in the chunk.
+	 */
+	private long lineCount;
+
+	/**
+	 * Number of the first line of the chunk in the whole file.
+	 */
+	private long firstLineNumber = 1;
+
+	/**
+	 * Constructs a new chunk.
+	 *
+	 * @param start    Offset of the first byte of the chunk.
+	 * @param end      Offset of the first byte after the chunk.
+	 * @param handler  The handler that receives the rows of the chunk.
+	 */
+	CsvChunk(long start, long end, H handler) {
+		this.start = start;
+		this.end = end;
+		this.handler = handler;
+	}
+
+	/**
+	 * Returns the offset of the first byte of the chunk in the file.
+	 *
+	 * @return start  The start offset.
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the offset of the first byte after the chunk.
+	 *
+	 * @return end  The end offset.
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * Returns the handler that received the rows of the chunk.
+	 *
+	 * @return handler  The row handler.
+	 */
+	public H getHandler() {
+		return handler;
+	}
+
+	/**
+	 * Returns the number of lines in the chunk.
+	 *
+	 * @return lineCount  The number of lines.
+	 */
+	public long getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * Returns the number of the first line of the chunk in the whole file.
+	 *
+	 * @return firstLineNumber  The number of the first line, starting from one.
+	 */
+	public long getFirstLineNumber() {
+		return firstLineNumber;
+	}
+
+	/**
+	 * Converts a line number seen by the handler into a line number in the whole file.
+	 *
+	 * @param chunkLineNumber  The line number relative to the chunk, starting from one.
+	 * @return The line number in the whole file.
+	 */
+	public long toFileLineNumber(long chunkLineNumber) {
+		return firstLineNumber + chunkLineNumber - 1;
+	}
+
+	/**
+	 * Sets the number of lines in the chunk.
+	 *
+	 * @param lineCount  The number of lines.
+	 */
+	void setLineCount(long lineCount) {
+		this.lineCount = lineCount;
+	}
+
+	/**
+	 * Sets the number of the first line of the chunk in the whole file.
+	 *
+	 * @param firstLineNumber  The number of the first line.
+	 */
+	void setFirstLineNumber(long firstLineNumber) {
+		this.firstLineNumber = firstLineNumber;
+	}
+}
@@ -0,0 +1,260 @@
+package org.unibl.etf.epj2.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming, byte level CSV parser that follows RFC 4180.
+ * <p>The parser is fed with arbitrary chunks of bytes and calls the {@link CsvRowHandler} for every complete row.
+ * Fields are separated by commas and may be quoted, in which case they can contain commas, line breaks and escaped
+ * quotes ({@code ""}). Both {@code LF} and {@code CRLF} line endings are supported, empty lines are skipped and a
+ * UTF-8 byte order mark at the beginning of the input is ignored.</p>
+ * <p>A row may be split between two chunks, so the same parser has to be used for the whole input, and
+ * {@link #finish()} has to be called after the last chunk.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class CsvParser {
+	/**
+	 * Separator between fields.
+	 */
+	public static final byte SEPARATOR = ',';
+
+	/**
+	 * Character used to quote fields.
+	 */
+	public static final byte QUOTE = '"';
+
+	/**
+	 * Line feed character.
+	 */
+	private static final byte LF = '\n';
+
+	/**
+	 * Carriage return character.
+	 */
+	private static final byte CR = '\r';
+
+	/**
+	 * The UTF-8 byte order mark.
+	 */
+	private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+	/**
+	 * State at the beginning of a field.
+	 */
+	private static final int FIELD_START = 0;
+
+	/**
+	 * State inside a field that isn't quoted.
+	 */
+	private static final int UNQUOTED = 1;
+
+	/**
+	 * State inside a quoted field.
+	 */
+	private static final int QUOTED = 2;
+
+	/**
+	 * State after a quote inside a quoted field, which either closes the field or escapes another quote.
+	 */
+	private static final int QUOTE_IN_QUOTED = 3;
+
+	/**
+	 * The handler that receives parsed rows.
+	 */
+	private final CsvRowHandler handler;
+
+	/**
+	 * The row that is being parsed.
+	 */
+	private final CsvRow row = new CsvRow();
+
+	/**
+	 * The current state of the parser.
+	 */
+	private int state = FIELD_START;
+
+	/**
+	 * Offset in the row data where the current field starts.
+	 */
+	private int fieldStart;
+
+	/**
+	 * The number of the current line, starting from one.
+	 */
+	private long lineNumber;
+
+	/**
+	 * Number of bytes of the byte order mark that were matched at the beginning of the input.
+	 */
+	private int bomMatched;
+
+	/**
+	 * Indicates whether the beginning of the input is still being checked for the byte order mark.
+	 */
+	private boolean checkingBom = true;
+
+	/**
+	 * Constructs a parser that sends rows to the specified handler.
+	 *
+	 * @param handler  The handler that receives parsed rows.
+	 */
+	public CsvParser(CsvRowHandler handler) {
+		this(handler, 1);
+	}
+
+	/**
+	 * Constructs a parser that sends rows to the specified handler, for input that starts at the given line.
+	 *
+	 * @param handler    The handler that receives parsed rows.
+	 * @param firstLine  The number of the first line of the input.
+	 */
+	public CsvParser(CsvRowHandler handler, long firstLine) {
+		this.handler = handler;
+		this.lineNumber = firstLine;
+		this.row.reset(firstLine);
+	}
+
+	/**
+	 * Parses all remaining bytes of the buffer.
+	 * <p>The position of the buffer is moved to its limit.</p>
+	 *
+	 * @param buffer  The buffer with the next chunk of the input.
+	 */
+	public void feed(ByteBuffer buffer) {
+		int position = buffer.position();
+		int limit = buffer.limit();
+		if(checkingBom) {
+			while(position < limit && bomMatched < BOM.length && buffer.get(position) == BOM[bomMatched]) {
+				position++;
+				bomMatched++;
+			}
+			if(bomMatched == BOM.length || position < limit) {
+				checkingBom = false;
+				if(bomMatched < BOM.length) {
+					for(int i = 0; i < bomMatched; i++) {
+						accept(BOM[i]);
+					}
+				}
+			}
+		}
+		for(int i = position; i < limit; i++) {
+			accept(buffer.get(i));
+		}
+		buffer.position(limit);
+	}
+
+	/**
+	 * Parses the bytes in the specified range of the array.
+	 *
+	 * @param bytes   The array with the next chunk of the input.
+	 * @param offset  The offset of the first byte.
+	 * @param length  The number of bytes.
+	 */
+	public void feed(byte[] bytes, int offset, int length) {
+		feed(ByteBuffer.wrap(bytes, offset, length));
+	}
+
+	/**
+	 * Finishes parsing, sending the last row to the handler if the input doesn't end with a line break.
+	 */
+	public void finish() {
+		if(checkingBom) {
+			checkingBom = false;
+			for(int i = 0; i < bomMatched; i++) {
+				accept(BOM[i]);
+			}
+		}
+		if(state != FIELD_START || row.fieldCount > 0 || row.length > 0) {
+			endRow();
+		}
+	}
+
+	/**
+	 * Returns the number of the line the parser is currently on.
+	 *
+	 * @return lineNumber  The current line number.
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Processes a single byte of the input.
+	 *
+	 * @param value  The byte to process.
+	 */
+	private void accept(byte value) {
+		switch(state) {
+		case FIELD_START:
+			if(value == QUOTE) {
+				state = QUOTED;
+			} else if(value == SEPARATOR) {
+				row.endField(fieldStart);
+				fieldStart = row.length;
+			} else if(value == LF) {
+				endRow();
+			} else if(value != CR) {
+				row.append(value);
+				state = UNQUOTED;
+			}
+			break;
+		case UNQUOTED:
+			if(value == SEPARATOR) {
+				endField();
+			} else if(value == LF) {
+				endRow();
+			} else if(value != CR) {
+				row.append(value);
+			}
+			break;
+		case QUOTED:
+			if(value == QUOTE) {
+				state = QUOTE_IN_QUOTED;
+			} else {
+				if(value == LF) {
+					lineNumber++;
+				}
+				row.append(value);
+			}
+			break;
+		default:
+			if(value == QUOTE) {
+				row.append(QUOTE);
+				state = QUOTED;
+			} else if(value == SEPARATOR) {
+				endField();
+			} else if(value == LF) {
+				endRow();
+			} else if(value != CR) {
+				row.append(value);
+				state = UNQUOTED;
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Finishes the current field and starts a new one.
+	 */
+	private void endField() {
+		row.endField(fieldStart);
+		fieldStart = row.length;
+		state = FIELD_START;
+	}
+
+	/**
+	 * Finishes the current row, sends it to the handler and starts a new one.
+	 */
+	private void endRow() {
+		row.endField(fieldStart);
+		boolean emptyLine = row.fieldCount == 1 && row.length == 0 && state == FIELD_START;
+		if(!emptyLine) {
+			handler.handleRow(row);
+		}
+		lineNumber++;
+		row.reset(lineNumber);
+		fieldStart = 0;
+		state = FIELD_START;
+	}
+}
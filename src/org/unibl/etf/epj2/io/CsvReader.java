@@ -0,0 +1,49 @@
+package org.unibl.etf.epj2.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads CSV files in fixed size chunks and passes every row to a {@link CsvRowHandler}.
+ * <p>The file is read straight into a reusable byte buffer and parsed by {@link CsvParser}, without creating a
+ * string for every line. Files of at least {@link MappedCsvReader#MAPPED_THRESHOLD} bytes are read through
+ * {@link MappedCsvReader} instead.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class CsvReader {
+	/**
+	 * The size of the read buffer in bytes.
+	 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	private CsvReader() {
+	}
+
+	/**
+	 * Reads the whole CSV file and sends every row to the handler.
+	 *
+	 * @param path     The path of the CSV file.
+	 * @param handler  The handler that receives parsed rows.
+	 * @throws IOException  If the file can't be read.
+	 */
+	public static void read(Path path, CsvRowHandler handler) throws IOException {
+		CsvParser parser = new CsvParser(handler);
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if(channel.size() >= MappedCsvReader.MAPPED_THRESHOLD) {
+				MappedCsvReader.parseRange(channel, 0, channel.size(), parser);
+			} else {
+				ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+				while(channel.read(buffer) != -1) {
+					buffer.flip();
+					parser.feed(buffer);
+					buffer.clear();
+				}
+			}
+		}
+		parser.finish();
+	}
+}
@@ -0,0 +1,313 @@
+package org.unibl.etf.epj2.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A single row of a CSV file, as seen by a {@link CsvRowHandler}.
+ * <p>The row keeps the raw bytes of all fields (with quotes already removed) in one buffer, together with the start
+ * and end offset of every field. Numbers are parsed directly from the buffer, and strings are created only when
+ * {@link #getString(int)} is called.</p>
+ * <p>The parser reuses the same row object for every row, so it must not be kept after the callback returns.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class CsvRow {
+	/**
+	 * Separator between the two parts of a coordinate, for example {@code "7,8"}.
+	 */
+	public static final byte COORDINATE_SEPARATOR = ',';
+
+	/**
+	 * The initial number of fields the row can hold without growing.
+	 */
+	private static final int INITIAL_FIELDS = 16;
+
+	/**
+	 * The initial size of the data buffer in bytes.
+	 */
+	private static final int INITIAL_DATA = 256;
+
+	/**
+	 * Bytes of all fields of the row.
+	 */
+	byte[] data = new byte[INITIAL_DATA];
+
+	/**
+	 * Number of used bytes in {@link #data}.
+	 */
+	int length;
+
+	/**
+	 * Start offsets of the fields in {@link #data}.
+	 */
+	int[] fieldStarts = new int[INITIAL_FIELDS];
+
+	/**
+	 * End offsets (exclusive) of the fields in {@link #data}.
+	 */
+	int[] fieldEnds = new int[INITIAL_FIELDS];
+
+	/**
+	 * Number of fields in the row.
+	 */
+	int fieldCount;
+
+	/**
+	 * Number of the line in the file where the row starts, starting from one.
+	 */
+	long lineNumber;
+
+	/**
+	 * Returns the number of fields in the row.
+	 *
+	 * @return fieldCount  The number of fields.
+	 */
+	public int getFieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * Returns the number of the line in the file where the row starts.
+	 *
+	 * @return lineNumber  The line number, starting from one.
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Checks if the field is empty.
+	 *
+	 * @param field  The index of the field.
+	 * @return {@code true} if the field has no characters; {@code false} otherwise
+	 */
+	public boolean isEmpty(int field) {
+		checkField(field);
+		return fieldStarts[field] == fieldEnds[field];
+	}
+
+	/**
+	 * Returns the field as a string.
+	 *
+	 * @param field  The index of the field.
+	 * @return The value of the field.
+	 */
+	public String getString(int field) {
+		checkField(field);
+		return new String(data, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Checks if the field is equal to the specified ASCII text, without creating a string.
+	 *
+	 * @param field  The index of the field.
+	 * @param text   The text to compare with.
+	 * @return {@code true} if the field is equal to the text; {@code false} otherwise
+	 */
+	public boolean matches(int field, String text) {
+		checkField(field);
+		int start = fieldStarts[field];
+		int fieldLength = fieldEnds[field] - start;
+		if(fieldLength != text.length()) {
+			return false;
+		}
+		for(int i = 0; i < fieldLength; i++) {
+			if(data[start + i] != text.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the field contains the specified byte.
+	 *
+	 * @param field  The index of the field.
+	 * @param value  The byte to look for.
+	 * @return {@code true} if the field contains the byte; {@code false} otherwise
+	 */
+	public boolean contains(int field, byte value) {
+		return indexOf(field, value, fieldStarts[field]) != -1;
+	}
+
+	/**
+	 * Parses the field as an integer.
+	 *
+	 * @param field  The index of the field.
+	 * @return The integer value of the field.
+	 * @throws NumberFormatException  If the field isn't a valid integer.
+	 */
+	public int getInt(int field) {
+		checkField(field);
+		return parseInt(fieldStarts[field], fieldEnds[field]);
+	}
+
+	/**
+	 * Parses the field as an integer, returning the default value if the field is empty.
+	 *
+	 * @param field         The index of the field.
+	 * @param defaultValue  The value returned for an empty field.
+	 * @return The integer value of the field, or the default value.
+	 * @throws NumberFormatException  If the field isn't empty and isn't a valid integer.
+	 */
+	public int getInt(int field, int defaultValue) {
+		return isEmpty(field) ? defaultValue : getInt(field);
+	}
+
+	/**
+	 * Parses one part of a coordinate stored in a single field, for example {@code "7,8"}.
+	 *
+	 * @param field  The index of the field.
+	 * @param part   {@code 0} for the part before the separator, {@code 1} for the part after it.
+	 * @return The integer value of the part.
+	 * @throws NumberFormatException  If the field isn't a valid coordinate.
+	 */
+	public int getCoordinatePart(int field, int part) {
+		checkField(field);
+		int start = fieldStarts[field];
+		int end = fieldEnds[field];
+		int separator = indexOf(field, COORDINATE_SEPARATOR, start);
+		if(separator == -1) {
+			throw new NumberFormatException("Invalid coordinate: \"" + getString(field) + "\"");
+		}
+		return part == 0 ? parseInt(start, separator) : parseInt(separator + 1, end);
+	}
+
+	/**
+	 * Returns the row in the CSV format, with every field quoted.
+	 *
+	 * @return A string representation of the row.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		for(int i = 0; i < fieldCount; i++) {
+			if(i > 0) {
+				stringBuilder.append(',');
+			}
+			stringBuilder.append('"').append(getString(i).replace("\"", "\"\"")).append('"');
+		}
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Clears the row before parsing the next one.
+	 *
+	 * @param lineNumber  The number of the line where the next row starts.
+	 */
+	void reset(long lineNumber) {
+		this.length = 0;
+		this.fieldCount = 0;
+		this.lineNumber = lineNumber;
+	}
+
+	/**
+	 * Appends a byte to the current field.
+	 *
+	 * @param value  The byte to append.
+	 */
+	void append(byte value) {
+		if(length == data.length) {
+			data = Arrays.copyOf(data, data.length * 2);
+		}
+		data[length++] = value;
+	}
+
+	/**
+	 * Finishes the current field, which started at the specified offset.
+	 *
+	 * @param start  The offset where the field starts.
+	 */
+	void endField(int start) {
+		if(fieldCount == fieldStarts.length) {
+			fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+			fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+		}
+		fieldStarts[fieldCount] = start;
+		fieldEnds[fieldCount] = length;
+		fieldCount++;
+	}
+
+	/**
+	 * Returns the offset of the first occurrence of the byte in the field, starting from the given offset.
+	 *
+	 * @param field  The index of the field.
+	 * @param value  The byte to look for.
+	 * @param from   The offset to start from.
+	 * @return The offset of the byte, or {@code -1} if the field doesn't contain it.
+	 */
+	private int indexOf(int field, byte value, int from) {
+		checkField(field);
+		for(int i = from; i < fieldEnds[field]; i++) {
+			if(data[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Parses an integer from the data buffer, ignoring surrounding spaces.
+	 *
+	 * @param start  The start offset.
+	 * @param end    The end offset (exclusive).
+	 * @return The parsed integer.
+	 * @throws NumberFormatException  If the bytes aren't a valid integer.
+	 */
+	private int parseInt(int start, int end) {
+		while(start < end && data[start] == ' ') {
+			start++;
+		}
+		while(end > start && data[end - 1] == ' ') {
+			end--;
+		}
+		if(start == end) {
+			throw new NumberFormatException("Empty number");
+		}
+		boolean negative = data[start] == '-';
+		int i = negative || data[start] == '+' ? start + 1 : start;
+		if(i == end) {
+			throw invalidNumber(start, end);
+		}
+		long value = 0;
+		for(; i < end; i++) {
+			int digit = data[i] - '0';
+			if(digit < 0 || digit > 9) {
+				throw invalidNumber(start, end);
+			}
+			value = value * 10 + digit;
+			if(value > (long) Integer.MAX_VALUE + 1) {
+				throw invalidNumber(start, end);
+			}
+		}
+		value = negative ? -value : value;
+		if(value > Integer.MAX_VALUE) {
+			throw invalidNumber(start, end);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Creates an exception for bytes that aren't a valid integer.
+	 *
+	 * @param start  The start offset.
+	 * @param end    The end offset (exclusive).
+	 * @return The exception to throw.
+	 */
+	private NumberFormatException invalidNumber(int start, int end) {
+		return new NumberFormatException("For input string: \"" + new String(data, start, end - start, StandardCharsets.UTF_8) + "\"");
+	}
+
+	/**
+	 * Checks if the field index is valid.
+	 *
+	 * @param field  The index of the field.
+	 * @throws IndexOutOfBoundsException  If the row doesn't have the field.
+	 */
+	private void checkField(int field) {
+		if(field < 0 || field >= fieldCount) {
+			throw new IndexOutOfBoundsException("Field " + field + " doesn't exist, row has " + fieldCount + " fields.");
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package org.unibl.etf.epj2.io;
+
+/**
+ * Callback that receives the rows parsed by {@link CsvParser}.
+ * 
+ * @author Tamara Kosovac
+ */
+@FunctionalInterface
+public interface CsvRowHandler {
+	/**
+	 * Handles a single row of the CSV file.
+	 * <p>The row object is reused by the parser, so it is valid only until this method returns.</p>
+	 * 
+	 * @param row  The parsed row.
+	 */
+	void handleRow(CsvRow row);
+}
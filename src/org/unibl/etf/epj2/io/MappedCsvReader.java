@@ -0,0 +1,67 @@
+package org.unibl.etf.epj2.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads CSV files through memory mapping.
+ * <p>The file is mapped with {@link FileChannel#map} and parsed straight from the page cache, without copying it
+ * into a read buffer first. A single mapping can't be larger than 2 GB, so larger files are mapped as a sequence of
+ * regions of {@link #REGION_SIZE} bytes; rows that cross the border of two regions are handled by {@link CsvParser}.</p>
+ * <p>Mapping has a fixed cost, so files smaller than {@link #MAPPED_THRESHOLD} are better read by
+ * {@link CsvReader}, which chooses between the two readers on its own.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class MappedCsvReader {
+	/**
+	 * The size of a file, in bytes, from which memory mapping is used.
+	 */
+	public static final long MAPPED_THRESHOLD = 8L * 1024 * 1024;
+
+	/**
+	 * The size of one mapped region in bytes.
+	 */
+	public static final long REGION_SIZE = 512L * 1024 * 1024;
+
+	private MappedCsvReader() {
+	}
+
+	/**
+	 * Reads the whole CSV file through memory mapping and sends every row to the handler.
+	 *
+	 * @param path     The path of the CSV file.
+	 * @param handler  The handler that receives parsed rows.
+	 * @throws IOException  If the file can't be read or mapped.
+	 */
+	public static void read(Path path, CsvRowHandler handler) throws IOException {
+		CsvParser parser = new CsvParser(handler);
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			parseRange(channel, 0, channel.size(), parser);
+		}
+		parser.finish();
+	}
+
+	/**
+	 * Maps the specified range of the file region by region and feeds it to the parser.
+	 * <p>The parser isn't finished, so the caller can continue feeding it.</p>
+	 *
+	 * @param channel  The channel of the file.
+	 * @param start    Offset of the first byte of the range.
+	 * @param end      Offset of the first byte after the range.
+	 * @param parser   The parser that receives the bytes.
+	 * @throws IOException  If the file can't be mapped.
+	 */
+	static void parseRange(FileChannel channel, long start, long end, CsvParser parser) throws IOException {
+		long position = start;
+		while(position < end) {
+			long regionSize = Math.min(REGION_SIZE, end - position);
+			MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+			parser.feed(region);
+			position += regionSize;
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package org.unibl.etf.epj2.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Reads large CSV files in parallel.
+ * <p>The file is split into byte ranges whose boundaries are moved to the beginning of the next line, and every range
+ * is parsed by its own {@link CsvParser} and row handler on a fork-join pool. The chunks are returned in file order,
+ * so the caller can merge the results of the handlers exactly as if the file was read by one thread.</p>
+ * <p>Rows are expected not to contain line breaks inside quoted fields, because chunk boundaries are placed after
+ * line breaks without looking at quotes. Files smaller than {@link #MIN_CHUNK_SIZE} are parsed as a single chunk in
+ * the calling thread.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class ParallelCsvReader {
+	/**
+	 * The smallest chunk size in bytes; smaller files are not split.
+	 */
+	public static final long MIN_CHUNK_SIZE = 4L * 1024 * 1024;
+
+	/**
+	 * Number of chunks created per worker thread of the pool, so faster threads can take over more work.
+	 */
+	public static final int CHUNKS_PER_THREAD = 4;
+
+	/**
+	 * Line feed character.
+	 */
+	private static final byte LF = '\n';
+
+	private ParallelCsvReader() {
+	}
+
+	/**
+	 * Reads the CSV file in parallel on the common fork-join pool.
+	 *
+	 * @param <H>             The type of the row handler.
+	 * @param path            The path of the CSV file.
+	 * @param handlerFactory  Creates a new handler for every chunk.
+	 * @return The chunks of the file in file order.
+	 * @throws IOException  If the file can't be read.
+	 */
+	public static <H extends CsvRowHandler> List<CsvChunk<H>> read(Path path, Supplier<H> handlerFactory) throws IOException {
+		return read(path, handlerFactory, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Reads the CSV file in parallel on the specified fork-join pool.
+	 *
+	 * @param <H>             The type of the row handler.
+	 * @param path            The path of the CSV file.
+	 * @param handlerFactory  Creates a new handler for every chunk.
+	 * @param pool            The pool that parses the chunks.
+	 * @return The chunks of the file in file order.
+	 * @throws IOException  If the file can't be read.
+	 */
+	public static <H extends CsvRowHandler> List<CsvChunk<H>> read(Path path, Supplier<H> handlerFactory, ForkJoinPool pool) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			List<CsvChunk<H>> chunks = split(channel, handlerFactory, pool.getParallelism());
+			if(chunks.size() == 1) {
+				parseChunk(channel, chunks.get(0));
+			} else {
+				try {
+					pool.invoke(new ChunksTask<>(channel, chunks, 0, chunks.size()));
+				} catch(UncheckedIOException exception) {
+					throw exception.getCause();
+				}
+			}
+			long firstLineNumber = 1;
+			for(CsvChunk<H> chunk : chunks) {
+				chunk.setFirstLineNumber(firstLineNumber);
+				firstLineNumber += chunk.getLineCount();
+			}
+			return chunks;
+		}
+	}
+
+	/**
+	 * Splits the file into chunks that start at the beginning of a line.
+	 *
+	 * @param <H>             The type of the row handler.
+	 * @param channel         The channel of the file.
+	 * @param handlerFactory  Creates a new handler for every chunk.
+	 * @param parallelism     The number of worker threads.
+	 * @return The chunks of the file in file order.
+	 * @throws IOException  If the file can't be read.
+	 */
+	private static <H extends CsvRowHandler> List<CsvChunk<H>> split(FileChannel channel, Supplier<H> handlerFactory, int parallelism) throws IOException {
+		long size = channel.size();
+		long numberOfChunks = Math.max(1, Math.min(size / MIN_CHUNK_SIZE, (long) parallelism * CHUNKS_PER_THREAD));
+		long chunkSize = size / numberOfChunks;
+		List<CsvChunk<H>> chunks = new ArrayList<>();
+		long start = 0;
+		for(long i = 1; i < numberOfChunks && start < size; i++) {
+			long end = alignToLineStart(channel, Math.max(start, i * chunkSize), size);
+			if(end > start) {
+				chunks.add(new CsvChunk<>(start, end, handlerFactory.get()));
+				start = end;
+			}
+		}
+		chunks.add(new CsvChunk<>(start, size, handlerFactory.get()));
+		return chunks;
+	}
+
+	/**
+	 * Moves the position forward to the first byte after the next line break.
+	 *
+	 * @param channel   The channel of the file.
+	 * @param position  The approximate position of the boundary.
+	 * @param size      The size of the file.
+	 * @return The position of the beginning of the next line, or the size of the file if there is no next line.
+	 * @throws IOException  If the file can't be read.
+	 */
+	private static long alignToLineStart(FileChannel channel, long position, long size) throws IOException {
+		if(position == 0) {
+			return 0;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(CsvReader.BUFFER_SIZE);
+		long offset = position - 1;
+		while(offset < size) {
+			buffer.clear();
+			int read = channel.read(buffer, offset);
+			if(read <= 0) {
+				break;
+			}
+			for(int i = 0; i < read; i++) {
+				if(buffer.get(i) == LF) {
+					return offset + i + 1;
+				}
+			}
+			offset += read;
+		}
+		return size;
+	}
+
+	/**
+	 * Parses a single chunk of the file.
+	 * <p>Chunks of at least {@link MappedCsvReader#MAPPED_THRESHOLD} bytes are parsed through memory mapping,
+	 * smaller ones through positional reads into a buffer.</p>
+	 *
+	 * @param channel  The channel of the file.
+	 * @param chunk    The chunk to parse.
+	 * @throws IOException  If the file can't be read.
+	 */
+	private static void parseChunk(FileChannel channel, CsvChunk<?> chunk) throws IOException {
+		CsvParser parser = new CsvParser(chunk.getHandler());
+		if(chunk.getEnd() - chunk.getStart() >= MappedCsvReader.MAPPED_THRESHOLD) {
+			MappedCsvReader.parseRange(channel, chunk.getStart(), chunk.getEnd(), parser);
+			parser.finish();
+			chunk.setLineCount(parser.getLineNumber() - 1);
+			return;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(CsvReader.BUFFER_SIZE);
+		long position = chunk.getStart();
+		while(position < chunk.getEnd()) {
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), chunk.getEnd() - position));
+			int read = channel.read(buffer, position);
+			if(read <= 0) {
+				break;
+			}
+			buffer.flip();
+			parser.feed(buffer);
+			position += read;
+		}
+		parser.finish();
+		chunk.setLineCount(parser.getLineNumber() - 1);
+	}
+
+	/**
+	 * Task that parses a range of chunks, splitting it in half until a single chunk is left.
+	 *
+	 * @param <H>  The type of the row handler.
+	 */
+	private static class ChunksTask<H extends CsvRowHandler> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The channel of the file.
+		 */
+		private final transient FileChannel channel;
+
+		/**
+		 * All chunks of the file.
+		 */
+		private final transient List<CsvChunk<H>> chunks;
+
+		/**
+		 * Index of the first chunk of the range.
+		 */
+		private final int from;
+
+		/**
+		 * Index of the first chunk after the range.
+		 */
+		private final int to;
+
+		/**
+		 * Constructs a task for the specified range of chunks.
+		 *
+		 * @param channel  The channel of the file.
+		 * @param chunks   All chunks of the file.
+		 * @param from     Index of the first chunk of the range.
+		 * @param to       Index of the first chunk after the range.
+		 */
+		ChunksTask(FileChannel channel, List<CsvChunk<H>> chunks, int from, int to) {
+			this.channel = channel;
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Parses the chunk, or splits the range into two tasks.
+		 */
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				try {
+					parseChunk(channel, chunks.get(from));
+				} catch(IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ChunksTask<>(channel, chunks, from, middle), new ChunksTask<>(channel, chunks, middle, to));
+			}
+		}
+	}
+}
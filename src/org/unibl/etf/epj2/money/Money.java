@@ -0,0 +1,151 @@
+package org.unibl.etf.epj2.money;
+
+/**
+ * Fixed-point arithmetic for amounts of money, kept in a primitive {@code long}.
+ * <p>An amount is the number of cents, that is hundredths of a unit, so sums of many bills are exact and don't
+ * allocate objects. Percentages and multipliers read from the configuration use the same scale, so {@code 30%} is
+ * {@code 3000} and a multiplier of {@code 2} is {@code 200}. Results of multiplication are rounded half away from
+ * zero to whole cents.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public final class Money {
+	/**
+	 * Number of cents in one unit.
+	 */
+	public static final long SCALE = 100;
+
+	/**
+	 * Number of decimal places of an amount.
+	 */
+	public static final int DECIMAL_PLACES = 2;
+
+	/**
+	 * Zero amount.
+	 */
+	public static final long ZERO = 0L;
+
+	private Money() {
+	}
+
+	/**
+	 * Converts whole units to cents.
+	 *
+	 * @param units  The number of whole units.
+	 * @return The amount in cents.
+	 */
+	public static long ofUnits(long units) {
+		return Math.multiplyExact(units, SCALE);
+	}
+
+	/**
+	 * Multiplies the amount by a scaled factor, for example a distance multiplier.
+	 *
+	 * @param amount  The amount in cents.
+	 * @param factor  The factor, scaled by {@link #SCALE}.
+	 * @return The product in cents.
+	 */
+	public static long multiply(long amount, long factor) {
+		return divideRounded(Math.multiplyExact(amount, factor), SCALE);
+	}
+
+	/**
+	 * Returns the percentage of the amount.
+	 *
+	 * @param amount   The amount in cents.
+	 * @param percent  The percentage, scaled by {@link #SCALE}.
+	 * @return The percentage of the amount in cents.
+	 */
+	public static long percentOf(long amount, long percent) {
+		return divideRounded(Math.multiplyExact(amount, percent), 100 * SCALE);
+	}
+
+	/**
+	 * Divides the value and rounds the result half away from zero.
+	 *
+	 * @param value    The dividend.
+	 * @param divisor  The positive divisor.
+	 * @return The rounded quotient.
+	 */
+	public static long divideRounded(long value, long divisor) {
+		long quotient = value / divisor;
+		long remainder = value % divisor;
+		if(Math.abs(remainder) * 2 >= divisor) {
+			quotient += Long.signum(value);
+		}
+		return quotient;
+	}
+
+	/**
+	 * Parses a decimal amount, such as {@code 13440.0} or {@code -2.75}, into cents without going through
+	 * {@code double}.
+	 * <p>Digits after the second decimal place are rounded half away from zero.</p>
+	 *
+	 * @param value  The decimal amount.
+	 * @return The amount in cents.
+	 * @throws NumberFormatException  If the value isn't a decimal number.
+	 */
+	public static long parse(String value) {
+		String text = value.trim();
+		int length = text.length();
+		int index = 0;
+		boolean negative = false;
+		if(index < length && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+			negative = text.charAt(index) == '-';
+			index++;
+		}
+		long units = 0;
+		long fraction = 0;
+		int fractionDigits = 0;
+		boolean roundUp = false;
+		boolean digits = false;
+		boolean point = false;
+		for(; index < length; index++) {
+			char character = text.charAt(index);
+			if(character == '.' && !point) {
+				point = true;
+			} else if(character >= '0' && character <= '9') {
+				digits = true;
+				if(!point) {
+					units = Math.addExact(Math.multiplyExact(units, 10), character - '0');
+				} else if(fractionDigits < DECIMAL_PLACES) {
+					fraction = fraction * 10 + (character - '0');
+					fractionDigits++;
+				} else if(fractionDigits == DECIMAL_PLACES) {
+					roundUp = character >= '5';
+					fractionDigits++;
+				}
+			} else {
+				throw new NumberFormatException("For input string: \"" + value + "\"");
+			}
+		}
+		if(!digits) {
+			throw new NumberFormatException("For input string: \"" + value + "\"");
+		}
+		for(; fractionDigits < DECIMAL_PLACES; fractionDigits++) {
+			fraction *= 10;
+		}
+		long cents = Math.addExact(ofUnits(units), fraction + (roundUp ? 1 : 0));
+		return negative ? -cents : cents;
+	}
+
+	/**
+	 * Formats the amount with two decimal places, for example {@code 13440.00}.
+	 *
+	 * @param amount  The amount in cents.
+	 * @return The formatted amount.
+	 */
+	public static String format(long amount) {
+		StringBuilder builder = new StringBuilder(24);
+		if(amount < 0) {
+			builder.append('-');
+		}
+		long units = Math.abs(amount / SCALE);
+		long cents = Math.abs(amount % SCALE);
+		builder.append(units).append('.');
+		if(cents < 10) {
+			builder.append('0');
+		}
+		return builder.append(cents).toString();
+	}
+}
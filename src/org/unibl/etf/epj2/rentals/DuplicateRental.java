@@ -0,0 +1,74 @@
+package org.unibl.etf.epj2.rentals;
+
+/**
+ * Represents a rental record that was rejected during reading because the same vehicle was already rented
+ * at the same date and time.
+ * 
+ * @author Tamara Kosovac
+ */
+public class DuplicateRental {
+	/**
+	 * The number of the line in the rental data file.
+	 */
+	private final long lineNumber;
+	
+	/**
+	 * The ID of the rented vehicle.
+	 */
+	private final String idOfVehicle;
+	
+	/**
+	 * The date and time of the rental.
+	 */
+	private final String rentalDateTime;
+	
+	/**
+	 * Constructs a new DuplicateRental with the specified details.
+	 * 
+	 * @param lineNumber      The number of the line in the rental data file.
+	 * @param idOfVehicle     The ID of the rented vehicle.
+	 * @param rentalDateTime  The date and time of the rental.
+	 */
+	public DuplicateRental(long lineNumber, String idOfVehicle, String rentalDateTime) {
+		this.lineNumber = lineNumber;
+		this.idOfVehicle = idOfVehicle;
+		this.rentalDateTime = rentalDateTime;
+	}
+	
+	/**
+	 * Returns the number of the line in the rental data file.
+	 * 
+	 * @return lineNumber  The line number.
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+	
+	/**
+	 * Returns the ID of the rented vehicle.
+	 * 
+	 * @return idOfVehicle  The ID of the vehicle.
+	 */
+	public String getIdOfVehicle() {
+		return idOfVehicle;
+	}
+	
+	/**
+	 * Returns the date and time of the rental.
+	 * 
+	 * @return rentalDateTime  The date and time of the rental.
+	 */
+	public String getRentalDateTime() {
+		return rentalDateTime;
+	}
+	
+	/**
+	 * Returns a string representation of the duplicate rental.
+	 * 
+	 * @return A string representation of the duplicate rental.
+	 */
+	@Override
+	public String toString() {
+		return "Rental for vehicle with id " + idOfVehicle + " in " + rentalDateTime + " already exist (line " + lineNumber + ").";
+	}
+}
@@ -2,20 +2,17 @@ package org.unibl.etf.epj2.rentals;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import org.unibl.etf.epj2.drivers.Driver;
-import org.unibl.etf.epj2.epj2simulation.MainFrame;
-import org.unibl.etf.epj2.malfunctions.Malfunction;
-import org.unibl.etf.epj2.vehicles.ReadVehicles;
-import org.unibl.etf.epj2.vehicles.Vehicle;
+import org.unibl.etf.epj2.drivers.DriverRegistry;
+import org.unibl.etf.epj2.io.CsvChunk;
+import org.unibl.etf.epj2.io.CsvRow;
+import org.unibl.etf.epj2.io.ParallelCsvReader;
+import org.unibl.etf.epj2.vehicles.VehicleRegistry;
 
 
 /**
@@ -28,9 +25,9 @@ import org.unibl.etf.epj2.vehicles.Vehicle;
 public class ReadRentals {
 	/**
 	 * Path to the file containing rental data.
-	 * <p>The path is retrieved from the property file using the {@code RentalCalculator.returnValueFromPropertieFile} method.</p>
+	 * <p>The path is retrieved from the property file through {@link TariffConfig}.</p>
 	 */
-	public static final String FILE_WITH_RENTALS = RentalCalculator.returnValueFromPropertieFile("FILE_WITH_RENTALS");
+	public static final String FILE_WITH_RENTALS = TariffConfig.getCurrent().getFileWithRentals();
 	
 	/**
 	 * Header for the date column in the rental data file.
@@ -56,6 +53,7 @@ public class ReadRentals {
 	 * Indicates if the method has been called for the first time
 	 */
 	private static boolean firstCall = true;
+	
 
 
 	/**
@@ -77,94 +75,69 @@ public class ReadRentals {
 	}
 
 	/**
-	 * Reads rental data from the file, processes it, and returns a list of sorted rentals.
-     * <p>This method reads each line from the rental data file, parses the information, creates rental objects, and ensures that no duplicate rentals are added. </p>
+	 * Reads rental data from the file, processes it, and returns the rentals sorted chronologically by {@link Rental#getRentalTimestamp()}.
+     * <p>This method reads each row from the rental data file, parses the information, creates rental objects, and ensures that no duplicate rentals are added.
+     * Large files are split into chunks that are parsed in parallel by {@link ParallelCsvReader}, and the chunks are merged in file order,
+     * so the result is the same as if the file was read by one thread. Duplicates are detected with a {@link RentalDuplicateIndex} keyed on the vehicle and the parsed date and time, and are
+     * returned together with the rentals.</p>
      * 
-	 * @param vehicles        The set of available vehicles.
-	 * @param mainFrame       The main frame of the application.
-	 * @return sortedRentals  A list of sorted rental objects.
+	 * @param vehicles  The registry of available vehicles.
+	 * @return The sorted rentals, the rentals rejected as duplicates and the drivers of the file.
 	 */
-	public static List<Rental> readRentals(Set<Vehicle> vehicles, MainFrame mainFrame) {
+	public static RentalReadResult readRentals(VehicleRegistry vehicles) {
 		Path filePath = new File(FILE_WITH_RENTALS).toPath();
-		Stream<String> content;
 		List<Rental> rentals = new ArrayList<>();
 		List<Rental> sortedRentals = new ArrayList<>();
-		List<Driver> drivers = new ArrayList<>();
+		DriverRegistry drivers = new DriverRegistry();
+		RentalDuplicateIndex duplicateIndex = new RentalDuplicateIndex();
 		try {
-			content = Files.lines(filePath);
-			content.forEach(line -> {
-				if(!line.contains(DATE)) {
-					String[] parts = line.split(ReadVehicles.SEPARATOR);
-					try {
-						String rentalDateTime = parts[0];
-			    		String nameOfTheDriver = parts[1];
-			    		String idOfVehicle = parts[2];
-			    		String firstStartCoordinateString = parts[3].replace("\"", "");
-			            String secondStartCoordinateString = parts[4].replace("\"", "");
-			            String firstFinishCoordinateString = parts[5].replace("\"", "");
-			            String secondFinishCoordinateString = parts[6].replace("\"", "");
-			            int firstStartCoordinate = Integer.parseInt(firstStartCoordinateString);
-			            int secondStartCoordinate = Integer.parseInt(secondStartCoordinateString);
-			            int firstFinishCoordinate = Integer.parseInt(firstFinishCoordinateString);
-			            int secondFinishCoordinate = Integer.parseInt(secondFinishCoordinateString);
-			            int usageDurationInSeconds = Integer.parseInt(parts[7]);
-			            String hasMalfunction = parts[8];
-			            Malfunction malfunction = null;
-			            if(YES.equals(hasMalfunction)) {
-			            	malfunction = new Malfunction(hasMalfunction, rentalDateTime);
-			            } else {
-			            	malfunction = new Malfunction(hasMalfunction);
-			            }
-			            String promotion = parts[9];
-			            Driver driver = ReadRentals.findOrCreateDriver(drivers, nameOfTheDriver);
-			            Optional<Vehicle> existingVehicle = vehicles.stream()
-			            	    .filter(vehicle -> vehicle.getIdOfVehicle().equals(idOfVehicle))
-			            	    .findFirst();
-			            boolean rentalExists = rentals.stream()
-			            		.anyMatch(rent -> rent.getVehicle().getIdOfVehicle().equals(idOfVehicle) && 
-			            		rent.getRentalDateTime().equals(rentalDateTime) && checkIfCoordinatesAreCorrect(firstStartCoordinate, secondStartCoordinate, firstFinishCoordinate, secondFinishCoordinate));
-			            if(existingVehicle.isPresent() && !rentalExists) {
-			            	Vehicle vehicle = existingVehicle.get();
-			            	Rental rental = new Rental(rentalDateTime, driver, vehicle, firstStartCoordinate, secondStartCoordinate, firstFinishCoordinate, secondFinishCoordinate, usageDurationInSeconds, malfunction, promotion, mainFrame);
-			                rentals.add(rental);
-			                } else {
-			                	if(firstCall) {
-			                	  System.out.println("Rental for vehicle with id " + idOfVehicle + " in " + rentalDateTime + " already exist.");
-			                	}
-			                }
-					}  catch(NumberFormatException exception) {
-						exception.printStackTrace();
-					} catch (Exception e) {
-	                    System.out.println("Unexpected error for line: " + line);
-	                    e.printStackTrace();
-	                }
+			List<CsvChunk<RentalRowHandler>> chunks = ParallelCsvReader.read(filePath, () -> new RentalRowHandler(vehicles, drivers));
+			for(CsvChunk<RentalRowHandler> chunk : chunks) {
+				RentalRowHandler handler = chunk.getHandler();
+				for(int i = 0; i < handler.size(); i++) {
+					Rental rental = handler.getRental(i);
+					long key = handler.getKey(i);
+					boolean rentalExists = duplicateIndex.contains(key) && checkIfCoordinatesAreCorrect(rental.getFirstStartCoordinate(),
+							rental.getSecondStartCoordinate(), rental.getFirstFinishCoordinate(), rental.getSecondFinishCoordinate());
+					if(!rentalExists) {
+						rentals.add(rental);
+						duplicateIndex.add(key);
+					} else {
+						duplicateIndex.reportDuplicate(new DuplicateRental(chunk.toFileLineNumber(handler.getLineNumber(i)),
+								rental.getVehicle().getIdOfVehicle(), rental.getRentalDateTime()));
+					}
 				}
-			});
+			}
 			sortedRentals = rentals.stream()
-			              .sorted((firstRental, secondRental) -> firstRental.getRentalDateTime().compareTo(secondRental.getRentalDateTime()))
+			              .sorted(Comparator.comparingLong(Rental::getRentalTimestamp))
 			              .collect(Collectors.toList());
 		} catch(IOException exception) {
 			exception.printStackTrace();
 		}
 		firstCall = false;
-		return sortedRentals;
+		return new RentalReadResult(sortedRentals, duplicateIndex.getDuplicateRentals(), drivers);
 	}
 	
 	/**
+	 * Reads a location (a pair of coordinates) from the row, starting at the specified field.
+	 * <p>The location is usually quoted, so both coordinates are in one field ({@code "7,8"}). If it isn't quoted,
+	 * the separator splits it into two fields ({@code 7,8}), and both fields are used.</p>
 	 * 
-	 * @param drivers          The list of existing drivers.
-	 * @param nameOfTheDriver  The name of the driver to find or create.
-	 * @return driver          The found or newly created driver.
+	 * @param row          The row to read from.
+	 * @param field        The index of the first field of the location.
+	 * @param coordinates  The array where the coordinates are stored.
+	 * @param offset       The index in the array where the first coordinate is stored.
+	 * @return The index of the first field after the location.
 	 */
-	public static Driver findOrCreateDriver(List<Driver> drivers, String nameOfTheDriver) {
-		Optional<Driver> existingDriver = drivers.stream()
-				.filter(driver -> driver.getNameOfTheDriver().equals(nameOfTheDriver)).findFirst();
-		if(existingDriver.isPresent()) {
-			return existingDriver.get();
+	static int readLocation(CsvRow row, int field, int[] coordinates, int offset) {
+		if(row.contains(field, CsvRow.COORDINATE_SEPARATOR)) {
+			coordinates[offset] = row.getCoordinatePart(field, 0);
+			coordinates[offset + 1] = row.getCoordinatePart(field, 1);
+			return field + 1;
 		}
-		Driver driver = new Driver(nameOfTheDriver);
-		drivers.add(driver);
-		return driver;
+		coordinates[offset] = row.getInt(field);
+		coordinates[offset + 1] = row.getInt(field + 1);
+		return field + 2;
 	}
 	
 	/**
@@ -3,23 +3,29 @@ package org.unibl.etf.epj2.rentals;
 import org.unibl.etf.epj2.malfunctions.Malfunction;
 
 import org.unibl.etf.epj2.drivers.Driver;
-import org.unibl.etf.epj2.epj2simulation.MainFrame;
 //import org.unibl.etf.epj2.epj2simulation.Epj2Simulation;
 import org.unibl.etf.epj2.vehicles.Vehicle;
 
 
 /**
- * Represents a rental transaction, extending 'Thread' to allow simulation of vehicle movement.
+ * Represents a rental transaction.
  * Manages rental details, including driver, vehicle, coordinates, malfunction, promotion and duration.
+ * <p>The movement of the vehicle is simulated by the simulation engine, not by the rental itself.</p>
  * 
  * @author Tamara Kosovac
  */
-public class Rental extends Thread {
+public class Rental {
 	/**
 	 * Represents the date and time when the rental was created.
 	 */
 	private String rentalDateTime;
 	
+	/**
+	 * Represents the date and time of the rental in minutes since the epoch.
+	 * <p>It is parsed once from {@link #rentalDateTime} and used for sorting and grouping rentals.</p>
+	 */
+	private long rentalTimestamp;
+	
 	/**
 	 * Represents the driver who is associated with this rental.
 	 */
@@ -70,10 +76,6 @@ public class Rental extends Thread {
 	 */
 	private String idOfRental;
 	
-	/**
-	 * Represents the main application frame used to update the UI with the vehicle's movement.
-	 */
-	private final MainFrame mainFrame;
 	
    /**
     * Constructs a new Rental object with the specified details.
@@ -88,11 +90,12 @@ public class Rental extends Thread {
     * @param usageDurationInSeconds The duration of the rental in seconds.
     * @param malfunction            The malfunction of the vehicle.
     * @param promotion              The promotion applied to the rental.
-    * @param mainFrame              The main frame of the application to update the UI.
+    * @throws java.time.format.DateTimeParseException  If the date and time of the rental can't be parsed.
     */
 	public Rental(String rentalDateTime, Driver driver, Vehicle vehicle, int firstStartCoordinate, int secondStartCoordinate, int firstFinishCoordinate,
-			int secondFinishCoordinate, int usageDurationInSeconds,Malfunction malfunction, String promotion, MainFrame mainFrame) {
+			int secondFinishCoordinate, int usageDurationInSeconds,Malfunction malfunction, String promotion) {
 		this.rentalDateTime = rentalDateTime;
+		this.rentalTimestamp = RentalDateTime.toEpochMinutes(rentalDateTime);
 		this.driver = driver;
 		this.vehicle = vehicle;
 		this.setFirstStartCoordinate(firstStartCoordinate);
@@ -103,7 +106,6 @@ public class Rental extends Thread {
 		this.malfunction = malfunction;
 		this.promotion = promotion;
 		this.idOfRental = rentalDateTime + " " + this.vehicle.getIdOfVehicle();
-		this.mainFrame = mainFrame;
 	}
 	
 
@@ -123,6 +125,16 @@ public class Rental extends Thread {
 	 */
 	public void setRentalDateTime(String rentalDateTime) {
 		this.rentalDateTime = rentalDateTime;
+		this.rentalTimestamp = RentalDateTime.toEpochMinutes(rentalDateTime);
+	}
+	
+	/**
+	 * Returns the rental date and time in minutes since the epoch.
+	 * 
+	 * @return rentalTimestamp  The rental timestamp.
+	 */
+	public long getRentalTimestamp() {
+		return rentalTimestamp;
 	}
 	
 	/**
@@ -313,14 +325,6 @@ public class Rental extends Thread {
 	}
 	
 
-	/**
-	 * Returns the main frame of the application used to update the UI.
-	 * 
-	 * @return mainFrame  The main frame.
-	 */
-	public MainFrame getMainFrame() {
-		return mainFrame;
-	}
 
     /**
      *  Returns a string representation of the rental.
@@ -333,48 +337,4 @@ public class Rental extends Thread {
 		return "Date and time: " + rentalDateTime + ", name of the driver: " + driver + ", vehicle: " + vehicle + ", start location: " + firstStartCoordinate + "," + secondStartCoordinate  + ", finish location: " + firstFinishCoordinate + 
 				"," + secondFinishCoordinate + ", usage duration in seconds: " + usageDurationInSeconds + ", has malfunction: " + malfunction.getHasMalfunction() + ", has promotion: " + promotion + ".";
 	}
-	
-	/**
-	 * Simulates the movement of the vehicle from the start coordinates to the finish coordinates.
-	 * Updates the main frame to reflect the vehicle's position and battery level at regular intervals.
-	 */
-	@Override
-    public void run() {
-    	int x1 = this.firstStartCoordinate;
-        int x2 = this.firstFinishCoordinate;
-        int y1 = this.secondStartCoordinate;
-        int y2 = this.secondFinishCoordinate;
-        int numberOfFields = Math.abs(x2 - x1) + Math.abs(y2 - y1);
-        int delay = (this.usageDurationInSeconds * 1000) / numberOfFields;
-
-
-
-        while (x1 != x2) {
-            if (x2 > x1) {
-                x1++;
-            } else {
-                x1--;
-            }
-            mainFrame.updateMatrix(y1, x1, vehicle.getIdOfVehicle()+"-"+vehicle.decreaseBatteryLevel());
-            try {
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
-
-        while (y1 != y2) {
-            if (y2 > y1) {
-                y1++;
-            } else {
-                y1--;
-            }
-            mainFrame.updateMatrix(y1, x1, vehicle.getIdOfVehicle()+"-"+vehicle.decreaseBatteryLevel());
-            try {
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }  
-    }
-}
\ No newline at end of file
+}
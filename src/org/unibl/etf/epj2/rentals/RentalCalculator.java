@@ -1,23 +1,27 @@
 package org.unibl.etf.epj2.rentals;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.stream.IntStream;
 
 import org.unibl.etf.epj2.drivers.Driver;
+import org.unibl.etf.epj2.invoices.InvoiceWriter;
+import org.unibl.etf.epj2.invoices.OverflowPolicy;
+import org.unibl.etf.epj2.money.Money;
+import org.unibl.etf.epj2.reports.Bill;
+import org.unibl.etf.epj2.reports.ReportStore;
 import org.unibl.etf.epj2.vehicles.ReadVehicles;
 
 
 /** The {@code RentalCalculator} class provides functionality for calculating and managing rental prices.
- * It reads and writes property files related to rental calculations, handles pricing based on vehicle types
- * and writes rental details to text files.
+ * It calculates prices in memory from the rental and the {@link TariffConfig}, passes the bills to an
+ * {@link InvoiceWriter} and can export the pricing inputs of rentals to property files for auditing.
  * 
  * @author Tamara Kosovac
  */
@@ -28,9 +32,10 @@ public class RentalCalculator {
 	public static final String FILE_WITH_VALUES = "values";
 	
 	/**
-	 * The folder name from where bills will be stored.
+	 * The folder name from where bills will be stored, as configured at startup.
+	 * <p>The folder of the current configuration is returned by {@link TariffConfig#getFolderName()}.</p>
 	 */
-	public static final String FOLDER_NAME = RentalCalculator.returnValueFromPropertieFile("FOLDER_NAME");
+	public static final String FOLDER_NAME = TariffConfig.getCurrent().getFolderName();
 	
 	/**
 	 * The prefix used for identifying car-related values.
@@ -93,7 +98,8 @@ public class RentalCalculator {
 	public static final String FOLDER_PATH = "FOLDER_PATH";
 	
 	/**
-	 * The count of drivers required for discount calculations.
+	 * The number of rides after which the driver gets a discount.
+	 * <p>Every {@value}th ride of the same driver is discounted.</p>
 	 */
 	public static final int DRIVER_COUNT = 10;
 	
@@ -109,92 +115,71 @@ public class RentalCalculator {
 	
 
 	/**
-	 * Writes rental data into property files based on the provided list of rentals.
+	 * Writes the pricing inputs of every rental into its own properties file, as an audit export.
+	 * <p>Prices are calculated in memory by {@link #calculateAndWriteBill(Rental, InvoiceWriter)}, so these files aren't needed
+	 * for pricing. Nothing is written unless the export is enabled with {@link TariffConfig#isAuditExport()}, and
+	 * every file is written once.</p>
 	 * 
 	 * @param rentals  The list of rentals to be written to property file.
 	 */
 	public static void writeInPropertieFile(List<Rental> rentals) {
-		String nameOfFolder = FOLDER_NAME;
-		rentals.stream().forEach(rental -> 
-        {
-			try {
-				writeForRentalInPropertiesFile(rental, nameOfFolder);
-			} catch (FileNotFoundException exception) {
-				exception.printStackTrace();
-			}
-		});
+		TariffConfig config = TariffConfig.getCurrent();
+		if(!config.isAuditExport()) {
+			return;
+		}
+		String nameOfFolder = config.getFolderName();
+		rentals.stream().forEach(rental -> writeForRentalInPropertiesFile(rental, nameOfFolder, config));
 	}
 	
  
 	/**
 	 * Write rentals details into a properties file based on the rental information.
+	 * <p>All values are collected first and the file is stored in a single pass.</p>
 	 * 
 	 * @param rental  The rental to be written.
 	 * @param nameOfFolder  The folder where bills will be stored.
-	 * @throws FileNotFoundException  If the file cannot be found.
+	 * @param config  The tariff configuration.
 	 */
-	private static void writeForRentalInPropertiesFile(Rental rental, String nameOfFolder) throws FileNotFoundException {
+	private static void writeForRentalInPropertiesFile(Rental rental, String nameOfFolder, TariffConfig config) {
 	    String typeOfVehicle = rental.getVehicle().getTypeOfVehicle();
 	    String vehicleUnitPrice = String.valueOf(rental.getVehicle().getPurchasePrice());
-		int firstStartCoordinate = rental.getFirstStartCoordinate();
-		int secondStartCoordinate = rental.getSecondStartCoordinate();
-		int firstFinishCoordinate = rental.getFirstFinishCoordinate();
-		int secondFinishCoordinate = rental.getSecondFinishCoordinate();
-		String fileName = rental.getIdOfRental().replace(":", "_") + EXTENSION;
-		String txtFilePath = nameOfFolder + File.separator + fileName.replace(EXTENSION, "")  + TXT;
-		if(checkIfIsDistanceNarrow(firstStartCoordinate, secondStartCoordinate, firstFinishCoordinate, secondFinishCoordinate)) {
-			 addOrUpdatePropertiesFile(DISTANCE_NARROW, returnValueFromPropertieFile(DISTANCE_NARROW), fileName);
-		 } else {
-			 addOrUpdatePropertiesFile(DISTANCE_WIDE, returnValueFromPropertieFile(DISTANCE_WIDE), fileName);
-		 }
-		 addOrUpdatePropertiesFile(DISCOUNT, returnValueFromPropertieFile(DISCOUNT), fileName);
-		 addOrUpdatePropertiesFile(DISCOUNT_PROM, returnValueFromPropertieFile(DISCOUNT_PROM), fileName);
+		String fileName = billFileName(rental) + EXTENSION;
+		String txtFilePath = nameOfFolder + File.separator + billFileName(rental) + TXT;
+		Properties properties = new Properties();
+		if(isDistanceNarrow(rental)) {
+			properties.setProperty(DISTANCE_NARROW, Objects.toString(config.getValue(DISTANCE_NARROW), ""));
+		} else {
+			properties.setProperty(DISTANCE_WIDE, Objects.toString(config.getValue(DISTANCE_WIDE), ""));
+		}
+		properties.setProperty(DISCOUNT, Objects.toString(config.getValue(DISCOUNT), ""));
+		properties.setProperty(DISCOUNT_PROM, Objects.toString(config.getValue(DISCOUNT_PROM), ""));
 	    if(ReadVehicles.CAR.equals(typeOfVehicle)) {
-			addOrUpdatePropertiesFile(CAR_UNIT_PRICE, vehicleUnitPrice, fileName);
+	    	properties.setProperty(CAR_UNIT_PRICE, vehicleUnitPrice);
 		} else if(ReadVehicles.BIKE.equals(typeOfVehicle)) {
-			addOrUpdatePropertiesFile(BIKE_UNIT_PRICE, vehicleUnitPrice, fileName);
+			properties.setProperty(BIKE_UNIT_PRICE, vehicleUnitPrice);
 		} else {
-			addOrUpdatePropertiesFile(SCOOTER_UNIT_PRICE, vehicleUnitPrice, fileName);
+			properties.setProperty(SCOOTER_UNIT_PRICE, vehicleUnitPrice);
 		}
-	    addOrUpdatePropertiesFile(FOLDER_PATH, txtFilePath, fileName);
+	    properties.setProperty(FOLDER_PATH, txtFilePath);
+	    try(FileOutputStream fileOutputStream = new FileOutputStream(fileName)) {
+	    	properties.store(fileOutputStream, null);
+	    } catch(IOException exception) {
+	    	exception.printStackTrace();
+	    }
 	}
 	
 	
 	/**
-	 * Adds or updates a property in a properties file.
+	 * Returns the name of the bill file of the rental, without the extension.
 	 * 
-	 * @param key  The key for the property to be set.
-	 * @param value  The value to be set for the property
-	 * @param fileName The name of te property file.
+	 * @param rental  The rental.
+	 * @return The name of the file.
 	 */
-	private static void addOrUpdatePropertiesFile(String key, String value, String fileName) {
-		Properties properties = new Properties();
-		File file = new File(fileName);
-		if(file.exists()) {
-			try {
-				FileInputStream fileInputStream = new FileInputStream(file); 
-	            properties.load(fileInputStream);
-	            fileInputStream.close();
-	        } catch (IOException e) {
-	            e.printStackTrace();
-	        }
-		}
-		try {
-			FileOutputStream fileOutputStream = new FileOutputStream(fileName);
-			properties.setProperty(key, value);
-			try {
-				properties.store(fileOutputStream, null);
-				fileOutputStream.close();
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-		} catch(FileNotFoundException exception) {
-			exception.printStackTrace();
-		}
+	private static String billFileName(Rental rental) {
+		return rental.getIdOfRental().replace(":", "_");
 	}
 	
 	
-	
 	/**
 	 * Checks if the coordinates represent a narrow distance area.
 	 * @param firstStartCoordinate   The starting coordinate of the first axis.
@@ -222,103 +207,147 @@ public class RentalCalculator {
 	
 	
 	/**
-	 * Reads and calculates the rental price based on properties file values.
+	 * Calculates the rental price and queues the bill of the rental for writing, waiting if the writer's queue is
+	 * full.
+	 * <p>Meant for batch and headless callers that accept back-pressure; see
+	 * {@link #calculateAndWriteBill(Rental, InvoiceWriter, OverflowPolicy)}.</p>
 	 * 
 	 * @param rental  The rental for which the price is to be calculated.
-	 * @return  The total price of the rental.
+	 * @param invoiceWriter  The writer of the invoice.
+	 * @return  The total price of the rental in cents.
+	 * @throws InterruptedException  If the thread is interrupted while waiting for the writer's queue.
 	 */
-	public static double readAndCalculateFromPropertiesFile(Rental rental) {
-		double totalPrice = 0.0;
-		Properties properties = new Properties();
-		String fileName = rental.getIdOfRental().replace(":", "_") + EXTENSION;
-		File file = new File(fileName);
-		if (file.exists()) {
-			try {
-				FileInputStream fileInputStream = new FileInputStream(file);
-				try {
-					int unitPrice;
-					double distance;
-					int usageDurationInSeconds = rental.getUsageDurationInSeconds();
-					double discount;
-					double discountProm;
-					properties.load(fileInputStream);
-					if(fileName.contains(CAR_FIRST_LETTER)) {
-						unitPrice = Integer.parseInt(properties.getProperty(CAR_UNIT_PRICE));
-					} else if(fileName.contains(BIKE_FIRST_LETTER)) {
-						unitPrice = Integer.parseInt(properties.getProperty(BIKE_UNIT_PRICE));
-					} else {
-						unitPrice = Integer.parseInt(properties.getProperty(SCOOTER_UNIT_PRICE));
-					} 
-					
-					if(checkIfIsDistanceNarrow(rental.getFirstStartCoordinate(), rental.getSecondStartCoordinate(), rental.getFirstFinishCoordinate(), rental.getSecondFinishCoordinate())) {
-			            distance = Double.parseDouble(properties.getProperty(DISTANCE_NARROW));
-					} else {
-					    distance = Double.parseDouble(properties.getProperty(DISTANCE_WIDE));
-					}
-					if(Driver.getDriverCount(rental.getDriver().getNameOfTheDriver()) == DRIVER_COUNT) {
-						discount = Double.parseDouble(properties.getProperty(DISCOUNT));
-					} else {
-						discount = 0.0;
-					}
-					if(ReadRentals.YES.equals(rental.getPromotion())) {
-					    discountProm = Double.parseDouble(properties.getProperty(DISCOUNT_PROM));
-					} else {
-						discountProm = 0.0;
-					}
-					String nameOfFolder = FOLDER_NAME;
-					File folder = new File(nameOfFolder);
-					folder.mkdirs();
-					totalPrice = calculatePrices(unitPrice, usageDurationInSeconds, distance, discount, discountProm);
-					if(ReadRentals.YES.equals(rental.getMalfunction().getHasMalfunction())) {
-						totalPrice = 0.0;
-					} 
-					RentalCalculator.writeInTxtFile(rental, folder, fileName, unitPrice, usageDurationInSeconds, discount, discountProm, totalPrice);
-					fileInputStream.close();
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-			} catch (FileNotFoundException e) {
-				e.printStackTrace();
-			}
-		}
-		
+	public static long calculateAndWriteBill(Rental rental, InvoiceWriter invoiceWriter) throws InterruptedException {
+		return calculateAndWriteBill(rental, invoiceWriter, OverflowPolicy.WAIT);
+	}
+	
+	
+	/**
+	 * Calculates the rental price and queues the bill of the rental for writing.
+	 * <p>The price is calculated from the rental itself and the current {@link TariffConfig}, without reading any
+	 * file. The ride is recorded for the driver, so every {@value #DRIVER_COUNT}th ride gets the discount. The invoice
+	 * is written by the {@link InvoiceWriter} on its own thread; the policy decides whether this method waits if the
+	 * writer's queue is full, or spills the bill so the calling thread never waits for the disk. The bill is also
+	 * recorded in the {@link ReportStore}, so reports include it right away.</p>
+	 * 
+	 * @param rental  The rental for which the price is to be calculated.
+	 * @param invoiceWriter  The writer of the invoice.
+	 * @param policy  What to do if the writer's queue is full.
+	 * @return  The total price of the rental in cents.
+	 * @throws InterruptedException  If the thread is interrupted while waiting for the writer's queue.
+	 */
+	public static long calculateAndWriteBill(Rental rental, InvoiceWriter invoiceWriter, OverflowPolicy policy) throws InterruptedException {
+		TariffConfig config = TariffConfig.getCurrent();
+		boolean narrow = isDistanceNarrow(rental);
+		long discount = isEligibleForDiscount(rental.getDriver().recordRide()) ? config.getDiscount() : 0L;
+		long discountProm = discountProm(rental, config);
+		long totalPrice = totalPrice(rental, config, narrow, discount, discountProm);
+		Bill bill = createBill(rental, narrow, discount, discountProm, totalPrice);
+		invoiceWriter.write(bill, policy);
+		ReportStore.getCurrent().record(bill);
 		return totalPrice;
 	}
 	
 	
 	/**
-	 * Writes rental information to a text file based on the provided rental details. 
+	 * Creates the bill of the priced rental.
 	 * 
-	 * @param rental    The Rental object containing details of the rental.
-	 * @param folder    The folder where text files will be stored.
-	 * @param fileName  The name of the propertie file from where we read information.
-	 * @param unitPrice  The unit price of the vehicle.
-	 * @param usageDurationInSeconds  The usage duration of the rental in seconds.
-	 * @param discount  The discount of the rental.
-	 * @param discountProm  The discount prom of the rental.
-	 * @param totalPrice  The total price of the rental.
-	 */
-	private static void writeInTxtFile(Rental rental, File folder, String fileName, int unitPrice, int usageDurationInSeconds, double discount, double discountProm, double totalPrice) {
-		try {
-			PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(folder + File.separator + fileName.replace(EXTENSION, "") + TXT)));
-			writer.println("Datum iznajmljivanja: " + rental.getRentalDateTime());
-			writer.println("Korisnik koji iznajmljuje: " + rental.getDriver().getNameOfTheDriver());
-			writer.println("ID vozila je: " + rental.getVehicle().getIdOfVehicle());
-			writer.println("Cijena nabavke vozila je: " + unitPrice);
-			writer.println("Pocetna lokacija je: " + rental.getFirstStartCoordinate() + "," + rental.getSecondStartCoordinate());
-			writer.println("Odredisna lokacija je: " + rental.getFirstFinishCoordinate() + "," + rental.getSecondFinishCoordinate());
-			writer.println("Trajanje je: " + usageDurationInSeconds);
-			writer.println("Da li ima kvar? " + rental.getMalfunction().getHasMalfunction());
-			writer.println("Da li ima promociju? " + rental.getPromotion());
-			writer.println("Popust iznosi: " + discount);
-			writer.println("Promocija iznosi: " + discountProm);
-			writer.println("Ukupna cijena za placanje je: " + totalPrice);
-			writer.println("Da li je voznja u uzem dijelu grada: " + checkIfIsDistanceNarrow(rental.getFirstStartCoordinate(), rental.getSecondStartCoordinate(), rental.getFirstFinishCoordinate(), rental.getSecondFinishCoordinate()));
-			writer.close();
-		} catch(IOException exception) {
-			exception.printStackTrace();
+	 * @param rental  The rental.
+	 * @param narrow  Whether the rental is in the narrow part of the city.
+	 * @param discount  The discount in percent, scaled by {@link Money#SCALE}.
+	 * @param discountProm  The promotional discount in percent, scaled by {@link Money#SCALE}.
+	 * @param totalPrice  The total price in cents.
+	 * @return The bill.
+	 */
+	public static Bill createBill(Rental rental, boolean narrow, long discount, long discountProm, long totalPrice) {
+		return new Bill(rental.getRentalDateTime(), rental.getDriver().getNameOfTheDriver(), rental.getVehicle().getIdOfVehicle(),
+				rental.getVehicle().getPurchasePrice(), rental.getFirstStartCoordinate() + "," + rental.getSecondStartCoordinate(),
+				rental.getFirstFinishCoordinate() + "," + rental.getSecondFinishCoordinate(), rental.getUsageDurationInSeconds(),
+				rental.getMalfunction().getHasMalfunction(), rental.getPromotion(), discount, discountProm, totalPrice, String.valueOf(narrow));
+	}
+	
+	
+	/**
+	 * Calculates the prices of all rentals in one call.
+	 * <p>Rides are numbered per driver in the order of the list, continuing from the rides the drivers already have,
+	 * so the discounts are the same as if the rentals were billed one by one. The rides aren't recorded for the
+	 * drivers and no bills are written, so the rentals can be priced before or without running the simulation.
+	 * After the rides are numbered, the prices are calculated on a parallel stream.</p>
+	 * 
+	 * @param rentals  The rentals to be priced.
+	 * @return The prices, indexed like the list of rentals.
+	 */
+	public static RentalPrices priceAll(List<Rental> rentals) {
+		TariffConfig config = TariffConfig.getCurrent();
+		int size = rentals.size();
+		boolean[] discounted = new boolean[size];
+		Map<Driver, Long> ridesByDriver = new HashMap<>();
+		for(int i = 0; i < size; i++) {
+			Driver driver = rentals.get(i).getDriver();
+			long rideNumber = ridesByDriver.merge(driver, driver.getNumberOfRides() + 1, (rides, first) -> rides + 1);
+			discounted[i] = isEligibleForDiscount(rideNumber);
 		}
-
+		RentalPrices prices = new RentalPrices(size);
+		IntStream.range(0, size).parallel().forEach(i -> {
+			Rental rental = rentals.get(i);
+			boolean narrow = isDistanceNarrow(rental);
+			long discount = discounted[i] ? config.getDiscount() : 0L;
+			long discountProm = discountProm(rental, config);
+			prices.set(i, totalPrice(rental, config, narrow, discount, discountProm), discount, discountProm, narrow);
+		});
+		return prices;
+	}
+	
+	
+	/**
+	 * Checks if the rental is in the narrow part of the city.
+	 * 
+	 * @param rental  The rental.
+	 * @return {@code true} if all coordinates of the rental are in the narrow part of the city, {@code false} otherwise
+	 */
+	private static boolean isDistanceNarrow(Rental rental) {
+		return checkIfIsDistanceNarrow(rental.getFirstStartCoordinate(), rental.getSecondStartCoordinate(), rental.getFirstFinishCoordinate(), rental.getSecondFinishCoordinate());
+	}
+	
+	
+	/**
+	 * Returns the promotional discount of the rental.
+	 * 
+	 * @param rental  The rental.
+	 * @param config  The tariff configuration.
+	 * @return The promotional discount in percent scaled by {@link Money#SCALE}, or zero if the rental has no promotion.
+	 */
+	private static long discountProm(Rental rental, TariffConfig config) {
+		return ReadRentals.YES.equals(rental.getPromotion()) ? config.getDiscountProm() : 0L;
+	}
+	
+	
+	/**
+	 * Calculates the total price of the rental; rentals with a malfunction are free.
+	 * 
+	 * @param rental  The rental.
+	 * @param config  The tariff configuration.
+	 * @param narrow  Whether the rental is in the narrow part of the city.
+	 * @param discount  The discount in percent, scaled by {@link Money#SCALE}.
+	 * @param discountProm  The promotional discount in percent, scaled by {@link Money#SCALE}.
+	 * @return The total price of the rental in cents.
+	 */
+	private static long totalPrice(Rental rental, TariffConfig config, boolean narrow, long discount, long discountProm) {
+		if(ReadRentals.YES.equals(rental.getMalfunction().getHasMalfunction())) {
+			return Money.ZERO;
+		}
+		return calculatePrices(rental.getVehicle().getPurchasePrice(), rental.getUsageDurationInSeconds(), config.getDistance(narrow), discount, discountProm);
+	}
+	
+	
+	/**
+	 * Checks if the ride with the specified ordinal number gets a discount.
+	 * 
+	 * @param rideNumber  The ordinal number of the driver's ride, starting from one.
+	 * @return {@code true} if the ride is discounted, {@code false} otherwise
+	 */
+	public static boolean isEligibleForDiscount(long rideNumber) {
+		return rideNumber > 0 && rideNumber % DRIVER_COUNT == 0;
 	}
 	
 	
@@ -328,43 +357,27 @@ public class RentalCalculator {
 	 * 
 	 * @param unitPrice  The unit price of the vehicle.
 	 * @param usageDurationInSeconds  The duration of the rental in seconds.
-	 * @param distance  The distance which depends on narrow or wide city valute.
-	 * @param discount  The discount applicable to the rental.
-	 * @param discountProm  The promotional discount applicable to the rental.
-	 * @return The total price for the rental after applying discounts and promotions.
-	 */
-	private static double calculatePrices(int unitPrice, int usageDurationInSeconds, double distance, double discount, double discountProm) {
-		double price = (unitPrice * usageDurationInSeconds) * distance;
-		double totalPrice = price - ((discount/100) * price) - ((discountProm/100) * price);
+	 * @param distance  The distance which depends on narrow or wide city valute, scaled by {@link Money#SCALE}.
+	 * @param discount  The discount applicable to the rental in percent, scaled by {@link Money#SCALE}.
+	 * @param discountProm  The promotional discount applicable to the rental in percent, scaled by {@link Money#SCALE}.
+	 * @return The total price for the rental after applying discounts and promotions, in cents.
+	 */
+	private static long calculatePrices(int unitPrice, int usageDurationInSeconds, long distance, long discount, long discountProm) {
+		long price = Money.multiply(Money.ofUnits((long) unitPrice * usageDurationInSeconds), distance);
+		long totalPrice = price - Money.percentOf(price, discount) - Money.percentOf(price, discountProm);
 		return totalPrice;
 	}
 	
 	
 	/**
-	 * Retrieves the value associated with a specific key from a default property file.
+	 * Retrieves the value associated with a specific key from the default property file.
+	 * <p>The value is taken from the cached {@link TariffConfig}, so the file isn't read again.</p>
 	 * 
 	 * @param key  The key whos associated value is to be returned.
-	 * @return  The value associated with the specified key, or an empty string if the key is not found.
+	 * @return  The value associated with the specified key, or {@code null} if the key is not found.
 	 */
 	public static String returnValueFromPropertieFile(String key) {
-		Properties properties = new Properties();
-		File file = new File(FILE_WITH_VALUES + EXTENSION);
-		String value = "";
-		if(file.exists()) {
-			try {
-				FileInputStream fileInputStream = new FileInputStream(file);
-				try {
-					properties.load(fileInputStream);
-					value = properties.getProperty(key);
-					fileInputStream.close();
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-			} catch (FileNotFoundException e) {
-				e.printStackTrace();
-			}
-		}
-		return value;
+		return TariffConfig.getCurrent().getValue(key);
 	}
 	
 
@@ -0,0 +1,172 @@
+package org.unibl.etf.epj2.rentals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+
+/**
+ * Utility class for converting rental date and time strings into primitive timestamps.
+ * <p>Rental files store the date and time in the {@value #PATTERN} format (for example {@code 1.6.2024 09:00}).
+ * The formatter is created only once and shared by all callers.</p>
+ * 
+ * @author Tamara Kosovac
+ */
+public final class RentalDateTime {
+	/**
+	 * The pattern of the rental date and time in the rental data file.
+	 */
+	public static final String PATTERN = "d.M.yyyy HH:mm";
+	
+	/**
+	 * Cached formatter for the rental date and time.
+	 */
+	private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+	
+	/**
+	 * Cached formatter for the rental date, used as the key of daily reports.
+	 */
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d.M.yyyy");
+	
+	/**
+	 * Cached formatter for the month, used as the key of monthly reports.
+	 */
+	private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("M.yyyy");
+	
+	/**
+	 * Number of seconds in one minute.
+	 */
+	private static final int SECONDS_PER_MINUTE = 60;
+	
+	/**
+	 * Number of minutes in one hour.
+	 */
+	public static final int MINUTES_PER_HOUR = 60;
+	
+	/**
+	 * Number of hours in one day.
+	 */
+	public static final int HOURS_PER_DAY = 24;
+	
+	/**
+	 * Number of minutes in one day.
+	 */
+	public static final int MINUTES_PER_DAY = HOURS_PER_DAY * MINUTES_PER_HOUR;
+	
+	private RentalDateTime() {
+	}
+	
+	/**
+	 * Parses the rental date and time into the number of minutes since the epoch.
+	 * 
+	 * @param rentalDateTime  The rental date and time, for example {@code 1.6.2024 09:00}.
+	 * @return The number of minutes since 1.1.1970 00:00.
+	 * @throws java.time.format.DateTimeParseException  If the text can't be parsed.
+	 */
+	public static long toEpochMinutes(String rentalDateTime) {
+		return LocalDateTime.parse(rentalDateTime.trim(), FORMATTER).toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_MINUTE;
+	}
+	
+	/**
+	 * Returns the day of the timestamp.
+	 * 
+	 * @param epochMinutes  The number of minutes since the epoch.
+	 * @return The number of days since the epoch.
+	 */
+	public static long toEpochDay(long epochMinutes) {
+		return Math.floorDiv(epochMinutes, MINUTES_PER_DAY);
+	}
+	
+	/**
+	 * Returns the hour of the timestamp.
+	 * 
+	 * @param epochMinutes  The number of minutes since the epoch.
+	 * @return The number of hours since the epoch.
+	 */
+	public static long toEpochHour(long epochMinutes) {
+		return Math.floorDiv(epochMinutes, MINUTES_PER_HOUR);
+	}
+	
+	/**
+	 * Returns the day of the hour.
+	 * 
+	 * @param epochHour  The number of hours since the epoch.
+	 * @return The number of days since the epoch.
+	 */
+	public static long hourToEpochDay(long epochHour) {
+		return Math.floorDiv(epochHour, HOURS_PER_DAY);
+	}
+	
+	/**
+	 * Returns the first day of the ISO week of the day, which is always a Monday.
+	 * 
+	 * @param epochDay  The number of days since the epoch.
+	 * @return The Monday of the week, in days since the epoch.
+	 */
+	public static long toWeekStart(long epochDay) {
+		// 1.1.1970 was a Thursday, so Monday is three days before the epoch.
+		return epochDay - Math.floorMod(epochDay + 3, 7);
+	}
+	
+	/**
+	 * Returns the first day of the month of the day.
+	 * 
+	 * @param epochDay  The number of days since the epoch.
+	 * @return The first day of the month, in days since the epoch.
+	 */
+	public static long toMonthStart(long epochDay) {
+		return LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+	}
+	
+	/**
+	 * Formats the hour, for example {@code 1.6.2024 09:00}.
+	 * 
+	 * @param epochHour  The number of hours since the epoch.
+	 * @return The formatted date and hour.
+	 */
+	public static String formatHour(long epochHour) {
+		return format(epochHour * MINUTES_PER_HOUR);
+	}
+	
+	/**
+	 * Formats the ISO week as its week-based year and number, for example {@code 2024-W22}.
+	 * 
+	 * @param weekStart  The Monday of the week, in days since the epoch.
+	 * @return The formatted week.
+	 */
+	public static String formatWeek(long weekStart) {
+		LocalDate monday = LocalDate.ofEpochDay(weekStart);
+		return String.format("%d-W%02d", monday.get(IsoFields.WEEK_BASED_YEAR), monday.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+	}
+	
+	/**
+	 * Formats the month, for example {@code 6.2024}.
+	 * 
+	 * @param monthStart  The first day of the month, in days since the epoch.
+	 * @return The formatted month.
+	 */
+	public static String formatMonth(long monthStart) {
+		return LocalDate.ofEpochDay(monthStart).format(MONTH_FORMATTER);
+	}
+	
+	/**
+	 * Formats the day in the same format as the date of the rental, for example {@code 1.6.2024}.
+	 * 
+	 * @param epochDay  The number of days since the epoch.
+	 * @return The formatted date.
+	 */
+	public static String formatDate(long epochDay) {
+		return LocalDate.ofEpochDay(epochDay).format(DATE_FORMATTER);
+	}
+	
+	/**
+	 * Formats the timestamp in the format of the rental data file, for example {@code 1.6.2024 09:00}.
+	 * 
+	 * @param epochMinutes  The number of minutes since the epoch.
+	 * @return The formatted date and time.
+	 */
+	public static String format(long epochMinutes) {
+		return LocalDateTime.ofEpochSecond(epochMinutes * SECONDS_PER_MINUTE, 0, ZoneOffset.UTC).format(FORMATTER);
+	}
+}
@@ -0,0 +1,162 @@
+package org.unibl.etf.epj2.rentals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index used to detect duplicate rentals while reading the rental data file.
+ * <p>A rental is identified by the index of its vehicle in the {@link org.unibl.etf.epj2.vehicles.VehicleRegistry}
+ * and its date and time in minutes since the epoch. Both values are packed into a single {@code long} key and
+ * stored in an open addressing hash set, so every check is done in constant time without creating objects.
+ * Rejected rentals are collected into a list of {@link DuplicateRental} objects.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class RentalDuplicateIndex {
+	/**
+	 * The initial capacity of the hash table, must be a power of two.
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Value that marks an empty slot in the hash table.
+	 */
+	private static final long EMPTY = 0L;
+
+	/**
+	 * Hash table with packed keys of accepted rentals.
+	 */
+	private long[] keys = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Number of keys in the hash table, not counting the {@link #EMPTY} key.
+	 */
+	private int size;
+
+	/**
+	 * Indicates whether the key equal to {@link #EMPTY} was added.
+	 */
+	private boolean containsEmptyKey;
+
+	/**
+	 * List of rentals that were rejected as duplicates.
+	 */
+	private final List<DuplicateRental> duplicateRentals = new ArrayList<>();
+
+	/**
+	 * Packs the vehicle index and the rental time into a single key.
+	 *
+	 * @param vehicleIndex  The index of the vehicle in the vehicle registry.
+	 * @param epochMinutes  The date and time of the rental in minutes since the epoch.
+	 * @return The packed key.
+	 */
+	public static long key(int vehicleIndex, long epochMinutes) {
+		return ((long) vehicleIndex << 32) | (epochMinutes & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Checks if the rental with the specified key was already accepted.
+	 *
+	 * @param key  The packed key of the rental.
+	 * @return {@code true} if the key exists; {@code false} otherwise
+	 */
+	public boolean contains(long key) {
+		if(key == EMPTY) {
+			return containsEmptyKey;
+		}
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while(keys[slot] != EMPTY) {
+			if(keys[slot] == key) {
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the key of an accepted rental.
+	 *
+	 * @param key  The packed key of the rental.
+	 * @return {@code true} if the key was added; {@code false} if it already existed
+	 */
+	public boolean add(long key) {
+		if(key == EMPTY) {
+			boolean added = !containsEmptyKey;
+			containsEmptyKey = true;
+			return added;
+		}
+		if((size + 1) * 2 > keys.length) {
+			resize();
+		}
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while(keys[slot] != EMPTY) {
+			if(keys[slot] == key) {
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Records a rental that was rejected as a duplicate.
+	 *
+	 * @param duplicateRental  The rejected rental.
+	 */
+	public void reportDuplicate(DuplicateRental duplicateRental) {
+		duplicateRentals.add(duplicateRental);
+	}
+
+	/**
+	 * Returns the list of rentals that were rejected as duplicates.
+	 *
+	 * @return An unmodifiable list of duplicate rentals.
+	 */
+	public List<DuplicateRental> getDuplicateRentals() {
+		return Collections.unmodifiableList(duplicateRentals);
+	}
+
+	/**
+	 * Returns the number of accepted keys.
+	 *
+	 * @return The number of keys in the index.
+	 */
+	public int size() {
+		return containsEmptyKey ? size + 1 : size;
+	}
+
+	/**
+	 * Doubles the capacity of the hash table and inserts all keys again.
+	 */
+	private void resize() {
+		long[] oldKeys = keys;
+		keys = new long[oldKeys.length * 2];
+		int mask = keys.length - 1;
+		for(long key : oldKeys) {
+			if(key != EMPTY) {
+				int slot = hash(key) & mask;
+				while(keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of the key so that keys which differ only in high bits end up in different slots.
+	 *
+	 * @param key  The packed key.
+	 * @return The hash of the key.
+	 */
+	private static int hash(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+}
@@ -0,0 +1,122 @@
+package org.unibl.etf.epj2.rentals;
+
+import org.unibl.etf.epj2.money.Money;
+
+/**
+ * Prices of a list of rentals, calculated by {@link RentalCalculator#priceAll(java.util.List)}.
+ * <p>The results are kept in primitive arrays indexed like the priced list, instead of one object per rental,
+ * so pricing a whole day of rentals creates only a few arrays.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class RentalPrices {
+	/**
+	 * Total prices of the rentals after discounts, in cents.
+	 */
+	private final long[] totalPrices;
+
+	/**
+	 * Discounts in percent applied to the rentals, scaled by {@link Money#SCALE}.
+	 */
+	private final long[] discounts;
+
+	/**
+	 * Promotional discounts in percent applied to the rentals, scaled by {@link Money#SCALE}.
+	 */
+	private final long[] discountProms;
+
+	/**
+	 * Whether the rentals were in the narrow part of the city.
+	 */
+	private final boolean[] narrow;
+
+	/**
+	 * Constructs empty prices for the specified number of rentals.
+	 *
+	 * @param size  The number of rentals.
+	 */
+	RentalPrices(int size) {
+		this.totalPrices = new long[size];
+		this.discounts = new long[size];
+		this.discountProms = new long[size];
+		this.narrow = new boolean[size];
+	}
+
+	/**
+	 * Returns the number of priced rentals.
+	 *
+	 * @return The number of rentals.
+	 */
+	public int size() {
+		return totalPrices.length;
+	}
+
+	/**
+	 * Returns the total price of the rental at the specified index.
+	 *
+	 * @param index  The index of the rental in the priced list.
+	 * @return The total price in cents.
+	 */
+	public long getTotalPrice(int index) {
+		return totalPrices[index];
+	}
+
+	/**
+	 * Returns the discount in percent applied to the rental at the specified index.
+	 *
+	 * @param index  The index of the rental in the priced list.
+	 * @return The discount, scaled by {@link Money#SCALE}.
+	 */
+	public long getDiscount(int index) {
+		return discounts[index];
+	}
+
+	/**
+	 * Returns the promotional discount in percent applied to the rental at the specified index.
+	 *
+	 * @param index  The index of the rental in the priced list.
+	 * @return The promotional discount, scaled by {@link Money#SCALE}.
+	 */
+	public long getDiscountProm(int index) {
+		return discountProms[index];
+	}
+
+	/**
+	 * Returns whether the rental at the specified index was in the narrow part of the city.
+	 *
+	 * @param index  The index of the rental in the priced list.
+	 * @return {@code true} if the rental was in the narrow part of the city, {@code false} otherwise
+	 */
+	public boolean isNarrow(int index) {
+		return narrow[index];
+	}
+
+	/**
+	 * Returns the sum of all total prices.
+	 *
+	 * @return The total income of the priced rentals in cents.
+	 */
+	public long totalIncome() {
+		long totalIncome = 0L;
+		for(long totalPrice : totalPrices) {
+			totalIncome += totalPrice;
+		}
+		return totalIncome;
+	}
+
+	/**
+	 * Stores the price of the rental at the specified index.
+	 *
+	 * @param index         The index of the rental.
+	 * @param totalPrice    The total price in cents.
+	 * @param discount      The discount in percent, scaled by {@link Money#SCALE}.
+	 * @param discountProm  The promotional discount in percent, scaled by {@link Money#SCALE}.
+	 * @param narrow        Whether the rental was in the narrow part of the city.
+	 */
+	void set(int index, long totalPrice, long discount, long discountProm, boolean narrow) {
+		this.totalPrices[index] = totalPrice;
+		this.discounts[index] = discount;
+		this.discountProms[index] = discountProm;
+		this.narrow[index] = narrow;
+	}
+}
@@ -0,0 +1,69 @@
+package org.unibl.etf.epj2.rentals;
+
+import java.util.List;
+
+import org.unibl.etf.epj2.drivers.DriverRegistry;
+
+/**
+ * The result of reading the rental data file with {@link ReadRentals#readRentals(org.unibl.etf.epj2.vehicles.VehicleRegistry)}.
+ * <p>It holds the accepted rentals together with the rentals rejected as duplicates and the drivers that appeared
+ * in the file, so every reading returns its own results.</p>
+ * 
+ * @author Tamara Kosovac
+ */
+public class RentalReadResult {
+	/**
+	 * The accepted rentals, sorted chronologically.
+	 */
+	private final List<Rental> rentals;
+	
+	/**
+	 * The rentals rejected as duplicates, in the order of the file.
+	 */
+	private final List<DuplicateRental> duplicateRentals;
+	
+	/**
+	 * The drivers that appeared in the file.
+	 */
+	private final DriverRegistry drivers;
+	
+	/**
+	 * Constructs a new RentalReadResult.
+	 * 
+	 * @param rentals           The accepted rentals, sorted chronologically.
+	 * @param duplicateRentals  The rentals rejected as duplicates.
+	 * @param drivers           The drivers that appeared in the file.
+	 */
+	public RentalReadResult(List<Rental> rentals, List<DuplicateRental> duplicateRentals, DriverRegistry drivers) {
+		this.rentals = rentals;
+		this.duplicateRentals = duplicateRentals;
+		this.drivers = drivers;
+	}
+	
+	/**
+	 * Returns the accepted rentals.
+	 * 
+	 * @return rentals  The rentals, sorted chronologically by {@link Rental#getRentalTimestamp()}.
+	 */
+	public List<Rental> getRentals() {
+		return rentals;
+	}
+	
+	/**
+	 * Returns the rentals that were rejected as duplicates.
+	 * 
+	 * @return duplicateRentals  The list of duplicate rentals.
+	 */
+	public List<DuplicateRental> getDuplicateRentals() {
+		return duplicateRentals;
+	}
+	
+	/**
+	 * Returns the drivers that appeared in the rental data file.
+	 * 
+	 * @return drivers  The registry of drivers.
+	 */
+	public DriverRegistry getDrivers() {
+		return drivers;
+	}
+}
@@ -0,0 +1,174 @@
+package org.unibl.etf.epj2.rentals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.unibl.etf.epj2.drivers.Driver;
+import org.unibl.etf.epj2.drivers.DriverRegistry;
+import org.unibl.etf.epj2.io.CsvRow;
+import org.unibl.etf.epj2.io.CsvRowHandler;
+import org.unibl.etf.epj2.malfunctions.Malfunction;
+import org.unibl.etf.epj2.vehicles.VehicleRegistry;
+
+/**
+ * Parses rows of the rental data file into rental candidates.
+ * <p>Every chunk of the file gets its own handler, which keeps the rentals in file order together with their
+ * duplicate keys and line numbers. Duplicates are not checked here, but when {@link ReadRentals} merges the
+ * chunks, so the result doesn't depend on how the file was split.</p>
+ *
+ * @author Tamara Kosovac
+ */
+class RentalRowHandler implements CsvRowHandler {
+	/**
+	 * The initial capacity of the key and line number arrays.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * The registry of available vehicles.
+	 */
+	private final VehicleRegistry vehicles;
+
+	/**
+	 * The registry of drivers, shared by all chunks.
+	 */
+	private final DriverRegistry drivers;
+
+	/**
+	 * Parsed rentals in file order.
+	 */
+	private final List<Rental> rentals = new ArrayList<>();
+
+	/**
+	 * Duplicate keys of the parsed rentals, see {@link RentalDuplicateIndex#key(int, long)}.
+	 */
+	private long[] keys = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Line numbers of the parsed rentals, relative to the chunk.
+	 */
+	private long[] lineNumbers = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Reusable array for the coordinates of the current row.
+	 */
+	private final int[] coordinates = new int[4];
+
+	/**
+	 * Constructs a handler that creates rentals for the specified vehicles and drivers.
+	 *
+	 * @param vehicles   The registry of available vehicles.
+	 * @param drivers    The registry of drivers.
+	 */
+	RentalRowHandler(VehicleRegistry vehicles, DriverRegistry drivers) {
+		this.vehicles = vehicles;
+		this.drivers = drivers;
+	}
+
+	/**
+	 * Parses a row of the rental data file.
+	 * <p>The header row, rows in an invalid format and rentals of unknown vehicles are skipped.</p>
+	 *
+	 * @param row  The parsed row.
+	 */
+	@Override
+	public void handleRow(CsvRow row) {
+		if(row.matches(0, ReadRentals.DATE)) {
+			return;
+		}
+		try {
+			String rentalDateTime = row.getString(0);
+			String nameOfTheDriver = row.getString(1);
+			String idOfVehicle = row.getString(2);
+			int field = ReadRentals.readLocation(row, 3, coordinates, 0);
+			field = ReadRentals.readLocation(row, field, coordinates, 2);
+			if(row.getFieldCount() != field + 3) {
+				System.out.println("Invalid data format in line " + row.getLineNumber() + ": " + row);
+				return;
+			}
+			int usageDurationInSeconds = row.getInt(field);
+			String hasMalfunction = row.matches(field + 1, ReadRentals.YES) ? ReadRentals.YES : row.getString(field + 1);
+			Malfunction malfunction = null;
+			if(ReadRentals.YES.equals(hasMalfunction)) {
+				malfunction = new Malfunction(hasMalfunction, rentalDateTime);
+			} else {
+				malfunction = new Malfunction(hasMalfunction);
+			}
+			String promotion = row.matches(field + 2, ReadRentals.YES) ? ReadRentals.YES : row.getString(field + 2);
+			Driver driver = drivers.findOrCreateDriver(nameOfTheDriver);
+			int vehicleIndex = vehicles.indexOf(idOfVehicle);
+			if(vehicleIndex == VehicleRegistry.NOT_FOUND) {
+				if(ReadRentals.isFirstCall()) {
+					System.out.println("Vehicle with id " + idOfVehicle + " doesn't exist.");
+				}
+				return;
+			}
+			Rental rental = new Rental(rentalDateTime, driver, vehicles.get(vehicleIndex), coordinates[0], coordinates[1], coordinates[2], coordinates[3],
+					usageDurationInSeconds, malfunction, promotion);
+			add(rental, RentalDuplicateIndex.key(vehicleIndex, rental.getRentalTimestamp()), row.getLineNumber());
+		} catch(NumberFormatException exception) {
+			exception.printStackTrace();
+		} catch(Exception e) {
+			System.out.println("Unexpected error for line " + row.getLineNumber() + ": " + row);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Returns the number of parsed rentals.
+	 *
+	 * @return The number of rentals.
+	 */
+	int size() {
+		return rentals.size();
+	}
+
+	/**
+	 * Returns the parsed rental at the specified index.
+	 *
+	 * @param index  The index of the rental.
+	 * @return The rental.
+	 */
+	Rental getRental(int index) {
+		return rentals.get(index);
+	}
+
+	/**
+	 * Returns the duplicate key of the rental at the specified index.
+	 *
+	 * @param index  The index of the rental.
+	 * @return The packed key of the rental.
+	 */
+	long getKey(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * Returns the line number of the rental at the specified index, relative to the chunk.
+	 *
+	 * @param index  The index of the rental.
+	 * @return The line number.
+	 */
+	long getLineNumber(int index) {
+		return lineNumbers[index];
+	}
+
+	/**
+	 * Adds a parsed rental.
+	 *
+	 * @param rental      The rental.
+	 * @param key         The duplicate key of the rental.
+	 * @param lineNumber  The line number of the rental.
+	 */
+	private void add(Rental rental, long key, long lineNumber) {
+		int index = rentals.size();
+		if(index == keys.length) {
+			keys = Arrays.copyOf(keys, index * 2);
+			lineNumbers = Arrays.copyOf(lineNumbers, index * 2);
+		}
+		keys[index] = key;
+		lineNumbers[index] = lineNumber;
+		rentals.add(rental);
+	}
+}
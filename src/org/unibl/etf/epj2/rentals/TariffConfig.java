@@ -0,0 +1,265 @@
+package org.unibl.etf.epj2.rentals;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.unibl.etf.epj2.money.Money;
+
+/**
+ * Immutable snapshot of the configuration from the {@code values.properties} file.
+ * <p>The file is read once, when the class is first used, and the values are kept as typed fields, so pricing a
+ * rental doesn't touch the file system. The current snapshot is returned by {@link #getCurrent()} and can be
+ * replaced with {@link #reload()}. Because a snapshot never changes, a caller that takes it once sees consistent
+ * values, even if the configuration is reloaded in the meantime.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public final class TariffConfig {
+	/**
+	 * The key that enables the audit export of rentals into properties files.
+	 */
+	public static final String AUDIT_EXPORT = "AUDIT_EXPORT";
+
+	/**
+	 * The path of the default properties file.
+	 */
+	public static final Path DEFAULT_PATH = Paths.get(RentalCalculator.FILE_WITH_VALUES + RentalCalculator.EXTENSION);
+
+	/**
+	 * The current configuration.
+	 */
+	private static final AtomicReference<TariffConfig> CURRENT = new AtomicReference<>(load(DEFAULT_PATH));
+
+	/**
+	 * All values from the properties file, used for values without a typed field.
+	 */
+	private final Properties properties;
+
+	/**
+	 * The folder where bills are stored.
+	 */
+	private final String folderName;
+
+	/**
+	 * The file with vehicles.
+	 */
+	private final String fileWithVehicles;
+
+	/**
+	 * The file with rentals.
+	 */
+	private final String fileWithRentals;
+
+	/**
+	 * The distance multiplier for rides in the narrow part of the city, scaled by {@link Money#SCALE}.
+	 */
+	private final long distanceNarrow;
+
+	/**
+	 * The distance multiplier for rides in the wide part of the city, scaled by {@link Money#SCALE}.
+	 */
+	private final long distanceWide;
+
+	/**
+	 * The discount in percent for every {@value RentalCalculator#DRIVER_COUNT}th ride of a driver, scaled by
+	 * {@link Money#SCALE}.
+	 */
+	private final long discount;
+
+	/**
+	 * The discount in percent for rentals with a promotion, scaled by {@link Money#SCALE}.
+	 */
+	private final long discountProm;
+
+	/**
+	 * Whether the pricing inputs of rentals are exported into properties files.
+	 */
+	private final boolean auditExport;
+
+	/**
+	 * Constructs a configuration from the loaded properties.
+	 *
+	 * @param properties  The loaded properties.
+	 */
+	private TariffConfig(Properties properties) {
+		this.properties = properties;
+		this.folderName = properties.getProperty("FOLDER_NAME", "");
+		this.fileWithVehicles = properties.getProperty("FILE_WITH_VEHICLES", "");
+		this.fileWithRentals = properties.getProperty("FILE_WITH_RENTALS", "");
+		this.distanceNarrow = parseScaled(properties, RentalCalculator.DISTANCE_NARROW);
+		this.distanceWide = parseScaled(properties, RentalCalculator.DISTANCE_WIDE);
+		this.discount = parseScaled(properties, RentalCalculator.DISCOUNT);
+		this.discountProm = parseScaled(properties, RentalCalculator.DISCOUNT_PROM);
+		this.auditExport = Boolean.parseBoolean(properties.getProperty(AUDIT_EXPORT, "false").trim());
+	}
+
+	/**
+	 * Returns the current configuration.
+	 *
+	 * @return The current configuration.
+	 */
+	public static TariffConfig getCurrent() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Reads the default properties file again and replaces the current configuration.
+	 *
+	 * @return The new configuration.
+	 */
+	public static TariffConfig reload() {
+		return reload(DEFAULT_PATH);
+	}
+
+	/**
+	 * Reads the specified properties file and replaces the current configuration.
+	 * <p>The new configuration is loaded completely before it replaces the old one, so other threads see either
+	 * the old or the new values, never a mix of both.</p>
+	 *
+	 * @param path  The path of the properties file.
+	 * @return The new configuration.
+	 */
+	public static TariffConfig reload(Path path) {
+		TariffConfig config = load(path);
+		CURRENT.set(config);
+		return config;
+	}
+
+	/**
+	 * Reads the configuration from the properties file.
+	 * <p>If the file doesn't exist or can't be read, the configuration is empty.</p>
+	 *
+	 * @param path  The path of the properties file.
+	 * @return The loaded configuration.
+	 */
+	public static TariffConfig load(Path path) {
+		Properties properties = new Properties();
+		if(Files.exists(path)) {
+			try(FileInputStream fileInputStream = new FileInputStream(path.toFile())) {
+				properties.load(fileInputStream);
+			} catch(IOException exception) {
+				exception.printStackTrace();
+			}
+		}
+		return new TariffConfig(properties);
+	}
+
+	/**
+	 * Parses a decimal value from the properties, scaled by {@link Money#SCALE}.
+	 *
+	 * @param properties  The loaded properties.
+	 * @param key         The key of the value.
+	 * @return The scaled value, or zero if it is missing or isn't a number.
+	 */
+	private static long parseScaled(Properties properties, String key) {
+		String value = properties.getProperty(key);
+		if(value == null) {
+			return 0L;
+		}
+		try {
+			return Money.parse(value);
+		} catch(NumberFormatException | ArithmeticException exception) {
+			exception.printStackTrace();
+			return 0L;
+		}
+	}
+
+	/**
+	 * Returns the value associated with the key.
+	 *
+	 * @param key  The key whose associated value is to be returned.
+	 * @return The value, or {@code null} if the key is not found.
+	 */
+	public String getValue(String key) {
+		return properties.getProperty(key);
+	}
+
+	/**
+	 * Returns the folder where bills are stored.
+	 *
+	 * @return folderName  The name of the folder.
+	 */
+	public String getFolderName() {
+		return folderName;
+	}
+
+	/**
+	 * Returns the file with vehicles.
+	 *
+	 * @return fileWithVehicles  The path of the file with vehicles.
+	 */
+	public String getFileWithVehicles() {
+		return fileWithVehicles;
+	}
+
+	/**
+	 * Returns the file with rentals.
+	 *
+	 * @return fileWithRentals  The path of the file with rentals.
+	 */
+	public String getFileWithRentals() {
+		return fileWithRentals;
+	}
+
+	/**
+	 * Returns the distance multiplier for rides in the narrow part of the city, scaled by {@link Money#SCALE}.
+	 *
+	 * @return distanceNarrow  The narrow distance multiplier.
+	 */
+	public long getDistanceNarrow() {
+		return distanceNarrow;
+	}
+
+	/**
+	 * Returns the distance multiplier for rides in the wide part of the city, scaled by {@link Money#SCALE}.
+	 *
+	 * @return distanceWide  The wide distance multiplier.
+	 */
+	public long getDistanceWide() {
+		return distanceWide;
+	}
+
+	/**
+	 * Returns the distance multiplier of the ride, scaled by {@link Money#SCALE}.
+	 *
+	 * @param narrow  Whether the ride is in the narrow part of the city.
+	 * @return The distance multiplier.
+	 */
+	public long getDistance(boolean narrow) {
+		return narrow ? distanceNarrow : distanceWide;
+	}
+
+	/**
+	 * Returns the discount in percent for every {@value RentalCalculator#DRIVER_COUNT}th ride of a driver, scaled by
+	 * {@link Money#SCALE}.
+	 *
+	 * @return discount  The discount.
+	 */
+	public long getDiscount() {
+		return discount;
+	}
+
+	/**
+	 * Returns the discount in percent for rentals with a promotion, scaled by {@link Money#SCALE}.
+	 *
+	 * @return discountProm  The promotional discount.
+	 */
+	public long getDiscountProm() {
+		return discountProm;
+	}
+
+	/**
+	 * Returns whether the pricing inputs of rentals are exported into properties files, see
+	 * {@link RentalCalculator#writeInPropertieFile(java.util.List)}.
+	 *
+	 * @return auditExport  {@code true} if the export is enabled, {@code false} otherwise
+	 */
+	public boolean isAuditExport() {
+		return auditExport;
+	}
+}
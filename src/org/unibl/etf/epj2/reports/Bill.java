@@ -1,5 +1,8 @@
 package org.unibl.etf.epj2.reports;
 
+import org.unibl.etf.epj2.money.Money;
+import org.unibl.etf.epj2.rentals.RentalDateTime;
+
 /**
  * Represents a bill for a vehicle rental.
  * <p>The {@code Bill} class encapsulates all relevant details about a rental transaction, including
@@ -14,6 +17,11 @@ public class Bill {
 	 */
 	private String rentalDateTime;
 	
+	/**
+	 * Represents the rental date and time in minutes since the epoch, parsed once from {@link #rentalDateTime}.
+	 */
+	private long rentalTimestamp;
+	
 	/**
 	 * Represents the name of the driver who rented the vehicle.
 	 */
@@ -55,19 +63,19 @@ public class Bill {
 	private String hasPromotion;
 	
 	/**
-	 * Represents the amount of dicount applied to the rental.
+	 * Represents the amount of dicount applied to the rental, in percent scaled by {@link Money#SCALE}.
 	 */
-	private double discount;
+	private long discount;
 	
 	/**
-	 * Represents the amount of promotional discount applied to the rental.
+	 * Represents the amount of promotional discount applied to the rental, in percent scaled by {@link Money#SCALE}.
 	 */
-	private double discountProm;
+	private long discountProm;
 	
 	/**
-	 * Represents the total price of the rental after applying dicounts and promotions.
+	 * Represents the total price of the rental after applying dicounts and promotions, in cents.
 	 */
-	private double totalPrice;
+	private long totalPrice;
 	
 	/**
 	 * Indicates whether the rental was in a narrow city area.
@@ -86,16 +94,18 @@ public class Bill {
 	 * @param usageDurationInSeconds The duration of the rental in seconds.
 	 * @param hasMalfunction         Indicates if there was a malfunction during the rental.
 	 * @param hasPromotion           Indicates if a promotion was applied.
-	 * @param discount               The amount of discount applied.
-	 * @param discountProm           The amount of promotional discount applied.
-	 * @param totalPrice             The total price of the rental.
+	 * @param discount               The amount of discount applied, in percent scaled by {@link Money#SCALE}.
+	 * @param discountProm           The amount of promotional discount applied, in percent scaled by {@link Money#SCALE}.
+	 * @param totalPrice             The total price of the rental in cents.
 	 * @param inNarrowCity           Indicates if the rental was in a narrow city area.
+	 * @throws java.time.format.DateTimeParseException  If the date and time of the rental can't be parsed.
 	 */
 	public Bill(String rentalDateTime, String nameOfTheDriver, String idOfVehicle, int unitPrice, String startLocation,
 			String finishLocation, int usageDurationInSeconds, String hasMalfunction, String hasPromotion,
-			double discount, double discountProm, double totalPrice, String inNarrowCity) {
+			long discount, long discountProm, long totalPrice, String inNarrowCity) {
 		super();
 		this.rentalDateTime = rentalDateTime;
+		this.rentalTimestamp = RentalDateTime.toEpochMinutes(rentalDateTime);
 		this.nameOfTheDriver = nameOfTheDriver;
 		this.idOfVehicle = idOfVehicle;
 		this.unitPrice = unitPrice;
@@ -126,6 +136,25 @@ public class Bill {
 	 */
 	public void setRentalDateTime(String rentalDateTime) {
 		this.rentalDateTime = rentalDateTime;
+		this.rentalTimestamp = RentalDateTime.toEpochMinutes(rentalDateTime);
+	}
+	
+	/**
+	 * Returns the rental date and time in minutes since the epoch.
+	 * 
+	 * @return rentalTimestamp  The rental timestamp.
+	 */
+	public long getRentalTimestamp() {
+		return rentalTimestamp;
+	}
+	
+	/**
+	 * Returns the day of the rental in days since the epoch.
+	 * 
+	 * @return The rental day.
+	 */
+	public long getRentalDay() {
+		return RentalDateTime.toEpochDay(rentalTimestamp);
 	}
 	
 	/**
@@ -259,9 +288,9 @@ public class Bill {
 	/**
 	 * Returns the amount of discount applied.
 	 * 
-	 * @return discount  The amount of the discount.
+	 * @return discount  The amount of the discount, in percent scaled by {@link Money#SCALE}.
 	 */
-	public double getDiscount() {
+	public long getDiscount() {
 		return discount;
 	}
 	
@@ -270,16 +299,16 @@ public class Bill {
 	 * 
 	 * @param discount  The new amount of the discount to set.
 	 */
-	public void setDiscount(double discount) {
+	public void setDiscount(long discount) {
 		this.discount = discount;
 	}
 	
 	/**
 	 * Returns the amount of promotional discount applied.
 	 * 
-	 * @return discountProm  The amount of the discount prom.
+	 * @return discountProm  The amount of the discount prom, in percent scaled by {@link Money#SCALE}.
 	 */
-	public double getDiscountProm() {
+	public long getDiscountProm() {
 		return discountProm;
 	}
 	
@@ -288,25 +317,25 @@ public class Bill {
 	 * 
 	 * @param discountProm  The new amount of the dicount prom to set.
 	 */
-	public void setDiscountProm(double discountProm) {
+	public void setDiscountProm(long discountProm) {
 		this.discountProm = discountProm;
 	}
 	
 	/**
 	 * Returns the total price of the rental.
 	 * 
-	 * @return totalPrice  The total price of rental.
+	 * @return totalPrice  The total price of rental in cents.
 	 */
-	public double getTotalPrice() {
+	public long getTotalPrice() {
 		return totalPrice;
 	}
 	
 	/**
 	 * Sets the total price of the rental.
 	 * 
-	 * @param totalPrice  The new total price to set.
+	 * @param totalPrice  The new total price in cents to set.
 	 */
-	public void setTotalPrice(double totalPrice) {
+	public void setTotalPrice(long totalPrice) {
 		this.totalPrice = totalPrice;
 	}
 
@@ -0,0 +1,284 @@
+package org.unibl.etf.epj2.reports;
+
+import java.util.List;
+
+import org.unibl.etf.epj2.rentals.RentalCalculator;
+import org.unibl.etf.epj2.rentals.RentalDateTime;
+
+/**
+ * Index-based view of the values of bills that reports are calculated from.
+ * <p>Reports read bills one column at a time, such as all total prices, so a source can keep its values in
+ * primitive form, for example a memory-mapped file of fixed-width records, instead of one {@link Bill} object per
+ * rental. {@link #of(List)} adapts a list of bills.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public interface BillColumns {
+	/**
+	 * Vehicle type of cars.
+	 */
+	int CAR = 0;
+
+	/**
+	 * Vehicle type of bikes.
+	 */
+	int BIKE = 1;
+
+	/**
+	 * Vehicle type of scooters.
+	 */
+	int SCOOTER = 2;
+
+	/**
+	 * Returns the number of bills.
+	 *
+	 * @return The number of bills.
+	 */
+	int size();
+
+	/**
+	 * Returns the rental date and time of the bill in minutes since the epoch.
+	 *
+	 * @param index  The index of the bill.
+	 * @return The rental timestamp.
+	 */
+	long getRentalTimestamp(int index);
+
+	/**
+	 * Returns the total price of the bill.
+	 *
+	 * @param index  The index of the bill.
+	 * @return The total price in cents.
+	 */
+	long getTotalPrice(int index);
+
+	/**
+	 * Returns the discount of the bill.
+	 *
+	 * @param index  The index of the bill.
+	 * @return The discount in percent, scaled by {@link org.unibl.etf.epj2.money.Money#SCALE}.
+	 */
+	long getDiscount(int index);
+
+	/**
+	 * Returns the promotional discount of the bill.
+	 *
+	 * @param index  The index of the bill.
+	 * @return The promotional discount in percent, scaled by {@link org.unibl.etf.epj2.money.Money#SCALE}.
+	 */
+	long getDiscountProm(int index);
+
+	/**
+	 * Returns the unit price of the vehicle of the bill.
+	 *
+	 * @param index  The index of the bill.
+	 * @return The unit price.
+	 */
+	int getUnitPrice(int index);
+
+	/**
+	 * Returns whether the rental of the bill was in the narrow part of the city.
+	 *
+	 * @param index  The index of the bill.
+	 * @return {@code true} if the rental was in the narrow part of the city, {@code false} otherwise
+	 */
+	boolean isInNarrowCity(int index);
+
+	/**
+	 * Returns whether the vehicle of the bill had a malfunction.
+	 *
+	 * @param index  The index of the bill.
+	 * @return {@code true} if there was a malfunction, {@code false} otherwise
+	 */
+	boolean hasMalfunction(int index);
+
+	/**
+	 * Returns the type of the vehicle of the bill.
+	 *
+	 * @param index  The index of the bill.
+	 * @return One of {@link #CAR}, {@link #BIKE} and {@link #SCOOTER}.
+	 */
+	int getVehicleType(int index);
+
+	/**
+	 * Returns the usage duration of the bill.
+	 *
+	 * @param index  The index of the bill.
+	 * @return The usage duration in seconds.
+	 */
+	int getUsageDurationInSeconds(int index);
+
+	/**
+	 * Returns the key of the vehicle of the bill.
+	 * <p>Keys are dense, from zero to {@link #getVehicleKeyCount()}, so per-vehicle values can be kept in arrays.</p>
+	 *
+	 * @param index  The index of the bill.
+	 * @return The key of the vehicle.
+	 */
+	int getVehicleKey(int index);
+
+	/**
+	 * Returns the number of vehicle keys.
+	 *
+	 * @return The number of vehicle keys.
+	 */
+	int getVehicleKeyCount();
+
+	/**
+	 * Returns the id of the vehicle with the key.
+	 *
+	 * @param key  The key of the vehicle.
+	 * @return The id of the vehicle.
+	 */
+	String getIdOfVehicle(int key);
+
+	/**
+	 * Returns the key of the driver of the bill.
+	 * <p>Keys are dense, from zero to {@link #getDriverKeyCount()}, so per-driver values can be kept in arrays.</p>
+	 *
+	 * @param index  The index of the bill.
+	 * @return The key of the driver.
+	 */
+	int getDriverKey(int index);
+
+	/**
+	 * Returns the number of driver keys.
+	 *
+	 * @return The number of driver keys.
+	 */
+	int getDriverKeyCount();
+
+	/**
+	 * Returns the name of the driver with the key.
+	 *
+	 * @param key  The key of the driver.
+	 * @return The name of the driver.
+	 */
+	String getNameOfTheDriver(int key);
+
+	/**
+	 * Returns the day of the rental of the bill in days since the epoch.
+	 *
+	 * @param index  The index of the bill.
+	 * @return The rental day.
+	 */
+	default long getRentalDay(int index) {
+		return RentalDateTime.toEpochDay(getRentalTimestamp(index));
+	}
+
+	/**
+	 * Returns a view of the bills with the specified indexes.
+	 *
+	 * @param indexes  The indexes of the selected bills.
+	 * @return The view of the selected bills.
+	 */
+	default BillColumns select(int[] indexes) {
+		BillColumns columns = this;
+		return new BillColumns() {
+			@Override
+			public int size() {
+				return indexes.length;
+			}
+
+			@Override
+			public long getRentalTimestamp(int index) {
+				return columns.getRentalTimestamp(indexes[index]);
+			}
+
+			@Override
+			public long getTotalPrice(int index) {
+				return columns.getTotalPrice(indexes[index]);
+			}
+
+			@Override
+			public long getDiscount(int index) {
+				return columns.getDiscount(indexes[index]);
+			}
+
+			@Override
+			public long getDiscountProm(int index) {
+				return columns.getDiscountProm(indexes[index]);
+			}
+
+			@Override
+			public int getUnitPrice(int index) {
+				return columns.getUnitPrice(indexes[index]);
+			}
+
+			@Override
+			public boolean isInNarrowCity(int index) {
+				return columns.isInNarrowCity(indexes[index]);
+			}
+
+			@Override
+			public boolean hasMalfunction(int index) {
+				return columns.hasMalfunction(indexes[index]);
+			}
+
+			@Override
+			public int getVehicleType(int index) {
+				return columns.getVehicleType(indexes[index]);
+			}
+
+			@Override
+			public int getUsageDurationInSeconds(int index) {
+				return columns.getUsageDurationInSeconds(indexes[index]);
+			}
+
+			@Override
+			public int getVehicleKey(int index) {
+				return columns.getVehicleKey(indexes[index]);
+			}
+
+			@Override
+			public int getVehicleKeyCount() {
+				return columns.getVehicleKeyCount();
+			}
+
+			@Override
+			public String getIdOfVehicle(int key) {
+				return columns.getIdOfVehicle(key);
+			}
+
+			@Override
+			public int getDriverKey(int index) {
+				return columns.getDriverKey(indexes[index]);
+			}
+
+			@Override
+			public int getDriverKeyCount() {
+				return columns.getDriverKeyCount();
+			}
+
+			@Override
+			public String getNameOfTheDriver(int key) {
+				return columns.getNameOfTheDriver(key);
+			}
+		};
+	}
+
+	/**
+	 * Returns the vehicle type from the id of the vehicle.
+	 *
+	 * @param idOfVehicle  The id of the vehicle.
+	 * @return One of {@link #CAR}, {@link #BIKE} and {@link #SCOOTER}.
+	 */
+	static int vehicleTypeOf(String idOfVehicle) {
+		if(idOfVehicle != null && idOfVehicle.contains(RentalCalculator.CAR_FIRST_LETTER)) {
+			return CAR;
+		} else if(idOfVehicle != null && idOfVehicle.contains(RentalCalculator.BIKE_FIRST_LETTER)) {
+			return BIKE;
+		}
+		return SCOOTER;
+	}
+
+	/**
+	 * Returns a view of the list of bills.
+	 *
+	 * @param bills  The list of bills.
+	 * @return The view of the bills.
+	 */
+	static BillColumns of(List<Bill> bills) {
+		return new BillListColumns(bills);
+	}
+}
@@ -0,0 +1,136 @@
+package org.unibl.etf.epj2.reports;
+
+import java.util.List;
+
+import org.unibl.etf.epj2.rentals.ReadRentals;
+
+/**
+ * View of a list of bills as {@link BillColumns}.
+ * <p>Vehicle and driver keys are assigned with a {@link KeyDictionary} once, when the view is constructed. Bills
+ * without a vehicle id are treated as bills without a malfunction, as in the original report.</p>
+ *
+ * @author Tamara Kosovac
+ */
+class BillListColumns implements BillColumns {
+	/**
+	 * The bills.
+	 */
+	private final List<Bill> bills;
+
+	/**
+	 * Keys of the vehicles.
+	 */
+	private final KeyDictionary vehicles = new KeyDictionary();
+
+	/**
+	 * Keys of the drivers.
+	 */
+	private final KeyDictionary drivers = new KeyDictionary();
+
+	/**
+	 * The vehicle key of every bill.
+	 */
+	private final int[] vehicleKeys;
+
+	/**
+	 * The driver key of every bill.
+	 */
+	private final int[] driverKeys;
+
+	/**
+	 * Constructs a view of the list of bills and assigns the vehicle and driver keys of all bills.
+	 *
+	 * @param bills  The bills.
+	 */
+	BillListColumns(List<Bill> bills) {
+		this.bills = bills;
+		this.vehicleKeys = new int[bills.size()];
+		this.driverKeys = new int[bills.size()];
+		for(int i = 0; i < bills.size(); i++) {
+			Bill bill = bills.get(i);
+			vehicleKeys[i] = vehicles.keyOf(bill.getIdOfVehicle());
+			driverKeys[i] = drivers.keyOf(bill.getNameOfTheDriver());
+		}
+	}
+
+	@Override
+	public int size() {
+		return bills.size();
+	}
+
+	@Override
+	public long getRentalTimestamp(int index) {
+		return bills.get(index).getRentalTimestamp();
+	}
+
+	@Override
+	public long getTotalPrice(int index) {
+		return bills.get(index).getTotalPrice();
+	}
+
+	@Override
+	public long getDiscount(int index) {
+		return bills.get(index).getDiscount();
+	}
+
+	@Override
+	public long getDiscountProm(int index) {
+		return bills.get(index).getDiscountProm();
+	}
+
+	@Override
+	public int getUnitPrice(int index) {
+		return bills.get(index).getUnitPrice();
+	}
+
+	@Override
+	public boolean isInNarrowCity(int index) {
+		return Report.TRUE.equals(bills.get(index).getInNarrowCity());
+	}
+
+	@Override
+	public boolean hasMalfunction(int index) {
+		Bill bill = bills.get(index);
+		return bill.getIdOfVehicle() != null && ReadRentals.YES.equals(bill.getHasMalfunction());
+	}
+
+	@Override
+	public int getVehicleType(int index) {
+		return BillColumns.vehicleTypeOf(bills.get(index).getIdOfVehicle());
+	}
+
+	@Override
+	public int getUsageDurationInSeconds(int index) {
+		return bills.get(index).getUsageDurationInSeconds();
+	}
+
+	@Override
+	public int getVehicleKey(int index) {
+		return vehicleKeys[index];
+	}
+
+	@Override
+	public int getVehicleKeyCount() {
+		return vehicles.size();
+	}
+
+	@Override
+	public String getIdOfVehicle(int key) {
+		return vehicles.valueOf(key);
+	}
+
+	@Override
+	public int getDriverKey(int index) {
+		return driverKeys[index];
+	}
+
+	@Override
+	public int getDriverKeyCount() {
+		return drivers.size();
+	}
+
+	@Override
+	public String getNameOfTheDriver(int key) {
+		return drivers.valueOf(key);
+	}
+}
@@ -0,0 +1,102 @@
+package org.unibl.etf.epj2.reports;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RecursiveTask;
+
+import org.unibl.etf.epj2.rentals.RentalDateTime;
+
+/**
+ * Fork-join task that aggregates a range of bills into per-hour partial aggregates.
+ * <p>Ranges larger than {@link #THRESHOLD} bills are split in half, and the partials of both halves are merged
+ * hour by hour. Because {@link ReportAggregate#merge(ReportAggregate)} is associative, the result is the same as
+ * that of one sequential pass.</p>
+ *
+ * @author Tamara Kosovac
+ */
+class HourlyAggregateTask extends RecursiveTask<Map<Long, ReportAggregate>> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Number of bills that are aggregated without splitting the range.
+	 */
+	static final int THRESHOLD = 1 << 16;
+
+	/**
+	 * The bills.
+	 */
+	private final transient BillColumns columns;
+
+	/**
+	 * Index of the first bill of the range.
+	 */
+	private final int from;
+
+	/**
+	 * Index after the last bill of the range.
+	 */
+	private final int to;
+
+	/**
+	 * Constructs a task for a range of bills.
+	 *
+	 * @param columns  The bills.
+	 * @param from     Index of the first bill of the range.
+	 * @param to       Index after the last bill of the range.
+	 */
+	HourlyAggregateTask(BillColumns columns, int from, int to) {
+		this.columns = columns;
+		this.from = from;
+		this.to = to;
+	}
+
+	@Override
+	protected Map<Long, ReportAggregate> compute() {
+		if(to - from <= THRESHOLD) {
+			return new TreeMap<>(aggregate());
+		}
+		int middle = (from + to) >>> 1;
+		HourlyAggregateTask left = new HourlyAggregateTask(columns, from, middle);
+		HourlyAggregateTask right = new HourlyAggregateTask(columns, middle, to);
+		left.fork();
+		Map<Long, ReportAggregate> partials = right.compute();
+		return merge(left.join(), partials);
+	}
+
+	/**
+	 * Aggregates the range in one pass.
+	 * <p>Bills are mostly stored in chronological order, so the aggregate of the previous bill is reused while the
+	 * hour stays the same.</p>
+	 *
+	 * @return The partial aggregates of the range by hour.
+	 */
+	private Map<Long, ReportAggregate> aggregate() {
+		Map<Long, ReportAggregate> partials = new HashMap<>();
+		ReportAggregate current = null;
+		long currentHour = 0L;
+		for(int i = from; i < to; i++) {
+			long hour = RentalDateTime.toEpochHour(columns.getRentalTimestamp(i));
+			if(current == null || hour != currentHour) {
+				current = partials.computeIfAbsent(hour, key -> new ReportAggregate());
+				currentHour = hour;
+			}
+			current.add(columns, i);
+		}
+		return partials;
+	}
+
+	/**
+	 * Merges the partials of the right range into the partials of the left range.
+	 *
+	 * @param left   The partials of the left range, changed by the merge.
+	 * @param right  The partials of the right range.
+	 * @return The merged partials.
+	 */
+	static Map<Long, ReportAggregate> merge(Map<Long, ReportAggregate> left, Map<Long, ReportAggregate> right) {
+		for(Map.Entry<Long, ReportAggregate> entry : right.entrySet()) {
+			left.merge(entry.getKey(), entry.getValue(), ReportAggregate::merge);
+		}
+		return left;
+	}
+}
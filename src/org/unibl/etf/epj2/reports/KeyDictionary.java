@@ -0,0 +1,78 @@
+package org.unibl.etf.epj2.reports;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense int keys to strings, such as vehicle ids or names of drivers.
+ * <p>Keys are given in the order the strings are first seen, starting from zero, so values per string can be kept
+ * in arrays indexed by the key instead of in maps with boxed values. {@code null} is treated as the empty
+ * string.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class KeyDictionary {
+	/**
+	 * Value returned by {@link #find(String)} for unknown strings.
+	 */
+	public static final int NOT_FOUND = -1;
+
+	/**
+	 * Map from the string to its key.
+	 */
+	private final Map<String, Integer> keys = new HashMap<>();
+
+	/**
+	 * The strings, indexed by their key.
+	 */
+	private final List<String> values = new ArrayList<>();
+
+	/**
+	 * Returns the key of the string, assigning the next key if the string is new.
+	 *
+	 * @param value  The string.
+	 * @return The key.
+	 */
+	public int keyOf(String value) {
+		String nonNull = value == null ? "" : value;
+		Integer key = keys.get(nonNull);
+		if(key == null) {
+			key = values.size();
+			keys.put(nonNull, key);
+			values.add(nonNull);
+		}
+		return key;
+	}
+
+	/**
+	 * Returns the key of the string without assigning one.
+	 *
+	 * @param value  The string.
+	 * @return The key, or {@link #NOT_FOUND} if the string has no key.
+	 */
+	public int find(String value) {
+		Integer key = keys.get(value == null ? "" : value);
+		return key == null ? NOT_FOUND : key;
+	}
+
+	/**
+	 * Returns the string with the key.
+	 *
+	 * @param key  The key.
+	 * @return The string.
+	 */
+	public String valueOf(int key) {
+		return values.get(key);
+	}
+
+	/**
+	 * Returns the number of keys.
+	 *
+	 * @return The number of keys.
+	 */
+	public int size() {
+		return values.size();
+	}
+}
@@ -2,22 +2,38 @@ package org.unibl.etf.epj2.reports;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
-import org.unibl.etf.epj2.rentals.ReadRentals;
+import org.unibl.etf.epj2.invoices.BillRecordReader;
+import org.unibl.etf.epj2.invoices.BillRecords;
+import org.unibl.etf.epj2.invoices.InvoiceJournal;
+import org.unibl.etf.epj2.invoices.InvoiceStorage;
+import org.unibl.etf.epj2.money.Money;
 import org.unibl.etf.epj2.rentals.RentalCalculator;
+import org.unibl.etf.epj2.rentals.RentalDateTime;
+import org.unibl.etf.epj2.rentals.TariffConfig;
 
 /**
  * Represents a report generated from rental bills, including methods for calculating various matrics.
  * This class reads rental bills, group them by date, and provides methods to calculate total income,
  * discounts, maintenance costs and other business-related metrics.
  * <p>The class assumes that rental bills are stored in files with specific formats and that these files
- * are located in a directory specified by {@link RentalCalculator#FOLDER_NAME}. </p>
+ * are located in a directory specified by {@link TariffConfig#getFolderName()}, or in the invoice journal
+ * in the same directory. </p>
+ * <p>If the {@link BillRecords} file exists, the report reads it through a memory-mapped {@link BillRecordReader}
+ * instead, and calculates its metrics straight from the mapped records with {@link #getColumns()} and
+ * {@link #getColumnsGroupedByDate()}, without creating a {@link Bill} per rental. The list of bills is empty then.</p>
+ * <p>Invoice text files are parsed and per-hour partial aggregates are built on the common fork-join pool. Daily,
+ * weekly and monthly aggregates and the summary are rolled up from the same partials.</p>
  * 
  * @author Tamara Kosovac
  */
@@ -28,19 +44,34 @@ public class Report {
 	public static final String TRUE = "true";
 	
 	/**
-	 * Coefficient for calculating repair costs for cars.
+	 * Percentage of the unit price for calculating repair costs for cars, scaled by {@link Money#SCALE}.
 	 */
-	public static final double CAR_COEFFICIENT = 0.07;
+	public static final long CAR_COEFFICIENT = 7 * Money.SCALE;
 	
 	/**
-	 * Coefficient for calculating repair costs for bikes.
+	 * Percentage of the unit price for calculating repair costs for bikes, scaled by {@link Money#SCALE}.
 	 */
-	public static final double BIKE_COEFFICIENT = 0.04;
+	public static final long BIKE_COEFFICIENT = 4 * Money.SCALE;
 	
 	/**
-	 * Coefficient for calculating repair costs for scooters.
+	 * Percentage of the unit price for calculating repair costs for scooters, scaled by {@link Money#SCALE}.
 	 */
-	public static final double SCOOTER_COEFFICIENT = 0.02;
+	public static final long SCOOTER_COEFFICIENT = 2 * Money.SCALE;
+	
+	/**
+	 * Percentage of the income for maintenance, scaled by {@link Money#SCALE}.
+	 */
+	public static final long MAINTENANCE_PERCENT = 20 * Money.SCALE;
+	
+	/**
+	 * Percentage of the income for the costs of the company, scaled by {@link Money#SCALE}.
+	 */
+	public static final long COSTS_PERCENT = 20 * Money.SCALE;
+	
+	/**
+	 * Percentage of the profit for the tax, scaled by {@link Money#SCALE}.
+	 */
+	public static final long TAX_PERCENT = 10 * Money.SCALE;
 	
 	/**
 	 * List of bills to be included in the report.
@@ -48,17 +79,77 @@ public class Report {
 	private List<Bill> bills = new ArrayList<>();
 	
 	/**
-	 * Map of bills grouped by date.
+	 * Map of bills grouped by the day of the rental, in days since the epoch, in chronological order.
+	 */
+	private Map<Long, List<Bill>> billsGroupedByDate;
+	
+	/**
+	 * Columns of all bills in the report.
 	 */
-	private Map<String, List<Bill>> billsGroupedByDate = new HashMap<>();
+	private BillColumns columns;
 	
 	/**
-	 * Constructs a new Report object, initializes bills, and groups bills by date.
+	 * Map of columns of bills grouped by the day of the rental, in days since the epoch, in chronological order.
+	 */
+	private Map<Long, BillColumns> columnsGroupedByDate;
+	
+	/**
+	 * Aggregate of all bills in the report.
+	 */
+	private ReportAggregate summary;
+	
+	/**
+	 * Map of aggregates of bills grouped by the hour of the rental, in hours since the epoch, in chronological order.
+	 */
+	private Map<Long, ReportAggregate> hourlyAggregates;
+	
+	/**
+	 * Map of aggregates of bills grouped by the day of the rental, in days since the epoch, in chronological order.
+	 */
+	private Map<Long, ReportAggregate> dailyAggregates;
+	
+	/**
+	 * Map of aggregates of bills grouped by the ISO week of the rental, keyed by the Monday of the week in days
+	 * since the epoch, in chronological order.
+	 */
+	private Map<Long, ReportAggregate> weeklyAggregates;
+	
+	/**
+	 * Map of aggregates of bills grouped by the month of the rental, keyed by the first day of the month in days
+	 * since the epoch, in chronological order.
+	 */
+	private Map<Long, ReportAggregate> monthlyAggregates;
+	
+	/**
+	 * Revenue and utilization per vehicle, or {@code null} until it is needed.
+	 */
+	private UsageReport vehicleUsage;
+	
+	/**
+	 * Revenue and utilization per driver, or {@code null} until it is needed.
+	 */
+	private UsageReport driverUsage;
+	
+	/**
+	 * Constructs a new Report object, initializes bills, and aggregates them by hour in one pass.
+	 * <p>Daily aggregates are rolled up from hourly ones, and weekly and monthly aggregates from daily ones, so the
+	 * bills are read only once.</p>
 	 */
 	public Report() {
 		super();
-		this.bills = createBills();
-		this.setBillsGroupedByDate(createBillsGroupedByDate());
+		this.columns = createRecordColumns();
+		if(columns == null) {
+			this.bills = createBills();
+			this.columns = BillColumns.of(bills);
+		}
+		this.hourlyAggregates = createHourlyAggregates();
+		this.dailyAggregates = ReportAggregate.rollUp(hourlyAggregates, RentalDateTime::hourToEpochDay);
+		this.weeklyAggregates = ReportAggregate.rollUp(dailyAggregates, RentalDateTime::toWeekStart);
+		this.monthlyAggregates = ReportAggregate.rollUp(dailyAggregates, RentalDateTime::toMonthStart);
+		this.summary = new ReportAggregate();
+		for(ReportAggregate monthly : monthlyAggregates.values()) {
+			summary.merge(monthly);
+		}
 	}
 
 	/**
@@ -81,70 +172,265 @@ public class Report {
 	
 	/**
 	 * Returns the map of bills grouped by date.
+	 * <p>The keys are days since the epoch, see {@link RentalDateTime#formatDate(long)}.</p>
 	 * 
-	 * @return billsGroupedByDate  The map of bills grouped by date and time.
+	 * @return billsGroupedByDate  The map of bills grouped by date.
 	 */
-	public Map<String, List<Bill>> getBillsGroupedByDate() {
+	public Map<Long, List<Bill>> getBillsGroupedByDate() {
+		if(billsGroupedByDate == null) {
+			billsGroupedByDate = createBillsGroupedByDate();
+		}
 		return billsGroupedByDate;
 	}
+	
+	/**
+	 * Aggregates the bills of every hour in one pass over all bills.
+	 * <p>The bills are split into chunks that are aggregated into per-hour partials on the common fork-join pool,
+	 * and the partials are merged in pairs. Merging is associative, so the result doesn't depend on the split.</p>
+	 * 
+	 * @return hourlyAggregates  The map of aggregates grouped by hour, in chronological order.
+	 */
+	private Map<Long, ReportAggregate> createHourlyAggregates() {
+		return ForkJoinPool.commonPool().invoke(new HourlyAggregateTask(columns, 0, columns.size()));
+	}
+	
+	/**
+	 * Creates a map of columns of bills grouped by their date, in chronological order.
+	 * <p>The bills of each day are selected by their indexes, so the values of the bills aren't copied.</p>
+	 * 
+	 * @return columnsGroupedByDate  The map of columns of bills grouped by date.
+	 */
+	private Map<Long, BillColumns> createColumnsGroupedByDate() {
+		Map<Long, int[]> counts = new TreeMap<>();
+		for(int i = 0; i < columns.size(); i++) {
+			counts.computeIfAbsent(columns.getRentalDay(i), day -> new int[1])[0]++;
+		}
+		Map<Long, int[]> indexes = new TreeMap<>();
+		for(Map.Entry<Long, int[]> entry : counts.entrySet()) {
+			indexes.put(entry.getKey(), new int[entry.getValue()[0]]);
+			entry.getValue()[0] = 0;
+		}
+		for(int i = 0; i < columns.size(); i++) {
+			long day = columns.getRentalDay(i);
+			int[] count = counts.get(day);
+			indexes.get(day)[count[0]++] = i;
+		}
+		Map<Long, BillColumns> columnsGroupedByDate = new TreeMap<>();
+		for(Map.Entry<Long, int[]> entry : indexes.entrySet()) {
+			columnsGroupedByDate.put(entry.getKey(), columns.select(entry.getValue()));
+		}
+		return columnsGroupedByDate;
+	}
 
 	/**
 	 * Sets the map of bills groped by date.
 	 * 
 	 * @param billsGroupedByDate  The new map of bills grouped by date and time to set.
 	 */
-	public void setBillsGroupedByDate(Map<String, List<Bill>> billsGroupedByDate) {
+	public void setBillsGroupedByDate(Map<Long, List<Bill>> billsGroupedByDate) {
 		this.billsGroupedByDate = billsGroupedByDate;
 	}
 	
+	/**
+	 * Returns the columns of all bills in the report.
+	 * 
+	 * @return columns  The columns of all bills.
+	 */
+	public BillColumns getColumns() {
+		return columns;
+	}
+	
+	/**
+	 * Returns the map of columns of bills grouped by date.
+	 * <p>The keys are days since the epoch, see {@link RentalDateTime#formatDate(long)}.</p>
+	 * 
+	 * @return columnsGroupedByDate  The map of columns of bills grouped by date.
+	 */
+	public Map<Long, BillColumns> getColumnsGroupedByDate() {
+		if(columnsGroupedByDate == null) {
+			columnsGroupedByDate = createColumnsGroupedByDate();
+		}
+		return columnsGroupedByDate;
+	}
+	
+	/**
+	 * Returns the aggregate of all bills, with every metric of the summary report.
+	 * 
+	 * @return summary  The aggregate of all bills.
+	 */
+	public ReportAggregate getSummary() {
+		return summary;
+	}
+	
+	/**
+	 * Returns the aggregates of bills grouped by date, with every metric of the daily report.
+	 * <p>The keys are days since the epoch, see {@link RentalDateTime#formatDate(long)}.</p>
+	 * 
+	 * @return dailyAggregates  The map of aggregates grouped by date.
+	 */
+	public Map<Long, ReportAggregate> getDailyAggregates() {
+		return dailyAggregates;
+	}
+	
+	/**
+	 * Returns the aggregates of bills grouped by hour.
+	 * <p>The keys are hours since the epoch, see {@link RentalDateTime#formatHour(long)}.</p>
+	 * 
+	 * @return hourlyAggregates  The map of aggregates grouped by hour.
+	 */
+	public Map<Long, ReportAggregate> getHourlyAggregates() {
+		return hourlyAggregates;
+	}
+	
+	/**
+	 * Returns the aggregates of bills grouped by ISO week.
+	 * <p>The keys are the Mondays of the weeks in days since the epoch, see {@link RentalDateTime#formatWeek(long)}.</p>
+	 * 
+	 * @return weeklyAggregates  The map of aggregates grouped by week.
+	 */
+	public Map<Long, ReportAggregate> getWeeklyAggregates() {
+		return weeklyAggregates;
+	}
+	
+	/**
+	 * Returns the aggregates of bills grouped by month.
+	 * <p>The keys are the first days of the months in days since the epoch, see
+	 * {@link RentalDateTime#formatMonth(long)}.</p>
+	 * 
+	 * @return monthlyAggregates  The map of aggregates grouped by month.
+	 */
+	public Map<Long, ReportAggregate> getMonthlyAggregates() {
+		return monthlyAggregates;
+	}
+	
+	/**
+	 * Returns the revenue and utilization per vehicle.
+	 * <p>The reports per vehicle and per driver are calculated together in one pass, the first time one is needed.</p>
+	 * 
+	 * @return vehicleUsage  The report per vehicle.
+	 */
+	public synchronized UsageReport getVehicleUsage() {
+		createUsageReports();
+		return vehicleUsage;
+	}
+	
+	/**
+	 * Returns the revenue and utilization per driver.
+	 * <p>The reports per vehicle and per driver are calculated together in one pass, the first time one is needed.</p>
+	 * 
+	 * @return driverUsage  The report per driver.
+	 */
+	public synchronized UsageReport getDriverUsage() {
+		createUsageReports();
+		return driverUsage;
+	}
+	
+	/**
+	 * Calculates the reports per vehicle and per driver in one pass over all bills, if they aren't calculated yet.
+	 */
+	private void createUsageReports() {
+		if(vehicleUsage != null) {
+			return;
+		}
+		UsageReport vehicles = new UsageReport(columns.getVehicleKeyCount(), columns::getIdOfVehicle);
+		UsageReport drivers = new UsageReport(columns.getDriverKeyCount(), columns::getNameOfTheDriver);
+		for(int i = 0; i < columns.size(); i++) {
+			long totalPrice = columns.getTotalPrice(i);
+			int seconds = columns.getUsageDurationInSeconds(i);
+			boolean hasMalfunction = columns.hasMalfunction(i);
+			long repairCost = hasMalfunction ? repairCost(columns.getVehicleType(i), columns.getUnitPrice(i)) : 0L;
+			vehicles.add(columns.getVehicleKey(i), totalPrice, seconds, hasMalfunction, repairCost);
+			drivers.add(columns.getDriverKey(i), totalPrice, seconds, hasMalfunction, repairCost);
+		}
+		this.vehicleUsage = vehicles;
+		this.driverUsage = drivers;
+	}
+	
+	/**
+	 * Maps the current bill records file, if bill records are enabled and a committed generation isn't older than
+	 * the invoices.
+	 * 
+	 * @return The columns of the records, or {@code null} if bills have to be read from the invoices.
+	 */
+	private BillColumns createRecordColumns() {
+		Path file = BillRecords.currentFile(TariffConfig.getCurrent());
+		if(file == null) {
+			return null;
+		}
+		try {
+			return BillRecordReader.open(file);
+		} catch(IOException exception) {
+			exception.printStackTrace();
+			return null;
+		}
+	}
+	
 	/**
 	 * Creates a list of bills by reading data from files in the specified directory.
+	 * <p>If invoices are stored in the {@link InvoiceJournal}, the journal is read sequentially instead of
+	 * opening one file per bill.</p>
 	 * 
 	 * @return bills  The list of bills created from the files.
 	 */
 	private List<Bill> createBills() {
-		File directory = new File(RentalCalculator.FOLDER_NAME);
+		TariffConfig config = TariffConfig.getCurrent();
+		if(InvoiceStorage.of(config) == InvoiceStorage.JOURNAL) {
+			try(InvoiceJournal journal = InvoiceJournal.openReadOnly(InvoiceStorage.journalDirectory(config))) {
+				journal.forEach(bills::add);
+			} catch(IOException exception) {
+				exception.printStackTrace();
+			}
+			return bills;
+		}
+		File directory = new File(config.getFolderName());
 		File[] files = directory.listFiles((dir, name) -> name.endsWith(RentalCalculator.TXT));
 		if(files != null) {
-			for(File file : files) {
-				try {
-					Scanner reader = new Scanner(file);
-					String rentalDateTime = takingSecondString(reader.nextLine(), ":");
-					String nameOfTheDriver = takingSecondString(reader.nextLine(), ":");
-					String idOfVehicle = takingSecondString(reader.nextLine(), ":");
-					int unitPrice = Integer.parseInt(takingSecondString(reader.nextLine(), ":"));
-					String startLocation = takingSecondString(reader.nextLine(), ":");;
-					String finishLocation = takingSecondString(reader.nextLine(), ":");;
-					int usageDurationInSeconds = Integer.parseInt(takingSecondString(reader.nextLine(), ":"));
-					String hasMalfunction = takingSecondString(reader.nextLine(), "?");;
-					String hasPromotion = takingSecondString(reader.nextLine(), "?");;
-					double discount = Double.parseDouble(takingSecondString(reader.nextLine(), ":"));
-					double discount_prom = Double.parseDouble(takingSecondString(reader.nextLine(), ":"));
-					double totalPrice = Double.parseDouble(takingSecondString(reader.nextLine(), ":"));
-					String inNarrowCity = takingSecondString(reader.nextLine(), ":");
-					Bill bill = new Bill(rentalDateTime, nameOfTheDriver, idOfVehicle, unitPrice, startLocation, finishLocation,
-							usageDurationInSeconds, hasMalfunction, hasPromotion, discount, discount_prom, totalPrice, inNarrowCity);
-					bills.add(bill);
-					reader.close();
-				} catch(IOException exception) {
-					exception.printStackTrace();
-				}
-			}
+			bills.addAll(Arrays.stream(files).parallel()
+					.map(this::readBill)
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList()));
 		}
 		return bills;
 	}
 	
 	/**
-	 * Creates a map of bills grouped by their date.
+	 * Reads the bill from an invoice text file.
+	 * 
+	 * @param file  The invoice file.
+	 * @return bill  The bill, or {@code null} if the file can't be read.
+	 */
+	private Bill readBill(File file) {
+		try(Scanner reader = new Scanner(file)) {
+			String rentalDateTime = takingSecondString(reader.nextLine(), ":");
+			String nameOfTheDriver = takingSecondString(reader.nextLine(), ":");
+			String idOfVehicle = takingSecondString(reader.nextLine(), ":");
+			int unitPrice = Integer.parseInt(takingSecondString(reader.nextLine(), ":"));
+			String startLocation = takingSecondString(reader.nextLine(), ":");
+			String finishLocation = takingSecondString(reader.nextLine(), ":");
+			int usageDurationInSeconds = Integer.parseInt(takingSecondString(reader.nextLine(), ":"));
+			String hasMalfunction = takingSecondString(reader.nextLine(), "?");
+			String hasPromotion = takingSecondString(reader.nextLine(), "?");
+			long discount = Money.parse(takingSecondString(reader.nextLine(), ":"));
+			long discount_prom = Money.parse(takingSecondString(reader.nextLine(), ":"));
+			long totalPrice = Money.parse(takingSecondString(reader.nextLine(), ":"));
+			String inNarrowCity = takingSecondString(reader.nextLine(), ":");
+			Bill bill = new Bill(rentalDateTime, nameOfTheDriver, idOfVehicle, unitPrice, startLocation, finishLocation,
+					usageDurationInSeconds, hasMalfunction, hasPromotion, discount, discount_prom, totalPrice, inNarrowCity);
+			return bill;
+		} catch(IOException | RuntimeException exception) {
+			exception.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * Creates a map of bills grouped by their date, in chronological order.
 	 * 
 	 * @return billsGroupedByDate  The map of bills grouped by date.
 	 */
-	private Map<String, List<Bill>> createBillsGroupedByDate() {
-		Map<String, List<Bill>> billsGroupedByDate = bills.stream()
-	            .collect(Collectors.groupingBy(bill -> {
-	                String rentalDateTime = bill.getRentalDateTime();
-	                return rentalDateTime.split(" ")[0]; 
-	            }));
+	private Map<Long, List<Bill>> createBillsGroupedByDate() {
+		Map<Long, List<Bill>> billsGroupedByDate = bills.stream()
+	            .collect(Collectors.groupingBy(Bill::getRentalDay, TreeMap::new, Collectors.toList()));
 		return billsGroupedByDate;
 	}
 	
@@ -152,116 +438,196 @@ public class Report {
 	 * Calculates the total income from a list of bills.
 	 * 
 	 * @param list   The list of bills to calculate total income from.
-	 * @return totalIncome  The amount of total income.
+	 * @return totalIncome  The amount of total income in cents.
+	 */
+	public long totalIncome(List<Bill> list) {
+		return totalIncome(BillColumns.of(list));
+	}
+	
+	/**
+	 * Calculates the total income from bills.
+	 * 
+	 * @param columns  The bills to calculate total income from.
+	 * @return totalIncome  The amount of total income in cents.
 	 */
-	public double totalIncome(List<Bill> list) {
-		return list.stream().mapToDouble(Bill::getTotalPrice).sum();
+	public long totalIncome(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalIncome();
 	}
 	
 	/**
 	 * Calculates the total discount from a list of bills.
 	 * 
 	 * @param list     The list of bills to calculate total discount from.
-	 * @return totalDiscount  The amount of total discount.
+	 * @return totalDiscount  The amount of total discount, scaled by {@link Money#SCALE}.
 	 */
-	public double totalDiscount(List<Bill> list) {
-		return (list.stream().mapToDouble(Bill::getDiscount).sum()) / 100;
+	public long totalDiscount(List<Bill> list) {
+		return totalDiscount(BillColumns.of(list));
 	}
 	
+	/**
+	 * Calculates the total discount from bills.
+	 * 
+	 * @param columns  The bills to calculate total discount from.
+	 * @return totalDiscount  The amount of total discount, scaled by {@link Money#SCALE}.
+	 */
+	public long totalDiscount(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalDiscount();
+	}
 	
 	/**
 	 * Calculates the total promotional discount from a list of bills.
 	 * 
 	 * @param list  The list of bills to calculate total promotional discount from.
-	 * @return totalDiscountPromotion  The amount of total discount promotion.
+	 * @return totalDiscountPromotion  The amount of total discount promotion, scaled by {@link Money#SCALE}.
 	 */
-	public double totalDiscountPromotion(List<Bill> list) {
-		return (list.stream().mapToDouble(Bill::getDiscountProm).sum()) / 100;
+	public long totalDiscountPromotion(List<Bill> list) {
+		return totalDiscountPromotion(BillColumns.of(list));
 	}
 	
+	/**
+	 * Calculates the total promotional discount from bills.
+	 * 
+	 * @param columns  The bills to calculate total promotional discount from.
+	 * @return totalDiscountPromotion  The amount of total discount promotion, scaled by {@link Money#SCALE}.
+	 */
+	public long totalDiscountPromotion(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalDiscountPromotion();
+	}
 	
 	/**
 	 * Calculates the total income for rentals in narrow city areas.
 	 * 
 	 * @param list   The list of bills to calculate total income in narrow city from.
-	 * @return totalIncomeInNarrowCity  The amount of total income in narrow city.
-	 */
-	public double totalIncomeInNarrowCity(List<Bill> list) {
-		double totalIncomeInNarrowCity = 0.0;
-		for(Bill bill : list) {
-			if(bill != null && bill.getInNarrowCity() != null) {
-				if(TRUE.equals(bill.getInNarrowCity())) {
-					totalIncomeInNarrowCity += bill.getTotalPrice();
-				} else {
-					totalIncomeInNarrowCity += 0.0;
-				}
-			}
-		}
-	    return totalIncomeInNarrowCity;
+	 * @return totalIncomeInNarrowCity  The amount of total income in narrow city in cents.
+	 */
+	public long totalIncomeInNarrowCity(List<Bill> list) {
+		return totalIncomeInNarrowCity(BillColumns.of(list));
+	}
+	
+	/**
+	 * Calculates the total income for rentals in narrow city areas.
+	 * 
+	 * @param columns  The bills to calculate total income in narrow city from.
+	 * @return totalIncomeInNarrowCity  The amount of total income in narrow city in cents.
+	 */
+	public long totalIncomeInNarrowCity(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalIncomeInNarrowCity();
 	}
 	
 	/**
 	 * Calculates the total income for rentals in wide city areas.
 	 * 
 	 * @param list  The list of bills to calculate total income in wide city from.
-	 * @return totalIncomeInWideCity  The amount of total income in wide city.
+	 * @return totalIncomeInWideCity  The amount of total income in wide city in cents.
 	 */
-	public double totalIncomeInWideCity(List<Bill> list) {
-		return this.totalIncome(list) - this.totalIncomeInNarrowCity(list);
+	public long totalIncomeInWideCity(List<Bill> list) {
+		return totalIncomeInWideCity(BillColumns.of(list));
+	}
+	
+	/**
+	 * Calculates the total income for rentals in wide city areas.
+	 * 
+	 * @param columns  The bills to calculate total income in wide city from.
+	 * @return totalIncomeInWideCity  The amount of total income in wide city in cents.
+	 */
+	public long totalIncomeInWideCity(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalIncomeInWideCity();
 	}
 	
 	/**
 	 * Calculates the total amount of malfunction repairs from a list of bills.
 	 * 
 	 * @param list   The list of bills to calculate total malfunction repair costs from.
-	 * @return totalAmountOfMalfunctionRepairs  The amount of total malfunction repairs.
-	 */
-	public double totalAmountOfMalfunctionRepairs(List<Bill> list) {
-		double totalAmountOfMalfunctionRepairs = 0.0;
-		for(Bill bill : list) {
-			if(bill != null && bill.getIdOfVehicle() != null) {
-				if(ReadRentals.YES.equals(bill.getHasMalfunction())) {
-					if(bill.getIdOfVehicle().contains(RentalCalculator.CAR_FIRST_LETTER)) {
-						totalAmountOfMalfunctionRepairs += (CAR_COEFFICIENT * bill.getUnitPrice());
-					} else if(bill.getIdOfVehicle().contains(RentalCalculator.BIKE_FIRST_LETTER)) {
-						totalAmountOfMalfunctionRepairs += (BIKE_COEFFICIENT * bill.getUnitPrice());
-					} else {
-						totalAmountOfMalfunctionRepairs += (SCOOTER_COEFFICIENT * bill.getUnitPrice());
-					}
-				}
-			}
+	 * @return totalAmountOfMalfunctionRepairs  The amount of total malfunction repairs in cents.
+	 */
+	public long totalAmountOfMalfunctionRepairs(List<Bill> list) {
+		return totalAmountOfMalfunctionRepairs(BillColumns.of(list));
+	}
+	
+	/**
+	 * Calculates the total amount of malfunction repairs from bills.
+	 * 
+	 * @param columns  The bills to calculate total malfunction repair costs from.
+	 * @return totalAmountOfMalfunctionRepairs  The amount of total malfunction repairs in cents.
+	 */
+	public long totalAmountOfMalfunctionRepairs(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalAmountOfMalfunctionRepairs();
+	}
+	
+	/**
+	 * Calculates the cost of repairing a malfunction of a vehicle.
+	 * 
+	 * @param vehicleType  The type of the vehicle, see {@link BillColumns#getVehicleType(int)}.
+	 * @param unitPrice    The unit price of the vehicle.
+	 * @return The repair cost in cents.
+	 */
+	public static long repairCost(int vehicleType, int unitPrice) {
+		if(vehicleType == BillColumns.CAR) {
+			return Money.percentOf(Money.ofUnits(unitPrice), CAR_COEFFICIENT);
+		} else if(vehicleType == BillColumns.BIKE) {
+			return Money.percentOf(Money.ofUnits(unitPrice), BIKE_COEFFICIENT);
 		}
-		return totalAmountOfMalfunctionRepairs;
+		return Money.percentOf(Money.ofUnits(unitPrice), SCOOTER_COEFFICIENT);
 	}
 
 	/**
 	 * Calculates the total maintenance amount, which is 20% of the total income.
 	 * 
 	 * @param list  The list of bills to calculate total maintenance amount from.
-	 * @return Total maintenance amount.
+	 * @return Total maintenance amount in cents.
 	 */
-	public double totalMaintenanceAmount(List<Bill> list) {
-		return totalIncome(list) * 0.2;
+	public long totalMaintenanceAmount(List<Bill> list) {
+		return totalMaintenanceAmount(BillColumns.of(list));
+	}
+	
+	/**
+	 * Calculates the total maintenance amount, which is 20% of the total income.
+	 * 
+	 * @param columns  The bills to calculate total maintenance amount from.
+	 * @return Total maintenance amount in cents.
+	 */
+	public long totalMaintenanceAmount(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalMaintenanceAmount();
 	}
 	
 	/**
 	 * Calculates the total costs of the company, which is 20% of the total income.
 	 * 
 	 * @param list  The list of bills to calculate total company costs from.
-	 * @return Total costs of the company.
+	 * @return Total costs of the company in cents.
+	 */
+	public long totalCostsOfCompany(List<Bill> list) {
+		return totalCostsOfCompany(BillColumns.of(list));
+	}
+	
+	/**
+	 * Calculates the total costs of the company, which is 20% of the total income.
+	 * 
+	 * @param columns  The bills to calculate total company costs from.
+	 * @return Total costs of the company in cents.
 	 */
-	public double totalCostsOfCompany(List<Bill> list) {
-		return totalIncome(list) * 0.2;
+	public long totalCostsOfCompany(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalCostsOfCompany();
 	}
 	
 	/**
 	 * Calculates the total tax, which is 10% of the income after subtracting maintenance and repair costs.
 	 * 
 	 * @param list  The list of bills to calculate total tax from.
-	 * @return Total tax amount.
+	 * @return Total tax amount in cents.
+	 */
+	public long totalTax(List<Bill> list) {
+		return totalTax(BillColumns.of(list));
+	}
+	
+	/**
+	 * Calculates the total tax, which is 10% of the income after subtracting maintenance and repair costs.
+	 * 
+	 * @param columns  The bills to calculate total tax from.
+	 * @return Total tax amount in cents.
 	 */
-	public double totalTax(List<Bill> list) {
-		return (totalIncome(list) - totalMaintenanceAmount(list) - totalAmountOfMalfunctionRepairs(list) - totalCostsOfCompany(list)) * 0.1;
+	public long totalTax(BillColumns columns) {
+		return ReportAggregate.of(columns).getTotalTax();
 	}
 	
 	
@@ -0,0 +1,251 @@
+package org.unibl.etf.epj2.reports;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongUnaryOperator;
+
+import org.unibl.etf.epj2.money.Money;
+import org.unibl.etf.epj2.rentals.ReadRentals;
+
+/**
+ * Accumulates all metrics of a report in one pass over the bills.
+ * <p>Only exact sums are kept: income, narrow city income, repair costs and the sums of discount percentages. The
+ * rounded and derived metrics, such as maintenance, costs and tax, are calculated from those sums when they are
+ * read. Two aggregates can therefore be merged without any loss, so the aggregate of a whole report is the merge
+ * of the aggregates of its days.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class ReportAggregate {
+	/**
+	 * Number of bills.
+	 */
+	private long count;
+
+	/**
+	 * Sum of total prices in cents.
+	 */
+	private long income;
+
+	/**
+	 * Sum of total prices of rentals in the narrow part of the city, in cents.
+	 */
+	private long incomeInNarrowCity;
+
+	/**
+	 * Sum of discounts in percent, scaled by {@link Money#SCALE}.
+	 */
+	private long discountSum;
+
+	/**
+	 * Sum of promotional discounts in percent, scaled by {@link Money#SCALE}.
+	 */
+	private long discountPromotionSum;
+
+	/**
+	 * Sum of malfunction repair costs in cents.
+	 */
+	private long malfunctionRepairs;
+
+	/**
+	 * Constructs an empty aggregate.
+	 */
+	public ReportAggregate() {
+		super();
+	}
+
+	/**
+	 * Constructs a copy of another aggregate.
+	 *
+	 * @param other  The aggregate to copy.
+	 */
+	public ReportAggregate(ReportAggregate other) {
+		this();
+		merge(other);
+	}
+
+	/**
+	 * Aggregates all bills in one pass.
+	 *
+	 * @param columns  The bills.
+	 * @return The aggregate of the bills.
+	 */
+	public static ReportAggregate of(BillColumns columns) {
+		ReportAggregate aggregate = new ReportAggregate();
+		for(int i = 0; i < columns.size(); i++) {
+			aggregate.add(columns, i);
+		}
+		return aggregate;
+	}
+
+	/**
+	 * Adds one bill.
+	 *
+	 * @param bill  The bill to add.
+	 */
+	public void add(Bill bill) {
+		add(bill.getTotalPrice(), bill.getDiscount(), bill.getDiscountProm(), Report.TRUE.equals(bill.getInNarrowCity()),
+				bill.getIdOfVehicle() != null && ReadRentals.YES.equals(bill.getHasMalfunction()),
+				BillColumns.vehicleTypeOf(bill.getIdOfVehicle()), bill.getUnitPrice());
+	}
+
+	/**
+	 * Adds one bill.
+	 *
+	 * @param columns  The bills.
+	 * @param index    The index of the bill to add.
+	 */
+	public void add(BillColumns columns, int index) {
+		add(columns.getTotalPrice(index), columns.getDiscount(index), columns.getDiscountProm(index), columns.isInNarrowCity(index),
+				columns.hasMalfunction(index), columns.getVehicleType(index), columns.getUnitPrice(index));
+	}
+
+	/**
+	 * Adds one bill.
+	 *
+	 * @param totalPrice      The total price in cents.
+	 * @param discount        The discount in percent, scaled by {@link Money#SCALE}.
+	 * @param discountProm    The promotional discount in percent, scaled by {@link Money#SCALE}.
+	 * @param inNarrowCity    Whether the rental was in the narrow part of the city.
+	 * @param hasMalfunction  Whether the vehicle had a malfunction.
+	 * @param vehicleType     The type of the vehicle, see {@link BillColumns#getVehicleType(int)}.
+	 * @param unitPrice       The unit price of the vehicle.
+	 */
+	public void add(long totalPrice, long discount, long discountProm, boolean inNarrowCity, boolean hasMalfunction, int vehicleType, int unitPrice) {
+		count++;
+		income += totalPrice;
+		discountSum += discount;
+		discountPromotionSum += discountProm;
+		if(inNarrowCity) {
+			incomeInNarrowCity += totalPrice;
+		}
+		if(hasMalfunction) {
+			malfunctionRepairs += Report.repairCost(vehicleType, unitPrice);
+		}
+	}
+
+	/**
+	 * Adds all bills of another aggregate.
+	 *
+	 * @param other  The other aggregate.
+	 * @return This aggregate.
+	 */
+	public ReportAggregate merge(ReportAggregate other) {
+		count += other.count;
+		income += other.income;
+		incomeInNarrowCity += other.incomeInNarrowCity;
+		discountSum += other.discountSum;
+		discountPromotionSum += other.discountPromotionSum;
+		malfunctionRepairs += other.malfunctionRepairs;
+		return this;
+	}
+
+	/**
+	 * Rolls aggregates up into coarser buckets, without reading the bills again.
+	 * <p>For example, daily aggregates are rolled up from hourly ones with
+	 * {@link org.unibl.etf.epj2.rentals.RentalDateTime#hourToEpochDay(long)}. The finer aggregates aren't
+	 * changed.</p>
+	 *
+	 * @param aggregates  The finer aggregates by bucket.
+	 * @param bucket      Returns the coarser bucket of a finer bucket.
+	 * @return The coarser aggregates by bucket, in ascending order.
+	 */
+	public static Map<Long, ReportAggregate> rollUp(Map<Long, ReportAggregate> aggregates, LongUnaryOperator bucket) {
+		Map<Long, ReportAggregate> rolledUp = new TreeMap<>();
+		for(Map.Entry<Long, ReportAggregate> entry : aggregates.entrySet()) {
+			rolledUp.computeIfAbsent(bucket.applyAsLong(entry.getKey()), key -> new ReportAggregate()).merge(entry.getValue());
+		}
+		return rolledUp;
+	}
+
+	/**
+	 * Returns the number of bills.
+	 *
+	 * @return count  The number of bills.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the total income.
+	 *
+	 * @return income  The total income in cents.
+	 */
+	public long getTotalIncome() {
+		return income;
+	}
+
+	/**
+	 * Returns the total discount.
+	 *
+	 * @return The total discount, scaled by {@link Money#SCALE}.
+	 */
+	public long getTotalDiscount() {
+		return Money.divideRounded(discountSum, 100);
+	}
+
+	/**
+	 * Returns the total promotional discount.
+	 *
+	 * @return The total promotional discount, scaled by {@link Money#SCALE}.
+	 */
+	public long getTotalDiscountPromotion() {
+		return Money.divideRounded(discountPromotionSum, 100);
+	}
+
+	/**
+	 * Returns the total income in the narrow part of the city.
+	 *
+	 * @return incomeInNarrowCity  The total income in narrow city in cents.
+	 */
+	public long getTotalIncomeInNarrowCity() {
+		return incomeInNarrowCity;
+	}
+
+	/**
+	 * Returns the total income in the wide part of the city.
+	 *
+	 * @return The total income in wide city in cents.
+	 */
+	public long getTotalIncomeInWideCity() {
+		return income - incomeInNarrowCity;
+	}
+
+	/**
+	 * Returns the total amount of malfunction repairs.
+	 *
+	 * @return malfunctionRepairs  The total malfunction repairs in cents.
+	 */
+	public long getTotalAmountOfMalfunctionRepairs() {
+		return malfunctionRepairs;
+	}
+
+	/**
+	 * Returns the total maintenance amount, which is 20% of the total income.
+	 *
+	 * @return The total maintenance amount in cents.
+	 */
+	public long getTotalMaintenanceAmount() {
+		return Money.percentOf(income, Report.MAINTENANCE_PERCENT);
+	}
+
+	/**
+	 * Returns the total costs of the company, which is 20% of the total income.
+	 *
+	 * @return The total costs of the company in cents.
+	 */
+	public long getTotalCostsOfCompany() {
+		return Money.percentOf(income, Report.COSTS_PERCENT);
+	}
+
+	/**
+	 * Returns the total tax, which is 10% of the income after subtracting maintenance, repair costs and the costs
+	 * of the company.
+	 *
+	 * @return The total tax in cents.
+	 */
+	public long getTotalTax() {
+		return Money.percentOf(income - getTotalMaintenanceAmount() - malfunctionRepairs - getTotalCostsOfCompany(), Report.TAX_PERCENT);
+	}
+}
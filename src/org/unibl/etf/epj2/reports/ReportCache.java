@@ -0,0 +1,89 @@
+package org.unibl.etf.epj2.reports;
+
+import org.unibl.etf.epj2.invoices.InvoiceStoreVersion;
+import org.unibl.etf.epj2.rentals.TariffConfig;
+
+/**
+ * Cache of the {@link Report} of the stored invoices, keyed by the {@link InvoiceStoreVersion}.
+ * <p>The report is calculated again only if invoices were written since it was calculated, either detected from
+ * the version of the invoice store or announced with {@link #invalidate()}. Opening a report twice, or polling it,
+ * costs only reading the metadata of the invoice files when nothing changed. The report is calculated outside the
+ * lock of the cache, so threads that only read the cached report or invalidate it never wait for a calculation.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class ReportCache {
+	/**
+	 * The cache of the application.
+	 */
+	private static final ReportCache CURRENT = new ReportCache();
+
+	/**
+	 * The cached report, or {@code null}.
+	 */
+	private Report report;
+
+	/**
+	 * The version of the invoice store the cached report was calculated from, or {@code null}.
+	 */
+	private InvoiceStoreVersion version;
+
+	/**
+	 * Number of invalidations, so a report calculated before an invalidation isn't cached after it.
+	 */
+	private long invalidations;
+
+	/**
+	 * Returns the cache of the application.
+	 *
+	 * @return The cache.
+	 */
+	public static ReportCache getCurrent() {
+		return CURRENT;
+	}
+
+	/**
+	 * Returns the report of the stored invoices, calculating it only if the invoice store changed.
+	 * <p>The version is read before the invoices, so invoices written while the report is calculated make the
+	 * next call calculate it again. The report is calculated outside the lock and cached only if the cache wasn't
+	 * invalidated in the meantime.</p>
+	 *
+	 * @return The report.
+	 */
+	public Report getReport() {
+		InvoiceStoreVersion current = InvoiceStoreVersion.of(TariffConfig.getCurrent());
+		long calculatedAfter;
+		synchronized(this) {
+			if(report != null && current.equals(version)) {
+				return report;
+			}
+			calculatedAfter = invalidations;
+		}
+		Report calculated = new Report();
+		synchronized(this) {
+			if(calculatedAfter == invalidations) {
+				report = calculated;
+				version = current;
+			}
+		}
+		return calculated;
+	}
+
+	/**
+	 * Drops the cached report, so the next {@link #getReport()} calculates it again.
+	 */
+	public synchronized void invalidate() {
+		invalidations++;
+		report = null;
+		version = null;
+	}
+
+	/**
+	 * Returns the version of the invoice store of the cached report.
+	 *
+	 * @return version  The version, or {@code null} if no report is cached.
+	 */
+	public synchronized InvoiceStoreVersion getVersion() {
+		return version;
+	}
+}
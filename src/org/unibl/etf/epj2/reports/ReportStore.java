@@ -0,0 +1,154 @@
+package org.unibl.etf.epj2.reports;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Live report aggregates, updated as each rental is priced.
+ * <p>The store keeps a running {@link ReportAggregate} for every day and one for all bills, so report windows
+ * copy O(days) aggregates instead of reading every bill from disk. A simulation {@link #clear() clears} the store
+ * before it prices its rentals, because it replaces the bills of the previous one, and then every priced bill is
+ * {@link #record(Bill) recorded}.</p>
+ * <p>Until something is recorded, for example when reports are opened before a simulation, the store follows the
+ * report of the stored invoices from the {@link ReportCache}, so it is read from disk again only when invoices
+ * change. {@link #rebuild()} recovers the aggregates from disk. The report is read outside the monitor of the store
+ * and only swapped in under it, so recording a bill never waits for a scan of the invoices.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class ReportStore {
+	/**
+	 * The store of the application.
+	 */
+	private static final ReportStore CURRENT = new ReportStore();
+
+	/**
+	 * Aggregates of bills grouped by the day of the rental, in days since the epoch.
+	 */
+	private final Map<Long, ReportAggregate> dailyAggregates = new TreeMap<>();
+
+	/**
+	 * Aggregate of all bills.
+	 */
+	private ReportAggregate summary = new ReportAggregate();
+
+	/**
+	 * Whether the aggregates were cleared or recorded, so they are kept up to date by recording bills instead of
+	 * following the stored invoices.
+	 */
+	private boolean live;
+
+	/**
+	 * The report the aggregates were copied from, or {@code null}.
+	 */
+	private Report source;
+
+	/**
+	 * Returns the store of the application.
+	 *
+	 * @return The store.
+	 */
+	public static ReportStore getCurrent() {
+		return CURRENT;
+	}
+
+	/**
+	 * Adds a priced bill to the aggregates of its day and of all bills.
+	 *
+	 * @param bill  The bill.
+	 */
+	public synchronized void record(Bill bill) {
+		dailyAggregates.computeIfAbsent(bill.getRentalDay(), day -> new ReportAggregate()).add(bill);
+		summary.add(bill);
+		live = true;
+	}
+
+	/**
+	 * Removes all bills, before a simulation prices its rentals again.
+	 */
+	public synchronized void clear() {
+		dailyAggregates.clear();
+		summary = new ReportAggregate();
+		source = null;
+		live = true;
+	}
+
+	/**
+	 * Replaces the aggregates with ones calculated again from the stored invoices.
+	 * <p>It should be called when no simulation is pricing rentals, because bills recorded while the invoices are
+	 * read are replaced by the bills stored on disk.</p>
+	 */
+	public void rebuild() {
+		ReportCache.getCurrent().invalidate();
+		Report report = ReportCache.getCurrent().getReport();
+		synchronized(this) {
+			copy(report);
+		}
+	}
+
+	/**
+	 * Returns a copy of the aggregate of all bills.
+	 *
+	 * @return The aggregate of all bills.
+	 */
+	public ReportAggregate getSummary() {
+		load();
+		synchronized(this) {
+			return new ReportAggregate(summary);
+		}
+	}
+
+	/**
+	 * Returns copies of the aggregates of bills grouped by date, in chronological order.
+	 * <p>The keys are days since the epoch, see {@link org.unibl.etf.epj2.rentals.RentalDateTime#formatDate(long)}.</p>
+	 *
+	 * @return The map of aggregates grouped by date.
+	 */
+	public Map<Long, ReportAggregate> getDailyAggregates() {
+		load();
+		Map<Long, ReportAggregate> copy = new TreeMap<>();
+		synchronized(this) {
+			for(Map.Entry<Long, ReportAggregate> entry : dailyAggregates.entrySet()) {
+				copy.put(entry.getKey(), new ReportAggregate(entry.getValue()));
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Copies the aggregates of the cached report of the stored invoices if the store isn't live and the report
+	 * changed.
+	 * <p>The report is read without holding the monitor of the store. If a bill is recorded or the store is
+	 * cleared meanwhile, the store becomes live and the report is dropped.</p>
+	 */
+	private void load() {
+		synchronized(this) {
+			if(live) {
+				return;
+			}
+		}
+		Report report = ReportCache.getCurrent().getReport();
+		synchronized(this) {
+			if(!live && report != source) {
+				copy(report);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the aggregates with copies of the aggregates of the report. The caller must hold the monitor of
+	 * the store.
+	 * <p>The aggregates are copied because recorded bills are added to them, while the report may be shared
+	 * through the {@link ReportCache}.</p>
+	 *
+	 * @param report  The report.
+	 */
+	private void copy(Report report) {
+		dailyAggregates.clear();
+		for(Map.Entry<Long, ReportAggregate> entry : report.getDailyAggregates().entrySet()) {
+			dailyAggregates.put(entry.getKey(), new ReportAggregate(entry.getValue()));
+		}
+		summary = new ReportAggregate(report.getSummary());
+		source = report;
+	}
+}
@@ -0,0 +1,149 @@
+package org.unibl.etf.epj2.reports;
+
+import java.util.function.IntFunction;
+
+/**
+ * Revenue and utilization per vehicle or per driver.
+ * <p>Values are kept in primitive arrays indexed by the dense key of the vehicle or driver, see
+ * {@link BillColumns#getVehicleKey(int)} and {@link BillColumns#getDriverKey(int)}, so a fleet of any size is
+ * aggregated without a boxed value per bill.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class UsageReport {
+	/**
+	 * The ids of vehicles or names of drivers, indexed by key.
+	 */
+	private final String[] names;
+
+	/**
+	 * Sum of total prices in cents.
+	 */
+	private final long[] revenue;
+
+	/**
+	 * Number of rides.
+	 */
+	private final long[] rideCounts;
+
+	/**
+	 * Sum of usage durations in seconds.
+	 */
+	private final long[] rideSeconds;
+
+	/**
+	 * Number of malfunctions.
+	 */
+	private final long[] malfunctionCounts;
+
+	/**
+	 * Sum of malfunction repair costs in cents.
+	 */
+	private final long[] repairCosts;
+
+	/**
+	 * Constructs an empty report for the keys.
+	 *
+	 * @param size   The number of keys.
+	 * @param names  Returns the id of the vehicle or the name of the driver for a key.
+	 */
+	public UsageReport(int size, IntFunction<String> names) {
+		this.names = new String[size];
+		for(int key = 0; key < size; key++) {
+			this.names[key] = names.apply(key);
+		}
+		this.revenue = new long[size];
+		this.rideCounts = new long[size];
+		this.rideSeconds = new long[size];
+		this.malfunctionCounts = new long[size];
+		this.repairCosts = new long[size];
+	}
+
+	/**
+	 * Adds one ride.
+	 *
+	 * @param key             The key of the vehicle or driver.
+	 * @param totalPrice      The total price in cents.
+	 * @param seconds         The usage duration in seconds.
+	 * @param hasMalfunction  Whether the vehicle had a malfunction.
+	 * @param repairCost      The repair cost in cents, zero without a malfunction.
+	 */
+	public void add(int key, long totalPrice, int seconds, boolean hasMalfunction, long repairCost) {
+		revenue[key] += totalPrice;
+		rideCounts[key]++;
+		rideSeconds[key] += seconds;
+		if(hasMalfunction) {
+			malfunctionCounts[key]++;
+			repairCosts[key] += repairCost;
+		}
+	}
+
+	/**
+	 * Returns the number of keys.
+	 *
+	 * @return The number of vehicles or drivers.
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the id of the vehicle or the name of the driver.
+	 *
+	 * @param key  The key.
+	 * @return The id or the name.
+	 */
+	public String getName(int key) {
+		return names[key];
+	}
+
+	/**
+	 * Returns the revenue.
+	 *
+	 * @param key  The key.
+	 * @return The revenue in cents.
+	 */
+	public long getRevenue(int key) {
+		return revenue[key];
+	}
+
+	/**
+	 * Returns the number of rides.
+	 *
+	 * @param key  The key.
+	 * @return The number of rides.
+	 */
+	public long getRideCount(int key) {
+		return rideCounts[key];
+	}
+
+	/**
+	 * Returns the total duration of rides.
+	 *
+	 * @param key  The key.
+	 * @return The total duration in seconds.
+	 */
+	public long getRideSeconds(int key) {
+		return rideSeconds[key];
+	}
+
+	/**
+	 * Returns the number of malfunctions.
+	 *
+	 * @param key  The key.
+	 * @return The number of malfunctions.
+	 */
+	public long getMalfunctionCount(int key) {
+		return malfunctionCounts[key];
+	}
+
+	/**
+	 * Returns the cost of repairing malfunctions.
+	 *
+	 * @param key  The key.
+	 * @return The repair costs in cents.
+	 */
+	public long getRepairCosts(int key) {
+		return repairCosts[key];
+	}
+}
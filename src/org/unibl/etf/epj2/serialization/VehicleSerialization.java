@@ -6,12 +6,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.unibl.etf.epj2.rentals.ReadRentals;
 import org.unibl.etf.epj2.rentals.Rental;
 import org.unibl.etf.epj2.vehicles.Vehicle;
+import org.unibl.etf.epj2.vehicles.VehicleRegistry;
 
 /**
  * The {@code VehicleSerialization} class provides methods for serializing and deserializing
@@ -44,7 +44,9 @@ public class VehicleSerialization {
 	 * Serializes a list of {@link Rental} objects. Vehicles associated with rentals that have a malfunction
 	 * are saved to separate files in the {@value #SERIALIZATION_FOLDER} directory.
 	 * 
-	 * <p>Each vehicle is serialized into a file named with the vehicle's ID and the ".ser" extension.</p>
+	 * <p>Each vehicle is serialized into a file named with the vehicle's ID and the ".ser" extension.
+	 * Damaged vehicles are first collected into a {@link VehicleRegistry}, so a vehicle with several malfunctions
+	 * is written only once.</p>
 	 * 
 	 * @param rentals  The list of rentals to be processed for serialization.
 	 */
@@ -52,17 +54,21 @@ public class VehicleSerialization {
 		String nameOfFolder = SERIALIZATION_FOLDER;
 		File folder = new File(nameOfFolder);
 		folder.mkdir();
+		VehicleRegistry damagedVehicles = new VehicleRegistry();
 		for(Rental rental : rentals) {
 			if(ReadRentals.YES.equals(rental.getMalfunction().getHasMalfunction())) {
-				try {
-					FileOutputStream fileOutputStream = new FileOutputStream(nameOfFolder + File.separator + rental.getVehicle().getIdOfVehicle() + SER);
-					ObjectOutputStream objectOutputStream = new ObjectOutputStream(fileOutputStream);
-					objectOutputStream.writeObject(rental.getVehicle());
-					objectOutputStream.close();
-					fileOutputStream.close();
-				}catch(IOException exception) {
-					exception.printStackTrace();
-				}
+				damagedVehicles.add(rental.getVehicle());
+			}
+		}
+		for(Vehicle vehicle : damagedVehicles.getVehicles()) {
+			try {
+				FileOutputStream fileOutputStream = new FileOutputStream(nameOfFolder + File.separator + vehicle.getIdOfVehicle() + SER);
+				ObjectOutputStream objectOutputStream = new ObjectOutputStream(fileOutputStream);
+				objectOutputStream.writeObject(vehicle);
+				objectOutputStream.close();
+				fileOutputStream.close();
+			}catch(IOException exception) {
+				exception.printStackTrace();
 			}
 		}
 	}
@@ -72,12 +78,16 @@ public class VehicleSerialization {
 	 * 
 	 * <p>This method reads each file with a ".ser" extension and reconstructs the {@link Vehicle} objects.
 	 * 
-	 * @return a list of deserialized damaged {@link Vehicle} objects
+	 * @return a registry of deserialized damaged {@link Vehicle} objects
 	 */
-	public static List<Vehicle> deserializeVehicle() {
-		List<Vehicle> damagedVehicles = new ArrayList<>();
+	public static VehicleRegistry deserializeVehicle() {
+		VehicleRegistry damagedVehicles = new VehicleRegistry();
 		File folder = new File(SERIALIZATION_FOLDER + File.separator);
-		for(File file: folder.listFiles()) {
+		File[] files = folder.listFiles();
+		if(files == null) {
+			return damagedVehicles;
+		}
+		for(File file: files) {
 			if(file.isFile() && file.getName().endsWith(SER)) {
 				try {
 					FileInputStream fileInputStream = new FileInputStream(file);
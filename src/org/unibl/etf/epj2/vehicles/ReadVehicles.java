@@ -2,19 +2,16 @@ package org.unibl.etf.epj2.vehicles;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Stream;
 
-import org.unibl.etf.epj2.rentals.RentalCalculator;
+import org.unibl.etf.epj2.io.CsvReader;
+import org.unibl.etf.epj2.rentals.TariffConfig;
 
 /**
- * This class is responsible for reading vehicle data from a CSV file and loading them into a set of {@link Vehicle} objects.
+ * This class is responsible for reading vehicle data from a CSV file and loading them into a {@link VehicleRegistry}.
  * The class contains constants that represents different types of vehicles and separators used in the CSV file.
  * 
- * <p> This class utilizes the {@link RentalCalculator} class to retrieve the file path of the CSV file containing vehicle data.</p>
+ * <p> This class utilizes the {@link TariffConfig} class to retrieve the file path of the CSV file containing vehicle data.</p>
  * 
  * @author Tamara Kosovac
  */
@@ -24,7 +21,7 @@ public class ReadVehicles {
 	 * The file path of the CSV file containing vehicle data.
 	 * This value is retrieved from the propertie file.
 	 */
-	public static final String FILE_WITH_VEHICLES = RentalCalculator.returnValueFromPropertieFile("FILE_WITH_VEHICLES");
+	public static final String FILE_WITH_VEHICLES = TariffConfig.getCurrent().getFileWithVehicles();
 	
 	/**
 	 * A constant representing the identifier key in the CSV file.
@@ -53,52 +50,42 @@ public class ReadVehicles {
 	
 	
 	/**
-	 * Static method for loading vehicles from a CSV file. The method reads the file, parses each line and 
+	 * Static method for loading vehicles from a CSV file. The method reads the file with {@link CsvReader}, parses each row and 
 	 * creates appropriate {@link Vehicle} object based on the vehicle type.
 	 * 
 	 * <p>If the vehicle type is unrecognized, the line is ignored. Duplicate vehicles (identified by the vehicle ID) 
 	 * are also ignored.</p>
 	 * 
-	 * @return A set of {@link Vehicle} objects loaded from the CSV file.
+	 * @return A registry of {@link Vehicle} objects loaded from the CSV file.
 	 */
-	public static Set<Vehicle> readVehicles() {
+	public static VehicleRegistry readVehicles() {
 		Path filePath = new File(FILE_WITH_VEHICLES).toPath();
-		Set<Vehicle> vehicles = new HashSet<>();
-		Stream<String> content;
+		VehicleRegistry vehicles = new VehicleRegistry();
 		try {
-			content = Files.lines(filePath);
-			content.forEach(line -> {
-				if(!line.contains(ID)) {
-					String parts[] = line.split(SEPARATOR);
-					if (parts.length < 9) {
-	                    System.out.println("Invalid data format: " + line);
+			CsvReader.read(filePath, row -> {
+				if(!row.matches(0, ID)) {
+					if (row.getFieldCount() < 9) {
+	                    System.out.println("Invalid data format: " + row);
 	                    return; 
 	                }
 					try {
-						String idOfVehicle = parts[0];
-						String manufacturer = parts[1];
-						String model = parts[2];
-						String purchaseDate = parts[3];
-						int purchasePrice = Integer.parseInt(parts[4]);
-						String rangePerChargeString = parts[5];
-						int rangePerCharge = rangePerChargeString.isEmpty() ? 0 : Integer.parseInt(rangePerChargeString);
-						String maxSpeedString = parts[6];
-						int maxSpeed = maxSpeedString.isEmpty() ? 0 : Integer.parseInt(maxSpeedString);
-						String description = parts[7];
-						String typeOfVehicle = parts[8];
+						String idOfVehicle = row.getString(0);
+						String manufacturer = row.getString(1);
+						String model = row.getString(2);
+						String purchaseDate = row.getString(3);
+						int purchasePrice = row.getInt(4);
+						int rangePerCharge = row.getInt(5, 0);
+						int maxSpeed = row.getInt(6, 0);
+						String description = row.getString(7);
 						Vehicle vehicle = null;
-						switch(typeOfVehicle) {
-						case CAR:
-							vehicle = new ElectricCar(idOfVehicle, manufacturer, model, purchasePrice, typeOfVehicle, purchaseDate, description);
-							break;
-						case BIKE:
-							vehicle = new ElectricBike(idOfVehicle, manufacturer, model, purchasePrice, typeOfVehicle, rangePerCharge);
-							break;
-						case SCOOTER:
-							vehicle = new ElectricScooter(idOfVehicle, manufacturer, model, purchasePrice, typeOfVehicle, maxSpeed);
-							break;
-						default:
-							System.out.println("Unknown vehicle type: " + typeOfVehicle);
+						if(row.matches(8, CAR)) {
+							vehicle = new ElectricCar(idOfVehicle, manufacturer, model, purchasePrice, CAR, purchaseDate, description);
+						} else if(row.matches(8, BIKE)) {
+							vehicle = new ElectricBike(idOfVehicle, manufacturer, model, purchasePrice, BIKE, rangePerCharge);
+						} else if(row.matches(8, SCOOTER)) {
+							vehicle = new ElectricScooter(idOfVehicle, manufacturer, model, purchasePrice, SCOOTER, maxSpeed);
+						} else {
+							System.out.println("Unknown vehicle type: " + row.getString(8));
 	                        return;
 						}
 						
@@ -111,7 +98,7 @@ public class ReadVehicles {
 					} catch(NumberFormatException exception) {
 						exception.printStackTrace();
 					} catch (Exception e) {
-	                    System.out.println("Unexpected error for line: " + line);
+	                    System.out.println("Unexpected error for line: " + row);
 	                    e.printStackTrace();
 	                }
 				}
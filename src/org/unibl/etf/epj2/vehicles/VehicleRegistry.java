@@ -0,0 +1,159 @@
+package org.unibl.etf.epj2.vehicles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Holds all vehicles of the company and indexes them for fast lookup.
+ * <p>Vehicles are stored in insertion order and every vehicle gets a dense index (its position in the registry).
+ * Lookup by ID is a single hash lookup, while vehicles can also be retrieved by type
+ * ({@value ReadVehicles#CAR}, {@value ReadVehicles#BIKE}, {@value ReadVehicles#SCOOTER}) or by manufacturer
+ * without scanning the whole fleet.</p>
+ *
+ * @author Tamara Kosovac
+ */
+public class VehicleRegistry {
+	/**
+	 * Value returned by {@link #indexOf(String)} when a vehicle with the given ID doesn't exist.
+	 */
+	public static final int NOT_FOUND = -1;
+
+	/**
+	 * All vehicles in the order in which they were added.
+	 */
+	private final List<Vehicle> vehicles = new ArrayList<>();
+
+	/**
+	 * Map from the ID of the vehicle to its index in {@link #vehicles}.
+	 */
+	private final Map<String, Integer> indexById = new HashMap<>();
+
+	/**
+	 * Vehicles grouped by the type of vehicle.
+	 */
+	private final Map<String, List<Vehicle>> vehiclesByType = new HashMap<>();
+
+	/**
+	 * Vehicles grouped by the manufacturer.
+	 */
+	private final Map<String, List<Vehicle>> vehiclesByManufacturer = new HashMap<>();
+
+	/**
+	 * Adds a vehicle to the registry and updates all indexes.
+	 * <p>Vehicles are identified by ID, so a vehicle whose ID is already registered is ignored.</p>
+	 *
+	 * @param vehicle  The vehicle to add.
+	 * @return {@code true} if the vehicle was added; {@code false} if a vehicle with the same ID already exists
+	 */
+	public boolean add(Vehicle vehicle) {
+		if(indexById.containsKey(vehicle.getIdOfVehicle())) {
+			return false;
+		}
+		indexById.put(vehicle.getIdOfVehicle(), vehicles.size());
+		vehicles.add(vehicle);
+		vehiclesByType.computeIfAbsent(vehicle.getTypeOfVehicle(), k -> new ArrayList<>()).add(vehicle);
+		vehiclesByManufacturer.computeIfAbsent(vehicle.getManufacturer(), k -> new ArrayList<>()).add(vehicle);
+		return true;
+	}
+
+	/**
+	 * Returns the vehicle with the specified ID.
+	 *
+	 * @param idOfVehicle  The ID of the vehicle.
+	 * @return The vehicle with the specified ID, or {@code null} if it doesn't exist.
+	 */
+	public Vehicle findById(String idOfVehicle) {
+		int index = indexOf(idOfVehicle);
+		return index == NOT_FOUND ? null : vehicles.get(index);
+	}
+
+	/**
+	 * Returns the dense index of the vehicle with the specified ID.
+	 * <p>Indexes start from zero and are stable for the lifetime of the registry.</p>
+	 *
+	 * @param idOfVehicle  The ID of the vehicle.
+	 * @return The index of the vehicle, or {@link #NOT_FOUND} if it doesn't exist.
+	 */
+	public int indexOf(String idOfVehicle) {
+		Integer index = indexById.get(idOfVehicle);
+		return index == null ? NOT_FOUND : index;
+	}
+
+	/**
+	 * Returns the vehicle at the specified index.
+	 *
+	 * @param index  The index of the vehicle.
+	 * @return The vehicle at the specified index.
+	 */
+	public Vehicle get(int index) {
+		return vehicles.get(index);
+	}
+
+	/**
+	 * Checks if a vehicle with the specified ID exists.
+	 *
+	 * @param idOfVehicle  The ID of the vehicle.
+	 * @return {@code true} if the vehicle exists; {@code false} otherwise
+	 */
+	public boolean contains(String idOfVehicle) {
+		return indexById.containsKey(idOfVehicle);
+	}
+
+	/**
+	 * Returns the number of vehicles in the registry.
+	 *
+	 * @return The number of vehicles.
+	 */
+	public int size() {
+		return vehicles.size();
+	}
+
+	/**
+	 * Returns all vehicles in the order in which they were added.
+	 *
+	 * @return An unmodifiable list of all vehicles.
+	 */
+	public List<Vehicle> getVehicles() {
+		return Collections.unmodifiableList(vehicles);
+	}
+
+	/**
+	 * Returns all vehicles of the specified type.
+	 *
+	 * @param typeOfVehicle  The type of vehicle.
+	 * @return An unmodifiable list of vehicles of the specified type.
+	 */
+	public List<Vehicle> getVehiclesOfType(String typeOfVehicle) {
+		return Collections.unmodifiableList(vehiclesByType.getOrDefault(typeOfVehicle, Collections.emptyList()));
+	}
+
+	/**
+	 * Returns all vehicles of the specified type cast to the given class.
+	 * <p>Vehicles of the type that are not instances of the given class are skipped.</p>
+	 *
+	 * @param <T>           The class of vehicles.
+	 * @param typeOfVehicle The type of vehicle.
+	 * @param vehicleClass  The class of vehicles to return.
+	 * @return A list of vehicles of the specified type.
+	 */
+	public <T extends Vehicle> List<T> getVehiclesOfType(String typeOfVehicle, Class<T> vehicleClass) {
+		return getVehiclesOfType(typeOfVehicle).stream()
+				.filter(vehicleClass::isInstance)
+				.map(vehicleClass::cast)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns all vehicles made by the specified manufacturer.
+	 *
+	 * @param manufacturer  The manufacturer of vehicles.
+	 * @return An unmodifiable list of vehicles made by the specified manufacturer.
+	 */
+	public List<Vehicle> getVehiclesOfManufacturer(String manufacturer) {
+		return Collections.unmodifiableList(vehiclesByManufacturer.getOrDefault(manufacturer, Collections.emptyList()));
+	}
+}